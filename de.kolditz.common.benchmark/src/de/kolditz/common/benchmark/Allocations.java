@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 19:08:40
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+/**
+ * Reads the allocation and garbage collection counters of the running VM. The allocated bytes per thread are provided
+ * by <code>com.sun.management.ThreadMXBean</code>, which is accessed reflectively since it is not part of the Java SE
+ * API. If it is not available, {@link #getAllocatedBytes()} returns -1.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+final class Allocations
+{
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final Method ALLOCATED_BYTES = findAllocatedBytes();
+
+    private static Method findAllocatedBytes()
+    {
+        try
+        {
+            Class<?> type = Class.forName("com.sun.management.ThreadMXBean"); //$NON-NLS-1$
+            if (!type.isInstance(THREADS))
+                return null;
+            Method method = type.getMethod("getThreadAllocatedBytes", long.class); //$NON-NLS-1$
+            type.getMethod("setThreadAllocatedMemoryEnabled", boolean.class).invoke(THREADS, Boolean.TRUE); //$NON-NLS-1$
+            return method;
+        }
+        catch (Exception e)
+        {
+            return null;
+        }
+    }
+
+    private Allocations()
+    {
+    }
+
+    /**
+     * @return the number of bytes allocated by the current thread so far, or -1 if unsupported
+     */
+    static long getAllocatedBytes()
+    {
+        if (ALLOCATED_BYTES == null)
+            return -1;
+        try
+        {
+            return ((Long) ALLOCATED_BYTES.invoke(THREADS, Long.valueOf(Thread.currentThread().getId()))).longValue();
+        }
+        catch (Exception e)
+        {
+            return -1;
+        }
+    }
+
+    /**
+     * @return the number of garbage collections of all collectors so far
+     */
+    static long getCollectionCount()
+    {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    /**
+     * @return the accumulated time of all garbage collections so far, in milliseconds
+     */
+    static long getCollectionTime()
+    {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+}
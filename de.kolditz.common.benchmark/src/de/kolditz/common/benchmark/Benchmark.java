@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 19:02:14
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.benchmark;
+
+/**
+ * A single benchmark run by the {@link BenchmarkRunner}. Subclasses prepare their input in {@link #setUp()}, so that
+ * {@link #run()} only contains the measured work.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public abstract class Benchmark
+{
+    private final String name;
+    private final int operations;
+    private final int threads;
+
+    /**
+     * @param name
+     *            the name printed in the results
+     */
+    protected Benchmark(String name)
+    {
+        this(name, 1);
+    }
+
+    /**
+     * @param name
+     *            the name printed in the results
+     * @param operations
+     *            the number of operations performed by each call of {@link #run()}, e.g. the number of objects of a
+     *            serialized array
+     */
+    protected Benchmark(String name, int operations)
+    {
+        this(name, operations, 1);
+    }
+
+    /**
+     * @param name
+     *            the name printed in the results
+     * @param operations
+     *            the number of operations performed by each call of {@link #run()}
+     * @param threads
+     *            the number of threads calling {@link #run()} concurrently, which must be thread-safe if greater than 1
+     */
+    protected Benchmark(String name, int operations, int threads)
+    {
+        this.name = name;
+        this.operations = operations;
+        this.threads = threads;
+    }
+
+    /**
+     * @return the name printed in the results
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * @return the number of operations performed by each call of {@link #run()}
+     */
+    public int getOperations()
+    {
+        return operations;
+    }
+
+    /**
+     * @return the number of threads calling {@link #run()} concurrently
+     */
+    public int getThreads()
+    {
+        return threads;
+    }
+
+    /**
+     * Returns the maximum number of bytes each operation may allocate on average. The {@link BenchmarkRunner} reports
+     * a benchmark exceeding it as failed. Benchmarks of allocation-free code paths return a value slightly above 0,
+     * which allows for the harness' constant overhead per iteration.
+     * 
+     * @return the limit, or a negative value for none
+     */
+    public double getAllocationLimit()
+    {
+        return -1;
+    }
+
+    /**
+     * Prepares the input. Called once before the warmup.
+     */
+    protected void setUp() throws Exception
+    {
+    }
+
+    /**
+     * Performs the measured work.
+     * 
+     * @return the work's result, which is consumed by the runner so that the JIT cannot eliminate the work
+     */
+    protected abstract Object run() throws Exception;
+
+    /**
+     * Releases the input. Called once after the measurement.
+     */
+    protected void tearDown() throws Exception
+    {
+    }
+}
@@ -0,0 +1,366 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 19:15:27
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.benchmark;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.regex.Pattern;
+
+/**
+ * A plain benchmark harness. Each {@link Benchmark} is warmed up and then measured in several time-boxed iterations on
+ * the calling thread, or on as many threads as the benchmark demands. The results report the throughput and, like a GC
+ * profiler, the bytes allocated per operation as well as the garbage collections during the measurement.
+ * <p>
+ * Usage: <code>java de.kolditz.common.benchmark.BenchmarkRunner [regex]</code>, where the optional regular expression
+ * selects the benchmarks by name. The system properties <code>benchmark.warmups</code>,
+ * <code>benchmark.iterations</code> and <code>benchmark.time</code> (milliseconds per iteration) override the defaults.
+ * For comparable numbers, run each change with the same VM, heap size and properties.
+ * <p>
+ * Benchmarks with an {@link Benchmark#getAllocationLimit() allocation limit} double as allocation tests, and benchmarks
+ * which check their results throw an exception if a check fails. Such failures are reported, and the runner exits with
+ * status 1.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public final class BenchmarkRunner
+{
+    /**
+     * Runs all benchmarks whose names match the first argument. Exits with status 1 if a benchmark failed or exceeded
+     * its allocation limit.
+     * 
+     * @param args
+     *            an optional regular expression selecting the benchmarks by name
+     */
+    public static void main(String[] args) throws Exception
+    {
+        Pattern filter = Pattern.compile(args.length > 0 ? args[0] : ".*"); //$NON-NLS-1$
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+        benchmarks.addAll(S11nBenchmarks.create());
+        benchmarks.addAll(SchedulerBenchmarks.create());
+        BenchmarkRunner runner = new BenchmarkRunner(Integer.getInteger("benchmark.warmups", 5).intValue(), //$NON-NLS-1$
+                Integer.getInteger("benchmark.iterations", 10).intValue(), //$NON-NLS-1$
+                Integer.getInteger("benchmark.time", 1000).intValue()); //$NON-NLS-1$
+        PrintStream out = System.out;
+        out.println(Result.HEADER);
+        int failed = 0;
+        for (Benchmark benchmark : benchmarks)
+        {
+            if (!filter.matcher(benchmark.getName()).find())
+                continue;
+            Result result;
+            try
+            {
+                result = runner.run(benchmark);
+            }
+            catch (Exception e)
+            {
+                out.println(benchmark.getName());
+                out.println("  FAILED: " + e); //$NON-NLS-1$
+                ++failed;
+                continue;
+            }
+            out.println(result);
+            double limit = benchmark.getAllocationLimit();
+            if (limit >= 0 && result.getBytesPerOperation() > limit)
+            {
+                out.println("  FAILED: allocates more than " + limit + " B/op"); //$NON-NLS-1$ //$NON-NLS-2$
+                ++failed;
+            }
+        }
+        if (failed > 0)
+        {
+            out.println(failed + " benchmark(s) failed"); //$NON-NLS-1$
+            System.exit(1);
+        }
+    }
+
+    /** The minimum duration of a batch of runs, between which the clock is read. */
+    private static final long BATCH_NANOS = 1000000L;
+
+    private final int warmups;
+    private final int iterations;
+    private final long iterationNanos;
+    private Object sink;
+
+    /**
+     * @param warmups
+     *            the number of warmup iterations, whose results are discarded
+     * @param iterations
+     *            the number of measured iterations
+     * @param iterationMillis
+     *            the duration of each iteration
+     */
+    public BenchmarkRunner(int warmups, int iterations, int iterationMillis)
+    {
+        if (iterations <= 0 || iterationMillis <= 0)
+            throw new IllegalArgumentException("iterations and their duration must be positive"); //$NON-NLS-1$
+        this.warmups = warmups;
+        this.iterations = iterations;
+        this.iterationNanos = iterationMillis * 1000000L;
+    }
+
+    /**
+     * Sets up, warms up, measures and tears down the given benchmark.
+     * 
+     * @param benchmark
+     *            the benchmark
+     * @return the measured result
+     */
+    public Result run(Benchmark benchmark) throws Exception
+    {
+        benchmark.setUp();
+        try
+        {
+            int batch = calibrate(benchmark);
+            for (int i = 0; i < warmups; ++i)
+            {
+                iterate(benchmark, batch);
+            }
+            double[] throughput = new double[iterations];
+            long runs = 0;
+            long allocated = 0;
+            long collections = Allocations.getCollectionCount();
+            long collectionTime = Allocations.getCollectionTime();
+            for (int i = 0; i < iterations; ++i)
+            {
+                long start = System.nanoTime();
+                Iteration iteration = iterate(benchmark, batch);
+                throughput[i] = iteration.runs * (double) benchmark.getOperations() * 1e9
+                        / (System.nanoTime() - start);
+                runs += iteration.runs;
+                allocated = allocated < 0 || iteration.allocated < 0 ? -1 : allocated + iteration.allocated;
+            }
+            long operations = runs * benchmark.getOperations();
+            return new Result(benchmark.getName(), throughput, allocated < 0 ? -1 : (double) allocated / operations,
+                    Allocations.getCollectionCount() - collections, Allocations.getCollectionTime() - collectionTime);
+        }
+        finally
+        {
+            benchmark.tearDown();
+        }
+    }
+
+    /**
+     * @return the number of runs per batch, so that a batch takes at least {@link #BATCH_NANOS}
+     */
+    private int calibrate(Benchmark benchmark) throws Exception
+    {
+        int batch = 1;
+        while (batch < 1 << 20)
+        {
+            long start = System.nanoTime();
+            for (int i = 0; i < batch; ++i)
+            {
+                sink = benchmark.run();
+            }
+            if (System.nanoTime() - start >= BATCH_NANOS)
+                break;
+            batch <<= 1;
+        }
+        return batch;
+    }
+
+    /**
+     * Runs one iteration on as many threads as the benchmark demands.
+     */
+    private Iteration iterate(final Benchmark benchmark, final int batch) throws Exception
+    {
+        if (benchmark.getThreads() <= 1)
+            return iterate(benchmark, batch, System.nanoTime() + iterationNanos);
+
+        final Iteration[] iterations = new Iteration[benchmark.getThreads()];
+        final Exception[] failure = new Exception[1];
+        final CountDownLatch ready = new CountDownLatch(iterations.length);
+        final CountDownLatch go = new CountDownLatch(1);
+        final long[] deadline = new long[1];
+        Thread[] threads = new Thread[iterations.length];
+        for (int i = 0; i < threads.length; ++i)
+        {
+            final int index = i;
+            threads[i] = new Thread(benchmark.getName() + " #" + i) //$NON-NLS-1$
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        ready.countDown();
+                        go.await();
+                        iterations[index] = iterate(benchmark, batch, deadline[0]);
+                    }
+                    catch (Exception e)
+                    {
+                        synchronized (failure)
+                        {
+                            failure[0] = e;
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        ready.await();
+        // published to the threads by the latch
+        deadline[0] = System.nanoTime() + iterationNanos;
+        go.countDown();
+        for (int i = 0; i < threads.length; ++i)
+        {
+            threads[i].join();
+        }
+        synchronized (failure)
+        {
+            if (failure[0] != null)
+                throw failure[0];
+        }
+        Iteration total = new Iteration(0, 0);
+        for (Iteration iteration : iterations)
+        {
+            total = new Iteration(total.runs + iteration.runs, total.allocated < 0 || iteration.allocated < 0 ? -1
+                    : total.allocated + iteration.allocated);
+        }
+        return total;
+    }
+
+    /**
+     * Runs one iteration on the current thread.
+     */
+    private Iteration iterate(Benchmark benchmark, int batch, long deadline) throws Exception
+    {
+        long allocated = Allocations.getAllocatedBytes();
+        long count = 0;
+        do
+        {
+            for (int i = 0; i < batch; ++i)
+            {
+                sink = benchmark.run();
+            }
+            count += batch;
+        }
+        while (System.nanoTime() < deadline);
+        return new Iteration(count, allocated < 0 ? -1 : Allocations.getAllocatedBytes() - allocated);
+    }
+
+    /**
+     * The number of runs of an iteration and the bytes they allocated.
+     */
+    private static final class Iteration
+    {
+        final long runs;
+        final long allocated;
+
+        Iteration(long runs, long allocated)
+        {
+            this.runs = runs;
+            this.allocated = allocated;
+        }
+    }
+
+    /**
+     * The measured result of a benchmark.
+     */
+    public static final class Result
+    {
+        static final String HEADER = String.format("%-76s %14s %9s %12s %6s %8s", "Benchmark", "ops/s", "error", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                "B/op", "GCs", "GC ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+        private final String name;
+        private final double throughput;
+        private final double error;
+        private final double bytesPerOperation;
+        private final long collections;
+        private final long collectionTime;
+
+        Result(String name, double[] throughput, double bytesPerOperation, long collections, long collectionTime)
+        {
+            this.name = name;
+            double sum = 0;
+            for (double t : throughput)
+            {
+                sum += t;
+            }
+            double mean = sum / throughput.length;
+            double squares = 0;
+            for (double t : throughput)
+            {
+                squares += (t - mean) * (t - mean);
+            }
+            this.throughput = mean;
+            this.error = throughput.length > 1 ? Math.sqrt(squares / (throughput.length - 1)) : 0;
+            this.bytesPerOperation = bytesPerOperation;
+            this.collections = collections;
+            this.collectionTime = collectionTime;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        /**
+         * @return the mean number of operations per second
+         */
+        public double getThroughput()
+        {
+            return throughput;
+        }
+
+        /**
+         * @return the standard deviation of the iterations' throughput
+         */
+        public double getError()
+        {
+            return error;
+        }
+
+        /**
+         * @return the mean number of bytes allocated per operation, or -1 if unsupported by the VM
+         */
+        public double getBytesPerOperation()
+        {
+            return bytesPerOperation;
+        }
+
+        /**
+         * @return the number of garbage collections during the measurement
+         */
+        public long getCollections()
+        {
+            return collections;
+        }
+
+        /**
+         * @return the time spent in garbage collections during the measurement, in milliseconds
+         */
+        public long getCollectionTime()
+        {
+            return collectionTime;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%-76s %14.1f %8.1f%% %12.1f %6d %8d", name, throughput, throughput > 0 ? 100 //$NON-NLS-1$
+                    * error / throughput : 0, bytesPerOperation, collections, collectionTime);
+        }
+    }
+
+    /**
+     * @return the result of the last run, which keeps the JIT from eliminating the runs
+     */
+    Object getSink()
+    {
+        return sink;
+    }
+}
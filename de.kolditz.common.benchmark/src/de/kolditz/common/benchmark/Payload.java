@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 19:27:51
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.benchmark;
+
+import java.util.Random;
+
+import de.kolditz.common.s11n.DeSerializer;
+
+/**
+ * The shapes of the field values used by the benchmarks. The values are generated from a fixed seed, so each run
+ * measures the same input.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public enum Payload
+{
+    /**
+     * Letters and digits only, which need no escaping.
+     */
+    ASCII
+    {
+        @Override
+        void append(StringBuilder sb, Random random)
+        {
+            sb.append(ALPHANUMERIC.charAt(random.nextInt(ALPHANUMERIC.length())));
+        }
+    },
+    /**
+     * Every second character is one of the special characters which need escaping.
+     */
+    ESCAPED
+    {
+        @Override
+        void append(StringBuilder sb, Random random)
+        {
+            if (random.nextBoolean())
+                sb.append(SPECIALS.charAt(random.nextInt(SPECIALS.length())));
+            else
+                ASCII.append(sb, random);
+        }
+    },
+    /**
+     * Every fourth character is a supplementary code point, i.e. a surrogate pair, so that
+     * {@link DeSerializer#hasLargeUnicodeChars(String)} is true.
+     */
+    SUPPLEMENTARY
+    {
+        @Override
+        void append(StringBuilder sb, Random random)
+        {
+            if (random.nextInt(4) == 0)
+                sb.appendCodePoint(0x1F600 + random.nextInt(0x50));
+            else
+                ASCII.append(sb, random);
+        }
+    };
+
+    private static final String ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789"; //$NON-NLS-1$
+    private static final String SPECIALS = "[]{},\\"; //$NON-NLS-1$
+
+    abstract void append(StringBuilder sb, Random random);
+
+    /**
+     * @param random
+     *            the source of randomness
+     * @param length
+     *            the number of characters, where a surrogate pair counts as one
+     * @return a new value of this shape
+     */
+    public String value(Random random, int length)
+    {
+        StringBuilder sb = new StringBuilder(length * 2);
+        for (int i = 0; i < length; ++i)
+        {
+            append(sb, random);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param random
+     *            the source of randomness
+     * @param count
+     *            the number of fields
+     * @param length
+     *            the length of each field
+     * @return the new fields of this shape
+     */
+    public String[] fields(Random random, int count, int length)
+    {
+        String[] fields = new String[count];
+        for (int i = 0; i < count; ++i)
+        {
+            fields[i] = value(random, length);
+        }
+        return fields;
+    }
+
+    /**
+     * @param random
+     *            the source of randomness
+     * @return a new record whose String fields have this shape
+     */
+    public Record record(Random random)
+    {
+        Record record = new Record();
+        record.name = value(random, 12);
+        record.description = value(random, 48);
+        record.code = value(random, 2);
+        record.count = random.nextInt();
+        record.id = random.nextLong();
+        record.value = random.nextDouble();
+        record.active = random.nextBoolean();
+        return record;
+    }
+
+    /**
+     * A typical object serialized by the {@link de.kolditz.common.s11n.ObjectSerializer}, mixing String and primitive
+     * fields.
+     */
+    public static final class Record
+    {
+        public String name;
+        public String description;
+        public String code;
+        public int count;
+        public long id;
+        public double value;
+        public boolean active;
+    }
+}
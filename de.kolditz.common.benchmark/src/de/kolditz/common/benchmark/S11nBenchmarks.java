@@ -0,0 +1,432 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 19:36:05
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.benchmark;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import de.kolditz.common.s11n.ArrayDeserializer;
+import de.kolditz.common.s11n.ArraySerializer;
+import de.kolditz.common.s11n.DeSerializer;
+import de.kolditz.common.s11n.ObjectSerializer;
+import de.kolditz.common.s11n.PullDeserializer;
+
+/**
+ * The benchmarks of the hot paths of the <code>de.kolditz.common.s11n</code> package, each for every {@link Payload}.
+ * Besides the regular arrays of 1000 objects, arrays of more than a million characters are deserialized and scanned,
+ * where the scanning benchmarks report characters per second. The cached field accessors are compared against the
+ * former reflective path, and the pull parser's scanning against {@link DeSerializer#search(int[], int, int, int[])}.
+ * The variants of escape and unescape which write into caller buffers are checked to allocate nothing per field.
+ * <p>
+ * Extends {@link DeSerializer} in order to access its protected search and String escaping methods.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public final class S11nBenchmarks extends DeSerializer
+{
+    /** The number of objects of the serialized arrays. */
+    private static final int OBJECTS = 1000;
+    /** The number of fields of the String objects. */
+    private static final int FIELDS = 8;
+    /** The length of each field of the String objects. */
+    private static final int LENGTH = 16;
+    /** The number of objects of the large arrays, which have more than a million characters for each payload. */
+    private static final int LARGE_OBJECTS = 8000;
+    private static final long SEED = 42;
+    /** All special characters, as searched for by {@link DeSerializer#search(int[], int, int, int[])}. */
+    private static final int[] SPECIALS = { ARRAY_BEGIN, ARRAY_END, OBJECT_BEGIN, OBJECT_END, SEPARATOR, BACKSLASH };
+
+    /** The limit of the bytes allocated per field by the caller-buffer variants, which allocate nothing per field. */
+    private static final double NO_ALLOCATION = 0.1;
+
+    private S11nBenchmarks()
+    {
+    }
+
+    /**
+     * A benchmark of an escaping or unescaping variant writing into a caller-provided buffer, which must not allocate
+     * anything per field. Each run processes all fields.
+     */
+    private abstract static class CallerBufferBenchmark extends Benchmark
+    {
+        private final Payload payload;
+        protected String[] fields;
+        protected String[] escaped;
+
+        CallerBufferBenchmark(String name, Payload payload)
+        {
+            super(name + " " + payload, FIELDS); //$NON-NLS-1$
+            this.payload = payload;
+        }
+
+        @Override
+        public double getAllocationLimit()
+        {
+            return NO_ALLOCATION;
+        }
+
+        @Override
+        protected void setUp()
+        {
+            fields = payload.fields(new Random(SEED), FIELDS, LENGTH);
+            escaped = new String[fields.length];
+            for (int i = 0; i < fields.length; ++i)
+            {
+                escaped[i] = escape(fields[i]);
+            }
+        }
+    }
+
+    /**
+     * @return new instances of all s11n benchmarks
+     */
+    public static List<Benchmark> create()
+    {
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+        for (final Payload payload : Payload.values())
+        {
+            benchmarks.add(new Benchmark("ObjectSerializer.serialize(String...) " + payload) //$NON-NLS-1$
+            {
+                private String[] fields;
+
+                @Override
+                protected void setUp()
+                {
+                    fields = payload.fields(new Random(SEED), FIELDS, LENGTH);
+                }
+
+                @Override
+                protected Object run()
+                {
+                    return ObjectSerializer.serialize(fields);
+                }
+            });
+            benchmarks.add(new Benchmark("ObjectSerializer.serialize(StringBuilder, Object) " + payload) //$NON-NLS-1$
+            {
+                private final StringBuilder sb = new StringBuilder();
+                private Payload.Record record;
+
+                @Override
+                protected void setUp()
+                {
+                    record = payload.record(new Random(SEED));
+                }
+
+                @Override
+                protected Object run()
+                {
+                    sb.setLength(0);
+                    ObjectSerializer.serialize(sb, record);
+                    return sb;
+                }
+            });
+            benchmarks.add(new Benchmark("reflective baseline serialize(StringBuilder, Object) " + payload) //$NON-NLS-1$
+            {
+                private final StringBuilder sb = new StringBuilder();
+                private Payload.Record record;
+
+                @Override
+                protected void setUp()
+                {
+                    record = payload.record(new Random(SEED));
+                }
+
+                @Override
+                protected Object run() throws IllegalAccessException
+                {
+                    sb.setLength(0);
+                    reflectiveSerialize(sb, record);
+                    return sb;
+                }
+            });
+            benchmarks.add(new Benchmark("ArraySerializer.serialize() " + payload, OBJECTS) //$NON-NLS-1$
+            {
+                private String[][] objects;
+
+                @Override
+                protected void setUp()
+                {
+                    objects = objects(payload);
+                }
+
+                @Override
+                protected Object run()
+                {
+                    ArraySerializer serializer = new ArraySerializer();
+                    for (String[] fields : objects)
+                    {
+                        serializer.addObject(fields);
+                    }
+                    return serializer.serialize();
+                }
+            });
+            benchmarks.add(new Benchmark("ArrayDeserializer.deserialize(String) " + payload, OBJECTS) //$NON-NLS-1$
+            {
+                private String serialized;
+
+                @Override
+                protected void setUp()
+                {
+                    serialized = serialize(objects(payload));
+                }
+
+                @Override
+                protected Object run()
+                {
+                    return ArrayDeserializer.deserialize(serialized);
+                }
+            });
+            final String large = serialize(objects(payload, LARGE_OBJECTS));
+            benchmarks.add(new Benchmark("ArrayDeserializer.deserialize(String) 1MB+ " + payload, LARGE_OBJECTS) //$NON-NLS-1$
+            {
+                @Override
+                protected Object run()
+                {
+                    return ArrayDeserializer.deserialize(large);
+                }
+            });
+            benchmarks.add(new Benchmark("DeSerializer.search(int[]) 1MB+ " + payload, large.length()) //$NON-NLS-1$
+            {
+                private int[] codePoints;
+
+                @Override
+                protected void setUp()
+                {
+                    codePoints = codePoints(large);
+                }
+
+                @Override
+                protected Object run()
+                {
+                    int max = codePoints.length - 1;
+                    int found = 0;
+                    for (int pos = 0; pos < max; ++pos)
+                    {
+                        pos = search(codePoints, pos, max, SPECIALS);
+                        ++found;
+                    }
+                    return Integer.valueOf(found);
+                }
+
+                @Override
+                protected void tearDown()
+                {
+                    codePoints = null;
+                }
+            });
+            benchmarks.add(new Benchmark("PullDeserializer.next() 1MB+ " + payload, large.length()) //$NON-NLS-1$
+            {
+                @Override
+                protected Object run() throws IOException
+                {
+                    PullDeserializer parser = new PullDeserializer(large);
+                    int events = 0;
+                    while (parser.next() != PullDeserializer.END_DOCUMENT)
+                    {
+                        ++events;
+                    }
+                    return Integer.valueOf(events);
+                }
+            });
+            benchmarks.add(new Benchmark("DeSerializer.escape(String) " + payload, FIELDS) //$NON-NLS-1$
+            {
+                private String[] fields;
+
+                @Override
+                protected void setUp()
+                {
+                    fields = payload.fields(new Random(SEED), FIELDS, LENGTH);
+                }
+
+                @Override
+                protected Object run()
+                {
+                    String last = null;
+                    for (String field : fields)
+                    {
+                        last = escape(field);
+                    }
+                    return last;
+                }
+            });
+            benchmarks.add(new Benchmark("DeSerializer.unescape(String) " + payload, FIELDS) //$NON-NLS-1$
+            {
+                private String[] fields;
+
+                @Override
+                protected void setUp()
+                {
+                    fields = payload.fields(new Random(SEED), FIELDS, LENGTH);
+                    for (int i = 0; i < fields.length; ++i)
+                    {
+                        fields[i] = escape(fields[i]);
+                    }
+                }
+
+                @Override
+                protected Object run()
+                {
+                    String last = null;
+                    for (String field : fields)
+                    {
+                        last = unescape(field);
+                    }
+                    return last;
+                }
+            });
+            benchmarks.add(new CallerBufferBenchmark("DeSerializer.escape(CharSequence, StringBuilder)", payload) //$NON-NLS-1$
+            {
+                private final StringBuilder sb = new StringBuilder();
+
+                @Override
+                protected Object run()
+                {
+                    sb.setLength(0);
+                    for (String field : fields)
+                    {
+                        escape(field, sb);
+                    }
+                    return sb;
+                }
+            });
+            benchmarks.add(new CallerBufferBenchmark("DeSerializer.escape(CharSequence, Appendable) Writer", payload) //$NON-NLS-1$
+            {
+                private final CharArrayWriter writer = new CharArrayWriter();
+
+                @Override
+                protected Object run() throws IOException
+                {
+                    writer.reset();
+                    for (String field : fields)
+                    {
+                        escape(field, writer);
+                    }
+                    return writer;
+                }
+            });
+            benchmarks.add(new CallerBufferBenchmark("DeSerializer.escape(CharSequence, CharBuffer)", payload) //$NON-NLS-1$
+            {
+                private final CharBuffer buffer = CharBuffer.allocate(FIELDS * LENGTH * 4);
+
+                @Override
+                protected Object run()
+                {
+                    buffer.clear();
+                    for (String field : fields)
+                    {
+                        escape(field, buffer);
+                    }
+                    return buffer;
+                }
+            });
+            benchmarks.add(new CallerBufferBenchmark("DeSerializer.unescape(CharSequence, int, int, StringBuilder)", //$NON-NLS-1$
+                    payload)
+            {
+                private final StringBuilder sb = new StringBuilder();
+
+                @Override
+                protected Object run()
+                {
+                    sb.setLength(0);
+                    for (String field : escaped)
+                    {
+                        unescape(field, 0, field.length(), sb);
+                    }
+                    return sb;
+                }
+            });
+            benchmarks.add(new CallerBufferBenchmark("DeSerializer.unescape(CharSequence, int, int, CharBuffer)", //$NON-NLS-1$
+                    payload)
+            {
+                private final CharBuffer buffer = CharBuffer.allocate(FIELDS * LENGTH * 2);
+
+                @Override
+                protected Object run()
+                {
+                    buffer.clear();
+                    for (String field : escaped)
+                    {
+                        unescape(field, 0, field.length(), buffer);
+                    }
+                    return buffer;
+                }
+            });
+        }
+        return benchmarks;
+    }
+
+    /**
+     * The reflective path of {@link ObjectSerializer#serialize(StringBuilder, Object)} before its field accessors were
+     * cached, as the baseline of their benchmark: the fields are looked up and filtered for each object, and each value
+     * is boxed and converted to a String before it is escaped.
+     */
+    private static void reflectiveSerialize(StringBuilder sb, Object object) throws IllegalAccessException
+    {
+        Field[] fields = object.getClass().getFields();
+        List<String> list = new ArrayList<String>(fields.length);
+        for (Field f : fields)
+        {
+            int mod = f.getModifiers();
+            if ((mod & Modifier.STATIC) == 0 && (mod & Modifier.TRANSIENT) == 0)
+                list.add(String.valueOf(f.get(object)));
+        }
+        ObjectSerializer.serialize(sb, list);
+    }
+
+    private static String[][] objects(Payload payload)
+    {
+        return objects(payload, OBJECTS);
+    }
+
+    private static String[][] objects(Payload payload, int count)
+    {
+        Random random = new Random(SEED);
+        String[][] objects = new String[count][];
+        for (int i = 0; i < count; ++i)
+        {
+            objects[i] = payload.fields(random, FIELDS, LENGTH);
+        }
+        return objects;
+    }
+
+    /**
+     * @return the code points of the given string, which is the input format of the scanning before the
+     *         {@link PullDeserializer}
+     */
+    private static int[] codePoints(String s)
+    {
+        int[] codePoints = new int[s.codePointCount(0, s.length())];
+        for (int i = 0, j = 0; i < s.length(); ++j)
+        {
+            codePoints[j] = s.codePointAt(i);
+            i += Character.charCount(codePoints[j]);
+        }
+        return codePoints;
+    }
+
+    private static String serialize(String[][] objects)
+    {
+        ArraySerializer serializer = new ArraySerializer();
+        for (String[] fields : objects)
+        {
+            serializer.addObject(fields);
+        }
+        return serializer.serialize();
+    }
+}
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 21:24:36
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import de.kolditz.common.concurrent.Lane;
+import de.kolditz.common.concurrent.Scheduler;
+import de.kolditz.common.concurrent.Scheduler.Priority;
+
+/**
+ * The contention benchmarks of the {@link Scheduler}, with many threads submitting concurrently, and the fairness
+ * benchmarks, which fail if a burst of tasks holds up tasks which ought to overtake it.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public final class SchedulerBenchmarks
+{
+    /** The number of submitting threads. */
+    private static final int THREADS = 32;
+    /** The number of tasks each thread submits before waiting for the last one, which bounds the queued tasks. */
+    private static final int TASKS = 256;
+
+    /** The tasks of a burst per worker thread, which keep the pool busy for about 100ms. */
+    private static final int BURST_TASKS = 50;
+    private static final long BURST_TASK_MILLIS = 2;
+    /** The number of tasks which ought to overtake a burst. */
+    private static final int OVERTAKING_TASKS = 5;
+    /** The tasks of a backlog per worker thread, which keep the pool busy for about 2.5s. */
+    private static final int BACKLOG_TASKS = 1250;
+    /** The time after which the head of a backlog of low priority tasks has waited for more than two aging steps. */
+    private static final long AGED_MILLIS = 2100;
+
+    private static final Runnable NOOP = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+        }
+    };
+
+    private static final Runnable BURST_TASK = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            try
+            {
+                Thread.sleep(BURST_TASK_MILLIS);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    };
+
+    private SchedulerBenchmarks()
+    {
+    }
+
+    /**
+     * @return new instances of all scheduler benchmarks
+     */
+    public static List<Benchmark> create()
+    {
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+        benchmarks.add(new Benchmark("Scheduler.isShutdown() " + THREADS + " threads", 1, THREADS) //$NON-NLS-1$ //$NON-NLS-2$
+        {
+            @Override
+            protected Object run()
+            {
+                // only the lifecycle check every call goes through
+                return Boolean.valueOf(Scheduler.isShutdown());
+            }
+
+            @Override
+            protected void tearDown()
+            {
+                Scheduler.shutdown();
+            }
+        });
+        benchmarks.add(new Benchmark("Scheduler.submit(Runnable) " + THREADS + " threads", TASKS, THREADS) //$NON-NLS-1$ //$NON-NLS-2$
+        {
+            @Override
+            protected Object run() throws Exception
+            {
+                Future<?> last = null;
+                for (int i = 0; i < TASKS; ++i)
+                {
+                    last = Scheduler.submit(NOOP);
+                }
+                return last.get();
+            }
+
+            @Override
+            protected void tearDown()
+            {
+                Scheduler.shutdown();
+            }
+        });
+        benchmarks.add(new Benchmark("Lane.submit(Runnable) during a default lane burst", OVERTAKING_TASKS) //$NON-NLS-1$
+        {
+            private Lane lane;
+
+            @Override
+            protected void setUp()
+            {
+                lane = Scheduler.lane("benchmark", OVERTAKING_TASKS); //$NON-NLS-1$
+            }
+
+            @Override
+            protected Object run() throws Exception
+            {
+                Future<?> burst = null;
+                for (int i = BURST_TASKS * Runtime.getRuntime().availableProcessors(); i > 0; --i)
+                {
+                    burst = Scheduler.submit(BURST_TASK);
+                }
+                Future<?> last = null;
+                for (int i = 0; i < OVERTAKING_TASKS; ++i)
+                {
+                    last = lane.submit(NOOP);
+                }
+                last.get();
+                boolean overtaken = !burst.isDone();
+                burst.get();
+                if (!overtaken)
+                    throw new IllegalStateException("the lane made no progress during the default lane's burst"); //$NON-NLS-1$
+                return last;
+            }
+
+            @Override
+            protected void tearDown()
+            {
+                lane.shutdown();
+                Scheduler.shutdown();
+            }
+        });
+        benchmarks.add(new Benchmark("Scheduler.submit(Runnable, HIGH) during an aged LOW backlog") //$NON-NLS-1$
+        {
+            @Override
+            protected Object run() throws Exception
+            {
+                List<Future<?>> backlog = new ArrayList<Future<?>>();
+                for (int i = BACKLOG_TASKS * Runtime.getRuntime().availableProcessors(); i > 0; --i)
+                {
+                    backlog.add(Scheduler.submit(BURST_TASK, Priority.LOW));
+                }
+                Thread.sleep(AGED_MILLIS);
+                Future<?> high = Scheduler.submit(NOOP, Priority.HIGH);
+                high.get();
+                boolean overtaken = !backlog.get(backlog.size() - 1).isDone();
+                for (Future<?> task : backlog)
+                {
+                    task.cancel(false);
+                }
+                // waits until the cancelled tasks left the queues, which would otherwise delay the next run
+                Scheduler.submit(NOOP, Priority.LOW).get();
+                if (!overtaken)
+                    throw new IllegalStateException("the HIGH task waited for the aged LOW backlog"); //$NON-NLS-1$
+                return high;
+            }
+
+            @Override
+            protected void tearDown()
+            {
+                Scheduler.shutdown();
+            }
+        });
+        return benchmarks;
+    }
+}
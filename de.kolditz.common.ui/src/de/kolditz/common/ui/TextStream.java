@@ -13,16 +13,22 @@ package de.kolditz.common.ui;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.Text;
 
+import de.kolditz.common.concurrent.Debouncer;
 import de.kolditz.common.util.SystemProperties;
 
 public class TextStream extends OutputStream
 {
     public static final String NL = SystemProperties.LINE_SEP;
+    /** The quiet period after which written text is shown, in ms. */
+    private static final int UPDATE_DELAY = 50;
+    /** The maximum time written text is held back while writing continues, in ms. */
+    private static final int UPDATE_MAX_WAIT = 250;
 
     private PrintStream out, err;
     private Display disp;
@@ -37,10 +43,28 @@ public class TextStream extends OutputStream
         public void run()
         {
             if (!text.isDisposed())
-                text.setText(sb.toString());
+            {
+                String s;
+                synchronized (sb)
+                {
+                    s = sb.toString();
+                }
+                text.setText(s);
+            }
         }
     };
 
+    /** Coalesces the updates of bursts of writes into a single refresh of the text field. */
+    private Debouncer<Object> updater = new Debouncer<Object>(new Debouncer.Handler<Object>()
+    {
+        @Override
+        public void handle(Object value)
+        {
+            if (!text.isDisposed())
+                disp.asyncExec(worker);
+        }
+    }, Debouncer.Edge.BOTH, UPDATE_DELAY, UPDATE_MAX_WAIT, TimeUnit.MILLISECONDS);
+
     TextStream(Shell shell, Text text, boolean overtakeSystemStreams)
     {
         messageNum = 0;
@@ -140,7 +164,7 @@ public class TextStream extends OutputStream
         {
             return;
         }
-        disp.asyncExec(worker);
+        updater.post(null);
     }
 
     public void clear()
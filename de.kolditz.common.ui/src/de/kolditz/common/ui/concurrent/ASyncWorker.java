@@ -19,11 +19,13 @@ import org.eclipse.swt.widgets.Display;
 
 import de.kolditz.common.concurrent.MultiThreaded;
 import de.kolditz.common.concurrent.Scheduler;
+import de.kolditz.common.concurrent.Scheduler.Priority;
+import de.kolditz.common.concurrent.Tagged;
 
 /**
  * An abstract utility class which enforces the protocol that first {@link #async()} is called in a separate thread, and
  * afterwards {@link #sync()} is called in the SWT UI thread. It returns a {@link Future} object so that clients may
- * even test for completion.
+ * even test for completion. The worker runs with {@link Priority#HIGH}, so it overtakes queued background jobs.
  * 
  * @author Till Kolditz - Till.Kolditz@gmail.com
  */
@@ -38,8 +40,17 @@ public abstract class ASyncWorker
         }
     }
 
-    private class ASyncRunnable implements Runnable
+    /**
+     * Tagged with the worker's class, so the {@link Scheduler}'s metrics are attributed to the actual worker.
+     */
+    private class ASyncRunnable implements Runnable, Tagged
     {
+        @Override
+        public String getTag()
+        {
+            return ASyncWorker.this.getClass().getName();
+        }
+
         @Override
         public void run()
         {
@@ -97,7 +108,7 @@ public abstract class ASyncWorker
      */
     public final synchronized Future<?> start()
     {
-        return future = Scheduler.submit(new ASyncRunnable());
+        return future = Scheduler.submit(new ASyncRunnable(), Priority.HIGH);
     }
 
     /**
@@ -107,7 +118,7 @@ public abstract class ASyncWorker
      */
     public final synchronized Future<?> start(long delay, TimeUnit timeUnit)
     {
-        return future = Scheduler.schedule(new ASyncRunnable(), delay, timeUnit);
+        return future = Scheduler.schedule(new ASyncRunnable(), delay, timeUnit, Priority.HIGH);
     }
 
     /**
@@ -18,6 +18,8 @@ import java.util.concurrent.TimeUnit;
 import org.eclipse.swt.widgets.Display;
 
 import de.kolditz.common.concurrent.Scheduler;
+import de.kolditz.common.concurrent.Scheduler.Priority;
+import de.kolditz.common.concurrent.Tagged;
 
 /**
  * An abstract utility class whose {@link #sync()} method will be called in the UI thread. Unlike {@link ASyncWorker},
@@ -40,8 +42,17 @@ public abstract class SyncWorker
         }
     }
 
-    private class ASyncRunnable implements Runnable
+    /**
+     * Tagged with the worker's class, so the {@link Scheduler}'s metrics are attributed to the actual worker.
+     */
+    private class ASyncRunnable implements Runnable, Tagged
     {
+        @Override
+        public String getTag()
+        {
+            return SyncWorker.this.getClass().getName();
+        }
+
         @Override
         public void run()
         {
@@ -93,7 +104,7 @@ public abstract class SyncWorker
         if (async)
         {
             sync = false;
-            future = Scheduler.submit(new ASyncRunnable());
+            future = Scheduler.submit(new ASyncRunnable(), Priority.HIGH);
         }
         else
         {
@@ -117,7 +128,7 @@ public abstract class SyncWorker
     public final synchronized void start(long delay, TimeUnit timeUnit)
     {
         sync = false;
-        future = Scheduler.schedule(new ASyncRunnable(), delay, timeUnit);
+        future = Scheduler.schedule(new ASyncRunnable(), delay, timeUnit, Priority.HIGH);
     }
 
     /**
@@ -14,18 +14,18 @@ package de.kolditz.common.ui.widgets;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
-import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import org.eclipse.swt.events.ModifyEvent;
 import org.eclipse.swt.events.ModifyListener;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Text;
 import org.eclipse.ui.forms.widgets.FormToolkit;
 
+import de.kolditz.common.concurrent.Debouncer;
 import de.kolditz.common.ui.IValidationListener;
-import de.kolditz.common.ui.concurrent.ASyncWorker;
 import de.kolditz.common.util.RegExpPatterns;
 
 /**
@@ -41,20 +41,16 @@ public class IPText extends AbstractValidationControl
 
     protected static final Pattern pIPV4 = RegExpPatterns.ipV4();
 
-    private class Validator extends ASyncWorker
+    /**
+     * Validates the latest text in a worker thread and then updates the decoration in the UI thread.
+     */
+    private class Validator implements Debouncer.Handler<String>, Runnable
     {
         private boolean doNotify;
-        private String txt;
         private boolean valid;
 
-        Validator(boolean doNotify, String txt)
-        {
-            this.doNotify = doNotify;
-            this.txt = txt;
-        }
-
         @Override
-        protected void async()
+        public void handle(String txt)
         {
             valid = pIPV4.matcher(txt).find();
             if (valid == false)
@@ -69,11 +65,15 @@ public class IPText extends AbstractValidationControl
                 }
             }
             setValid(valid);
+            doNotify = doNotifyListeners;
+            Display.getDefault().syncExec(this);
         }
 
         @Override
-        protected void sync()
+        public void run()
         {
+            if (text.isDisposed())
+                return;
             if (cd != null)
             {
                 if (valid)
@@ -83,21 +83,20 @@ public class IPText extends AbstractValidationControl
             }
             if (doNotify)
                 notifyValidationListeners();
-            ipFuture = null;
         }
     }
 
     protected Text text;
-    protected Future<?> ipFuture = null;
-    protected boolean doNotifyListeners = true;
+    protected volatile boolean doNotifyListeners = true;
+    /** Validates the text once it was not modified for {@link #MODIFY_CHECK_DELAY} ms. */
+    protected final Debouncer<String> validator = new Debouncer<String>(new Validator(), MODIFY_CHECK_DELAY,
+            MOFIFY_CHECK_TU);
     protected ModifyListener internalModifyListener = new ModifyListener()
     {
         @Override
         public void modifyText(ModifyEvent e)
         {
-            if (ipFuture != null && !ipFuture.isDone())
-                ipFuture.cancel(true);
-            ipFuture = new Validator(doNotifyListeners, text.getText()).start(MODIFY_CHECK_DELAY, MOFIFY_CHECK_TU);
+            validator.post(text.getText());
         }
     };
 
@@ -11,6 +11,7 @@
 package de.kolditz.common.ui.widgets;
 
 import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.log4j.AppenderSkeleton;
 import org.apache.log4j.Level;
@@ -19,6 +20,7 @@ import org.apache.log4j.Priority;
 import org.apache.log4j.spi.LoggingEvent;
 import org.eclipse.swt.custom.StyledText;
 
+import de.kolditz.common.concurrent.Debouncer;
 import de.kolditz.common.concurrent.MultiThreaded;
 import de.kolditz.common.util.SystemProperties;
 
@@ -30,13 +32,19 @@ import de.kolditz.common.util.SystemProperties;
  */
 public class Log4jTextAppender extends AppenderSkeleton
 {
-    private class AppendRunner implements Runnable
+    /**
+     * Appends all pending text at once in the UI thread.
+     */
+    private class AppendRunner implements Runnable, Debouncer.Handler<Object>
     {
-        String text;
-
-        AppendRunner(String text)
+        @Override
+        public void handle(Object value)
         {
-            this.text = text;
+            StyledText tf = tfLog;
+            if (tf != null && !tf.isDisposed())
+            {
+                tf.getDisplay().asyncExec(this);
+            }
         }
 
         @Override
@@ -44,18 +52,32 @@ public class Log4jTextAppender extends AppenderSkeleton
         {
             if (tfLog != null && !tfLog.isDisposed())
             {
-                if (text != null)
+                String text;
+                boolean clear;
+                synchronized (pending)
                 {
-                    tfLog.append(text);
+                    text = pending.toString();
+                    clear = clearPending;
+                    pending.setLength(0);
+                    clearPending = false;
                 }
-                else
+                if (clear)
                 {
                     tfLog.setText(""); //$NON-NLS-1$
                 }
+                if (text.length() > 0)
+                {
+                    tfLog.append(text);
+                }
             }
         }
     }
 
+    /** The quiet period after which appended text is shown, in ms. */
+    private static final int UPDATE_DELAY = 50;
+    /** The maximum time appended text is held back while logging continues, in ms. */
+    private static final int UPDATE_MAX_WAIT = 250;
+
     public static final String COMPLEX_PATTERN = "[%10r] [%t] %5p %c (%C{1}:%L %M) - %m%n"; //$NON-NLS-1$
     public static final String COMPLEX_NAME = "Complex";
     public static final String SIMPLE_PATTERN = "%-5p - %m%n"; //$NON-NLS-1$
@@ -66,6 +88,12 @@ public class Log4jTextAppender extends AppenderSkeleton
 
     private StyledText tfLog;
     private ArrayList<LoggingEvent> events;
+    /** The text not shown yet, guarded by itself. */
+    private final StringBuilder pending = new StringBuilder();
+    private boolean clearPending = false;
+    private final AppendRunner appendRunner = new AppendRunner();
+    private final Debouncer<Object> updater = new Debouncer<Object>(appendRunner, Debouncer.Edge.BOTH, UPDATE_DELAY,
+            UPDATE_MAX_WAIT, TimeUnit.MILLISECONDS);
 
     /**
      * Supports creating the log appender for registering log events even when the log text field is not set yet.
@@ -139,7 +167,19 @@ public class Log4jTextAppender extends AppenderSkeleton
         {
             return;
         }
-        tfLog.getDisplay().asyncExec(new AppendRunner(text));
+        synchronized (pending)
+        {
+            if (text != null)
+            {
+                pending.append(text);
+            }
+            else
+            {
+                pending.setLength(0);
+                clearPending = true;
+            }
+        }
+        updater.post(null);
     }
 
     public void clear()
@@ -161,6 +201,12 @@ public class Log4jTextAppender extends AppenderSkeleton
                     // again check if disposed as we run "async" in display thread
                     if (tfLog != null && !tfLog.isDisposed())
                     {
+                        // all events are appended again, including the pending ones
+                        synchronized (pending)
+                        {
+                            pending.setLength(0);
+                            clearPending = false;
+                        }
                         tfLog.setRedraw(false);
                         tfLog.setText("");
                         for (LoggingEvent le : events)
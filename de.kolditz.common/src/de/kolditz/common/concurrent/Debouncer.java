@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 22:47:12
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.concurrent;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces bursts of events into few deliveries of the latest value. A burst lasts until no further value was
+ * {@link #post(Object) posted} for the quiet period, and, if a maximum wait is given, at most that long. Depending on
+ * the {@link Edge}, the first and/or the latest value of each burst is delivered to the {@link Handler}.
+ * <p>
+ * Posting a value only stores it. The debouncer itself is the single task it schedules on the {@link Scheduler}: it
+ * is armed once per burst and, when it fires too early because of later values, re-armed for the remaining time.
+ * Hence, there is no {@link java.util.concurrent.Future} per event and nothing to cancel on each event. All deliveries
+ * happen on the {@link Scheduler}'s workers, one at a time and in order, so a delivery never races a later one.
+ * </p>
+ * Typical usage:
+ * 
+ * <pre>
+ * Debouncer&lt;String&gt; validator = new Debouncer&lt;String&gt;(new Debouncer.Handler&lt;String&gt;()
+ * {
+ *     public void handle(String text)
+ *     {
+ *         // validate the latest text
+ *     }
+ * }, 500, TimeUnit.MILLISECONDS);
+ * // on each modification
+ * validator.post(text.getText());
+ * </pre>
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+@MultiThreaded
+public final class Debouncer<T> implements Runnable, Tagged
+{
+    /**
+     * Receives the values of a {@link Debouncer}.
+     */
+    public interface Handler<T>
+    {
+        /**
+         * Called on a {@link Scheduler} worker thread, never concurrently for the same debouncer.
+         * 
+         * @param value
+         *            the latest posted value, may be null if null was posted
+         */
+        @MultiThreaded
+        public void handle(T value);
+    }
+
+    /**
+     * The values delivered for each burst.
+     */
+    public static enum Edge
+    {
+        /** The first value, as soon as the burst starts. Later values of the same burst are dropped. */
+        LEADING,
+        /** The latest value, when the burst ends. */
+        TRAILING,
+        /** The first value as soon as the burst starts, and the latest one when it ends if there were more. */
+        BOTH
+    }
+
+    private final Handler<? super T> handler;
+    private final Edge edge;
+    private final long delayNanos;
+    /** 0 if bursts may last forever. */
+    private final long maxWaitNanos;
+    /** Held during each delivery, so deliveries are serialized and in order. */
+    private final Object delivery = new Object();
+
+    // the following fields are guarded by this
+    private T value;
+    private boolean hasValue = false;
+    private boolean active = false;
+    private boolean leadingDue = false;
+    private long burstStart;
+    private long lastPost;
+    /** The time the debouncer is armed for; earlier executions are stale ones which could not be cancelled. */
+    private long due;
+    private ScheduledFuture<?> future;
+
+    /**
+     * Creates a trailing-edge debouncer without a maximum wait.
+     * 
+     * @param handler
+     *            the receiver of the values
+     * @param delay
+     *            the quiet period which ends a burst
+     * @param unit
+     *            the unit of the delay
+     */
+    public Debouncer(Handler<? super T> handler, long delay, TimeUnit unit)
+    {
+        this(handler, Edge.TRAILING, delay, 0, unit);
+    }
+
+    /**
+     * @param handler
+     *            the receiver of the values
+     * @param edge
+     *            the values delivered for each burst
+     * @param delay
+     *            the quiet period which ends a burst
+     * @param maxWait
+     *            the maximum duration of a burst, after which the latest value is delivered even if values are still
+     *            posted, or 0 for no maximum
+     * @param unit
+     *            the unit of the delay and the maximum wait
+     * @throws IllegalArgumentException
+     *             if the handler or edge is null, the delay is negative or the maximum wait is shorter than the delay
+     */
+    public Debouncer(Handler<? super T> handler, Edge edge, long delay, long maxWait, TimeUnit unit)
+    {
+        if (handler == null || edge == null)
+            throw new IllegalArgumentException("handler and edge must not be null"); //$NON-NLS-1$
+        if (delay < 0 || maxWait != 0 && maxWait < delay)
+            throw new IllegalArgumentException("invalid delay or maximum wait"); //$NON-NLS-1$
+        this.handler = handler;
+        this.edge = edge;
+        this.delayNanos = unit.toNanos(delay);
+        this.maxWaitNanos = unit.toNanos(maxWait);
+    }
+
+    /**
+     * Posts a new value, replacing the one not delivered yet, if any. Never blocks on a running delivery.
+     * 
+     * @param value
+     *            the value, may be null
+     */
+    public synchronized void post(T value)
+    {
+        long now = System.nanoTime();
+        this.value = value;
+        hasValue = true;
+        lastPost = now;
+        if (!active)
+        {
+            active = true;
+            burstStart = now;
+            if (edge != Edge.TRAILING)
+            {
+                leadingDue = true;
+                arm(0);
+            }
+            else
+            {
+                arm(delayNanos);
+            }
+        }
+    }
+
+    /**
+     * Delivers the value not delivered yet, if any, right now in the calling thread and ends the current burst.
+     */
+    public void flush()
+    {
+        synchronized (delivery)
+        {
+            T v;
+            synchronized (this)
+            {
+                if (!hasValue)
+                    return;
+                v = take();
+                end();
+            }
+            handler.handle(v);
+        }
+    }
+
+    /**
+     * Drops the value not delivered yet, if any, and ends the current burst. A running delivery is not interrupted.
+     */
+    public synchronized void cancel()
+    {
+        hasValue = false;
+        value = null;
+        end();
+    }
+
+    /**
+     * @return whether a value was posted but not delivered yet
+     */
+    public synchronized boolean isPending()
+    {
+        return hasValue;
+    }
+
+    /**
+     * @return the handler's class name, so the {@link Scheduler}'s metrics are attributed to the actual receiver
+     */
+    @Override
+    public String getTag()
+    {
+        return handler.getClass().getName();
+    }
+
+    /**
+     * The debouncer's scheduled task. Not to be called by clients.
+     */
+    @Override
+    public void run()
+    {
+        synchronized (delivery)
+        {
+            T v;
+            synchronized (this)
+            {
+                long now = System.nanoTime();
+                if (!active || now - due < 0)
+                    return;
+                future = null;
+                if (leadingDue)
+                {
+                    leadingDue = false;
+                    v = take();
+                    arm(delayNanos);
+                }
+                else
+                {
+                    long quiet = lastPost + delayNanos;
+                    boolean expired = maxWaitNanos > 0 && now - (burstStart + maxWaitNanos) >= 0;
+                    if (now - quiet < 0 && !expired)
+                    {
+                        long next = quiet;
+                        if (maxWaitNanos > 0 && burstStart + maxWaitNanos - quiet < 0)
+                            next = burstStart + maxWaitNanos;
+                        arm(next - now);
+                        return;
+                    }
+                    if (!hasValue || edge == Edge.LEADING)
+                    {
+                        // nothing new, or only the leading value was wanted
+                        cancel();
+                        return;
+                    }
+                    v = take();
+                    if (now - quiet < 0)
+                    {
+                        // the maximum wait expired while values are still posted, so a new burst begins
+                        burstStart = now;
+                        arm(quiet - now);
+                    }
+                    else
+                    {
+                        end();
+                    }
+                }
+            }
+            handler.handle(v);
+        }
+    }
+
+    private T take()
+    {
+        T v = value;
+        value = null;
+        hasValue = false;
+        return v;
+    }
+
+    private void end()
+    {
+        active = false;
+        leadingDue = false;
+        if (future != null)
+        {
+            future.cancel(false);
+            future = null;
+        }
+    }
+
+    private void arm(long nanos)
+    {
+        due = System.nanoTime() + nanos;
+        future = Scheduler.schedule(this, nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,354 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 21:58:30
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The timer of the {@link Scheduler}: a hashed timing wheel which fires {@link ScheduledTask}s. Each slot of the wheel
+ * holds a doubly linked list of the timeouts due within its tick, so adding and cancelling a timeout takes constant
+ * time, and cancelled timeouts are unlinked at once instead of staying in a heap until they are due. Timeouts fire at
+ * most one tick late, never early.
+ * <p>
+ * A single ticker thread is started by the first timeout. It only wakes up for slots holding timeouts and exits after
+ * being idle for the keep-alive time, so no thread is left when the timer is unused.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+final class HashedWheelTimer
+{
+    /**
+     * A pending timeout, linked into the list of its slot.
+     */
+    static final class Timeout
+    {
+        final ScheduledTask<?> task;
+        /** The number of full rotations left before the timeout is due. */
+        long rounds;
+        Timeout previous;
+        Timeout next;
+        int slot = -1;
+
+        Timeout(ScheduledTask<?> task)
+        {
+            this.task = task;
+        }
+    }
+
+    private final long tickNanos;
+    private final long keepAliveNanos;
+    private final Timeout[] wheel;
+    private final int mask;
+    private final long startTime = System.nanoTime();
+    private final Object lock = new Object();
+
+    /** The next tick to process; all slots of earlier ticks were processed. */
+    private long tick = 0;
+    private int pending = 0;
+    /** The time the ticker sleeps until, so earlier timeouts wake it up. */
+    private long wakeup = Long.MAX_VALUE;
+    private Thread ticker;
+    private boolean shutdown = false;
+
+    /**
+     * @param tickDuration
+     *            the resolution of the timer
+     * @param slots
+     *            the number of slots, which is rounded up to a power of two
+     * @param keepAlive
+     *            the idle time after which the ticker thread exits
+     * @param unit
+     *            the unit of the durations
+     */
+    HashedWheelTimer(long tickDuration, int slots, long keepAlive, TimeUnit unit)
+    {
+        int size = Integer.highestOneBit(slots);
+        if (size < slots)
+            size <<= 1;
+        tickNanos = unit.toNanos(tickDuration);
+        keepAliveNanos = unit.toNanos(keepAlive);
+        wheel = new Timeout[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Adds a timeout firing the given task after the given delay.
+     * 
+     * @throws RejectedExecutionException
+     *             if the timer was shut down
+     */
+    Timeout add(ScheduledTask<?> task, long delayNanos)
+    {
+        Timeout timeout = new Timeout(task);
+        long now = System.nanoTime();
+        long deadline = now + Math.max(0, delayNanos);
+        synchronized (lock)
+        {
+            if (shutdown)
+                throw new RejectedExecutionException("timer shut down"); //$NON-NLS-1$
+            if (pending == 0)
+            {
+                // all slots are empty, so the ticker need not walk the ticks which passed while the timer was idle
+                tick = Math.max(tick, (now - startTime) / tickNanos);
+            }
+            long due = Math.max(tick, (deadline - startTime) / tickNanos);
+            timeout.rounds = (due - tick) / wheel.length;
+            link(timeout, (int) (due & mask));
+            ++pending;
+            if (ticker == null)
+            {
+                ticker = new Thread(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        tick();
+                    }
+                }, "Scheduler timer"); //$NON-NLS-1$
+                ticker.start();
+            }
+            else if (deadline - wakeup < 0)
+            {
+                // threads in awaitTermination wait on the lock as well
+                lock.notifyAll();
+            }
+        }
+        return timeout;
+    }
+
+    /**
+     * Removes the given timeout, unless it fired already.
+     */
+    void cancel(Timeout timeout)
+    {
+        synchronized (lock)
+        {
+            if (timeout.slot >= 0)
+            {
+                unlink(timeout);
+                --pending;
+            }
+        }
+    }
+
+    private void link(Timeout timeout, int slot)
+    {
+        Timeout head = wheel[slot];
+        timeout.slot = slot;
+        timeout.next = head;
+        if (head != null)
+            head.previous = timeout;
+        wheel[slot] = timeout;
+    }
+
+    private void unlink(Timeout timeout)
+    {
+        if (timeout.previous != null)
+            timeout.previous.next = timeout.next;
+        else
+            wheel[timeout.slot] = timeout.next;
+        if (timeout.next != null)
+            timeout.next.previous = timeout.previous;
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.slot = -1;
+    }
+
+    /**
+     * The ticker thread's loop.
+     */
+    private void tick()
+    {
+        List<ScheduledTask<?>> due = new ArrayList<ScheduledTask<?>>();
+        for (;;)
+        {
+            synchronized (lock)
+            {
+                long now = System.nanoTime();
+                while (now - tickEnd(tick) >= 0)
+                {
+                    expire((int) (tick & mask), due);
+                    ++tick;
+                }
+                if (due.isEmpty())
+                {
+                    try
+                    {
+                        if (pending == 0)
+                        {
+                            if (shutdown || !await(now + keepAliveNanos, true))
+                            {
+                                ticker = null;
+                                lock.notifyAll();
+                                return;
+                            }
+                        }
+                        else
+                        {
+                            await(tickEnd(nextOccupiedTick()), false);
+                        }
+                    }
+                    catch (InterruptedException e)
+                    {
+                        // the loop re-checks the timer state anyway
+                    }
+                    continue;
+                }
+            }
+            // hands the tasks to the workers without holding the lock
+            for (ScheduledTask<?> task : due)
+            {
+                task.fire();
+            }
+            due.clear();
+        }
+    }
+
+    /**
+     * Waits until the given time, unless a timeout is added or the timer shut down before.
+     * 
+     * @param idle
+     *            whether the wait ends as soon as a timeout is added
+     * @return false if the timer is still idle after the wait
+     */
+    private boolean await(long until, boolean idle) throws InterruptedException
+    {
+        wakeup = until;
+        long nanos = until - System.nanoTime();
+        if (nanos > 0)
+            lock.wait(nanos / 1000000, (int) (nanos % 1000000));
+        wakeup = Long.MAX_VALUE;
+        return !idle || pending > 0;
+    }
+
+    /**
+     * @return the first tick whose slot holds a timeout, at most one rotation ahead
+     */
+    private long nextOccupiedTick()
+    {
+        for (int i = 0; i < wheel.length; ++i)
+        {
+            if (wheel[(int) ((tick + i) & mask)] != null)
+                return tick + i;
+        }
+        return tick + wheel.length - 1;
+    }
+
+    private long tickEnd(long t)
+    {
+        return startTime + (t + 1) * tickNanos;
+    }
+
+    private void expire(int slot, List<ScheduledTask<?>> due)
+    {
+        Timeout timeout = wheel[slot];
+        while (timeout != null)
+        {
+            Timeout next = timeout.next;
+            if (timeout.rounds <= 0)
+            {
+                unlink(timeout);
+                --pending;
+                due.add(timeout.task);
+            }
+            else
+            {
+                --timeout.rounds;
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * Rejects further timeouts. The pending ones still fire, then the ticker exits.
+     */
+    void shutdown()
+    {
+        synchronized (lock)
+        {
+            shutdown = true;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Rejects further timeouts and removes the pending ones.
+     * 
+     * @return the tasks of the removed timeouts
+     */
+    List<Runnable> shutdownNow()
+    {
+        List<Runnable> tasks = new ArrayList<Runnable>();
+        synchronized (lock)
+        {
+            shutdown = true;
+            for (int i = 0; i < wheel.length; ++i)
+            {
+                while (wheel[i] != null)
+                {
+                    tasks.add(wheel[i].task);
+                    unlink(wheel[i]);
+                }
+            }
+            pending = 0;
+            lock.notifyAll();
+        }
+        return tasks;
+    }
+
+    boolean isShutdown()
+    {
+        synchronized (lock)
+        {
+            return shutdown;
+        }
+    }
+
+    boolean isTerminated()
+    {
+        synchronized (lock)
+        {
+            return shutdown && ticker == null;
+        }
+    }
+
+    /**
+     * @return the number of pending timeouts
+     */
+    int size()
+    {
+        synchronized (lock)
+        {
+            return pending;
+        }
+    }
+
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (lock)
+        {
+            while (!shutdown || ticker != null)
+            {
+                long nanos = deadline - System.nanoTime();
+                if (nanos <= 0)
+                    return false;
+                lock.wait(nanos / 1000000, (int) (nanos % 1000000));
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 23:14:06
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of non-negative long values, e.g. durations in nanoseconds. Like an HDR histogram, it uses 32
+ * linear sub-buckets per power of two, so each recorded value is kept with a relative precision of about 3% across the
+ * whole long range, using a fixed amount of memory. Recording is wait-free apart from the maximum's update.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public final class Histogram
+{
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray((64 - SUB_BUCKET_BITS) * SUB_BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    static int indexOf(long value)
+    {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS)
+                + (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * @return the smallest value counted in the given bucket
+     */
+    static long lowestValueOf(int index)
+    {
+        if (index < SUB_BUCKETS)
+            return index;
+        int exponent = (index >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        return ((long) (index & (SUB_BUCKETS - 1) | SUB_BUCKETS)) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * @param value
+     *            the value to record, negative values are recorded as 0
+     */
+    public void record(long value)
+    {
+        if (value < 0)
+            value = 0;
+        counts.incrementAndGet(indexOf(value));
+        count.incrementAndGet();
+        total.addAndGet(value);
+        long m;
+        while ((m = max.get()) < value && !max.compareAndSet(m, value))
+        {
+            // retry
+        }
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long getCount()
+    {
+        return count.get();
+    }
+
+    /**
+     * @return the largest recorded value, or 0 if none was recorded
+     */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * @return the exact mean of the recorded values, or 0 if none was recorded
+     */
+    public double getMean()
+    {
+        long n = count.get();
+        return n == 0 ? 0 : (double) total.get() / n;
+    }
+
+    /**
+     * @param percentile
+     *            the percentile between 0 and 100, e.g. 99.9
+     * @return the recorded value at the given percentile, within the histogram's precision, or 0 if none was recorded
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        long n = count.get();
+        if (n == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); ++i)
+        {
+            seen += counts.get(i);
+            if (seen >= rank)
+                return Math.min(i + 1 < counts.length() ? lowestValueOf(i + 1) - 1 : Long.MAX_VALUE, max.get());
+        }
+        return max.get();
+    }
+
+    /**
+     * Clears the histogram. Values recorded concurrently may be partially cleared.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < counts.length(); ++i)
+        {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+}
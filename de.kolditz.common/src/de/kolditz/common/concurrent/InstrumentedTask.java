@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 23:34:50
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.concurrent;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Wraps a task of the {@link Scheduler} in order to record its queue wait and execution time with the
+ * {@link SchedulerMetrics}.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+final class InstrumentedTask<V> implements Runnable, Callable<V>
+{
+    private final SchedulerMetrics metrics;
+    private final TaskMetrics tagMetrics;
+    private final Runnable runnable;
+    private final Callable<V> callable;
+    /** The {@link System#nanoTime()} at which the task became due. */
+    private volatile long queued = System.nanoTime();
+
+    InstrumentedTask(SchedulerMetrics metrics, Runnable runnable)
+    {
+        this.metrics = metrics;
+        this.tagMetrics = metrics.forTag(tagOf(runnable));
+        this.runnable = runnable;
+        this.callable = null;
+    }
+
+    InstrumentedTask(SchedulerMetrics metrics, Callable<V> callable)
+    {
+        this.metrics = metrics;
+        this.tagMetrics = metrics.forTag(tagOf(callable));
+        this.runnable = null;
+        this.callable = callable;
+    }
+
+    private static String tagOf(Object task)
+    {
+        String tag = task instanceof Tagged ? ((Tagged) task).getTag() : null;
+        return tag != null ? tag : task.getClass().getName();
+    }
+
+    /**
+     * Sets the time at which the task became due, e.g. for each execution of a periodic task.
+     */
+    void setQueued(long nanoTime)
+    {
+        queued = nanoTime;
+    }
+
+    @Override
+    public void run()
+    {
+        long start = System.nanoTime();
+        metrics.started();
+        boolean failure = true;
+        try
+        {
+            runnable.run();
+            failure = false;
+        }
+        finally
+        {
+            metrics.finished(tagMetrics, start - queued, System.nanoTime() - start, failure);
+        }
+    }
+
+    @Override
+    public V call() throws Exception
+    {
+        if (callable == null)
+        {
+            run();
+            return null;
+        }
+        long start = System.nanoTime();
+        metrics.started();
+        boolean failure = true;
+        try
+        {
+            V result = callable.call();
+            failure = false;
+            return result;
+        }
+        finally
+        {
+            metrics.finished(tagMetrics, start - queued, System.nanoTime() - start, failure);
+        }
+    }
+}
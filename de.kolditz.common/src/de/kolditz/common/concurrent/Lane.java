@@ -0,0 +1,745 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 18.10.2026 at 00:18:02
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.ObjectName;
+
+import de.kolditz.common.concurrent.Scheduler.Priority;
+
+/**
+ * A named, logical executor of the {@link Scheduler} with its own queue and concurrency limit, see
+ * {@link Scheduler#lane(String, int)}. All lanes share the Scheduler's worker pool: a lane hands at most
+ * {@link #getLimit() limit} drainers to the pool, each of which runs a single task from the lane's queue and then
+ * re-enters the pool's queue behind the other lanes' drainers. Hence, the drainers are served in turn, the lanes with
+ * waiting tasks share the pool's threads in proportion to their limits, and a burst of slow tasks in one lane can
+ * occupy at most its limit of threads. The {@link Scheduler#DEFAULT_LANE default lane}'s limit is the pool's size.
+ * <p>
+ * Tasks are queued with a {@link Priority}, {@link Priority#NORMAL} unless given otherwise. A lane keeps one queue per
+ * priority and runs the waiting task of the highest priority first, while a waiting task gains one priority per second
+ * up to, but never above, the tasks of a higher priority, so low priority tasks are delayed but not starved by a
+ * backlog of normal ones. The drainers of a lane enter the pool's queue with the priority of the task they are
+ * dispatched for, hence high priority tasks also overtake the other lanes' low priority tasks.
+ * </p>
+ * <p>
+ * Delayed and periodic tasks of a lane wait in the Scheduler's timer and are queued in the lane when they are due. A
+ * lane can be shut down on its own, except for the {@link Scheduler#DEFAULT_LANE default lane}, which is only stopped
+ * together with the Scheduler. Each lane records its own metrics, which are registered as a standard MBean named
+ * {@value SchedulerMetrics#OBJECT_NAME}<code>,lane=...</code> once the Scheduler is
+ * {@link Scheduler#setInstrumented(boolean) instrumented}.
+ * </p>
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public final class Lane extends AbstractExecutorService implements LaneMBean
+{
+    /**
+     * A queued task with the time it was queued.
+     */
+    private static final class Entry
+    {
+        final Runnable task;
+        final int level;
+        final long queued = System.nanoTime();
+
+        Entry(Runnable task, int level)
+        {
+            this.task = task;
+            this.level = level;
+        }
+    }
+
+    /**
+     * The future of a task submitted to a lane, whose callable is already instrumented.
+     */
+    private static final class LaneFuture<V> extends FutureTask<V>
+    {
+        LaneFuture(Callable<V> callable)
+        {
+            super(callable);
+        }
+
+        LaneFuture(Runnable runnable, V result)
+        {
+            super(runnable, result);
+        }
+    }
+
+    /**
+     * Runs a single task of the lane on the worker pool. The lane has one instance per priority, which is handed to the
+     * pool once per slot it is dispatched for.
+     */
+    private final class Drainer implements Runnable
+    {
+        final int level;
+
+        Drainer(int level)
+        {
+            this.level = level;
+        }
+
+        @Override
+        public void run()
+        {
+            Entry entry = poll();
+            try
+            {
+                if (entry != null)
+                {
+                    queued.decrementAndGet();
+                    queueWait.record(System.nanoTime() - entry.queued);
+                    int a = active.incrementAndGet();
+                    int p;
+                    while ((p = peak.get()) < a && !peak.compareAndSet(p, a))
+                    {
+                        // retry
+                    }
+                    try
+                    {
+                        entry.task.run();
+                    }
+                    finally
+                    {
+                        active.decrementAndGet();
+                        completed.incrementAndGet();
+                    }
+                }
+            }
+            finally
+            {
+                release();
+            }
+        }
+
+        Lane getLane()
+        {
+            return Lane.this;
+        }
+    }
+
+    private final String name;
+    private volatile int limit;
+    /** One queue per {@link Priority#ordinal() priority level}. */
+    private final ConcurrentLinkedQueue<Entry>[] queues;
+    /** The size of the queues, which is expensive to compute for a {@link ConcurrentLinkedQueue}. */
+    private final AtomicInteger queued = new AtomicInteger();
+    /** The number of drainers handed to the pool and not finished yet. */
+    private final AtomicInteger slots = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final Histogram queueWait = new Histogram();
+    private final Drainer[] drainers;
+    private final Object termination = new Object();
+    private volatile boolean shutdown = false;
+    /** Queues tasks which are instrumented already, see {@link #invokeAny(Collection, boolean, long)}. */
+    private final Executor uninstrumented = new Executor()
+    {
+        @Override
+        public void execute(Runnable command)
+        {
+            queue(command, Priority.NORMAL);
+        }
+    };
+
+    Lane(String name, int limit)
+    {
+        if (limit < 1)
+            throw new IllegalArgumentException("limit must be at least 1"); //$NON-NLS-1$
+        this.name = name;
+        this.limit = limit;
+        int levels = Priority.values().length;
+        queues = newQueues(levels);
+        drainers = new Drainer[levels];
+        for (int i = 0; i < levels; ++i)
+        {
+            queues[i] = new ConcurrentLinkedQueue<Entry>();
+            drainers[i] = new Drainer(i);
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static ConcurrentLinkedQueue<Entry>[] newQueues(int levels)
+    {
+        return new ConcurrentLinkedQueue[levels];
+    }
+
+    String getObjectName()
+    {
+        return SchedulerMetrics.OBJECT_NAME + ",lane=" + ObjectName.quote(name); //$NON-NLS-1$
+    }
+
+    /**
+     * Queues the given task. It is instrumented here if the {@link Scheduler} is instrumented, unless it was submitted
+     * by the <code>submit</code>, <code>invoke</code> or <code>schedule</code> methods, which instrument their tasks
+     * already.
+     * 
+     * @throws RejectedExecutionException
+     *             if the lane was shut down
+     */
+    @Override
+    public void execute(Runnable command)
+    {
+        execute(command, Priority.NORMAL);
+    }
+
+    /**
+     * Queues the given task with the given priority.
+     * 
+     * @see #execute(Runnable)
+     */
+    public void execute(Runnable command, Priority priority)
+    {
+        if (command == null || priority == null)
+            throw new NullPointerException();
+        if (!(command instanceof LaneFuture || command instanceof ScheduledTask))
+            command = Scheduler.instrument(command);
+        queue(command, priority);
+    }
+
+    private void queue(Runnable command, Priority priority)
+    {
+        if (shutdown)
+        {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("lane " + name + " was shut down"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        queues[priority.ordinal()].offer(new Entry(command, priority.ordinal()));
+        queued.incrementAndGet();
+        dispatch(priority.ordinal());
+    }
+
+    /**
+     * Submits the task with the given priority.
+     * 
+     * @see #submit(Callable)
+     */
+    public <T> Future<T> submit(Callable<T> task, Priority priority)
+    {
+        if (task == null)
+            throw new NullPointerException();
+        RunnableFuture<T> future = newTaskFor(task);
+        execute(future, priority);
+        return future;
+    }
+
+    /**
+     * Submits the task with the given priority.
+     * 
+     * @see #submit(Runnable)
+     */
+    public Future<?> submit(Runnable task, Priority priority)
+    {
+        if (task == null)
+            throw new NullPointerException();
+        RunnableFuture<Object> future = newTaskFor(task, null);
+        execute(future, priority);
+        return future;
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable)
+    {
+        return new LaneFuture<T>(Scheduler.instrument(callable));
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value)
+    {
+        return new LaneFuture<T>(Scheduler.instrument(runnable), value);
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException
+    {
+        try
+        {
+            return invokeAny(tasks, false, 0);
+        }
+        catch (TimeoutException e)
+        {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException
+    {
+        return invokeAny(tasks, true, unit.toNanos(timeout));
+    }
+
+    /**
+     * Runs the given tasks one after another until one of them completes successfully, like
+     * {@link AbstractExecutorService#invokeAny(Collection)}, which would instrument the tasks twice: once when they are
+     * created by {@link #newTaskFor(Callable)} and once more when they are queued wrapped by its
+     * {@link ExecutorCompletionService}. Hence, the tasks are instrumented here and queued as they are.
+     */
+    private <T> T invokeAny(Collection<? extends Callable<T>> tasks, boolean timed, long nanos)
+            throws InterruptedException, ExecutionException, TimeoutException
+    {
+        int remaining = tasks.size();
+        if (remaining == 0)
+            throw new IllegalArgumentException();
+        long deadline = System.nanoTime() + nanos;
+        ExecutorCompletionService<T> completion = new ExecutorCompletionService<T>(uninstrumented);
+        List<Future<T>> futures = new ArrayList<Future<T>>(remaining);
+        Iterator<? extends Callable<T>> it = tasks.iterator();
+        ExecutionException failure = null;
+        try
+        {
+            futures.add(completion.submit(Scheduler.instrument(it.next())));
+            --remaining;
+            int active = 1;
+            while (active > 0 || remaining > 0)
+            {
+                Future<T> future = completion.poll();
+                if (future == null)
+                {
+                    if (remaining > 0)
+                    {
+                        // the tasks are started one at a time, while the previous ones did not complete
+                        futures.add(completion.submit(Scheduler.instrument(it.next())));
+                        --remaining;
+                        ++active;
+                        continue;
+                    }
+                    if (timed)
+                    {
+                        future = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        if (future == null)
+                            throw new TimeoutException();
+                    }
+                    else
+                    {
+                        future = completion.take();
+                    }
+                }
+                --active;
+                try
+                {
+                    return future.get();
+                }
+                catch (ExecutionException e)
+                {
+                    failure = e;
+                }
+                catch (RuntimeException e)
+                {
+                    failure = new ExecutionException(e);
+                }
+            }
+            throw failure;
+        }
+        finally
+        {
+            for (Future<T> future : futures)
+            {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * @return the level of the queue whose head is to be run next, taking its {@link PriorityWorkQueue#rank aging}
+     *         into account, or -1 if all queues are empty
+     */
+    private int select()
+    {
+        long now = System.nanoTime();
+        int best = -1;
+        int bestRank = -1;
+        for (int level = queues.length - 1; level >= 0; --level)
+        {
+            Entry head = queues[level].peek();
+            if (head == null)
+                continue;
+            int rank = PriorityWorkQueue.rank(level, head.queued, now);
+            if (rank > bestRank)
+            {
+                best = level;
+                bestRank = rank;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return the next task to run, or null if all queues are empty
+     */
+    private Entry poll()
+    {
+        int level;
+        while ((level = select()) >= 0)
+        {
+            Entry entry = queues[level].poll();
+            if (entry != null)
+                return entry;
+            // the head was taken concurrently
+        }
+        return null;
+    }
+
+    /**
+     * @param task
+     *            a task queued in the worker pool
+     * @return the priority level a drainer was dispatched with, or the level of {@link Priority#NORMAL} for other tasks
+     */
+    static int levelOf(Runnable task)
+    {
+        return task instanceof Drainer ? ((Drainer) task).level : Priority.NORMAL.ordinal();
+    }
+
+    /**
+     * Hands another drainer to the worker pool, unless the lane's limit is reached.
+     * 
+     * @param level
+     *            the priority level the drainer enters the pool's queue with
+     */
+    private void dispatch(int level)
+    {
+        int s;
+        while ((s = slots.get()) < limit)
+        {
+            if (slots.compareAndSet(s, s + 1))
+            {
+                try
+                {
+                    Scheduler.dispatch(drainers[level]);
+                }
+                catch (RuntimeException e)
+                {
+                    slots.decrementAndGet();
+                    throw e;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Frees the slot of a finished or discarded drainer and hands on to the next one if there are waiting tasks.
+     */
+    private void release()
+    {
+        slots.decrementAndGet();
+        int level;
+        if (queued.get() > 0 && (level = select()) >= 0)
+        {
+            dispatch(level);
+        }
+        else if (shutdown && isTerminated())
+        {
+            synchronized (termination)
+            {
+                termination.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Frees the slot of a drainer which was removed from the worker pool's queue without being run.
+     * 
+     * @return whether the given task is a drainer
+     */
+    static boolean discard(Runnable task)
+    {
+        if (task instanceof Drainer)
+        {
+            ((Drainer) task).getLane().release();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes all waiting tasks from the lane's queue.
+     * 
+     * @param tasks
+     *            the list receiving the removed tasks
+     */
+    void drainTo(List<Runnable> tasks)
+    {
+        Entry entry;
+        while ((entry = poll()) != null)
+        {
+            queued.decrementAndGet();
+            tasks.add(entry.task);
+        }
+    }
+
+    /**
+     * Removes cancelled tasks from the lane's queue.
+     */
+    void purge()
+    {
+        for (ConcurrentLinkedQueue<Entry> queue : queues)
+        {
+            for (Iterator<Entry> it = queue.iterator(); it.hasNext();)
+            {
+                Runnable task = it.next().task;
+                if (task instanceof Future<?> && ((Future<?>) task).isCancelled())
+                {
+                    it.remove();
+                    queued.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * The command is queued in this lane when the delay elapsed.
+     * 
+     * @see Scheduler#schedule(Runnable, long, TimeUnit)
+     */
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit)
+    {
+        return schedule(command, delay, unit, Priority.NORMAL);
+    }
+
+    /**
+     * The command is queued in this lane with the given priority when the delay elapsed.
+     * 
+     * @see Scheduler#schedule(Runnable, long, TimeUnit, Priority)
+     */
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit, Priority priority)
+    {
+        return Scheduler.arm(this, priority, command, delay, 0, unit);
+    }
+
+    /**
+     * The callable is queued in this lane when the delay elapsed.
+     * 
+     * @see Scheduler#schedule(Callable, long, TimeUnit)
+     */
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit)
+    {
+        return schedule(callable, delay, unit, Priority.NORMAL);
+    }
+
+    /**
+     * The callable is queued in this lane with the given priority when the delay elapsed.
+     * 
+     * @see Scheduler#schedule(Callable, long, TimeUnit, Priority)
+     */
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit, Priority priority)
+    {
+        return Scheduler.arm(this, priority, callable, delay, unit);
+    }
+
+    /**
+     * @see Scheduler#scheduleAtFixedRate(Runnable, long, long, TimeUnit)
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit)
+    {
+        if (period <= 0)
+            throw new IllegalArgumentException();
+        return Scheduler.arm(this, Priority.NORMAL, command, initialDelay, period, unit);
+    }
+
+    /**
+     * @see Scheduler#scheduleWithFixedDelay(Runnable, long, long, TimeUnit)
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit)
+    {
+        if (delay <= 0)
+            throw new IllegalArgumentException();
+        return Scheduler.arm(this, Priority.NORMAL, command, initialDelay, -delay, unit);
+    }
+
+    /**
+     * Rejects further tasks, while the waiting ones are still run, and removes the lane from the {@link Scheduler}, so
+     * {@link Scheduler#lane(String, int)} creates a new one with the same name.
+     * 
+     * @throws UnsupportedOperationException
+     *             for the default lane
+     */
+    @Override
+    public void shutdown()
+    {
+        if (Scheduler.DEFAULT_LANE.equals(name) && Scheduler.getDefaultLane() == this)
+            throw new UnsupportedOperationException("the default lane is shut down with the Scheduler"); //$NON-NLS-1$
+        shutdown = true;
+        Scheduler.removeLane(this);
+        if (isTerminated())
+        {
+            synchronized (termination)
+            {
+                termination.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Rejects further tasks and removes the waiting ones. Running tasks are not interrupted, since they run on the
+     * shared worker pool.
+     * 
+     * @return the tasks which never commenced execution
+     * @throws UnsupportedOperationException
+     *             for the default lane
+     */
+    @Override
+    public List<Runnable> shutdownNow()
+    {
+        shutdown();
+        List<Runnable> tasks = new ArrayList<Runnable>();
+        drainTo(tasks);
+        return tasks;
+    }
+
+    @Override
+    public boolean isShutdown()
+    {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated()
+    {
+        return shutdown && queued.get() <= 0 && slots.get() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (termination)
+        {
+            while (!isTerminated())
+            {
+                long nanos = deadline - System.nanoTime();
+                if (nanos <= 0)
+                    return false;
+                // wakes up regularly, since tasks queued concurrently with the shutdown are still run
+                termination.wait(Math.min(nanos / 1000000 + 1, 100));
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+    @Override
+    public int getLimit()
+    {
+        return limit;
+    }
+
+    /**
+     * A higher limit takes effect at once, a lower one as soon as enough running tasks finished.
+     */
+    @Override
+    public void setLimit(int limit)
+    {
+        if (limit < 1)
+            throw new IllegalArgumentException("limit must be at least 1"); //$NON-NLS-1$
+        this.limit = limit;
+        int level;
+        for (int i = Math.min(queued.get(), limit); i > 0 && slots.get() < limit && (level = select()) >= 0; --i)
+        {
+            dispatch(level);
+        }
+    }
+
+    @Override
+    public int getQueueLength()
+    {
+        return Math.max(0, queued.get());
+    }
+
+    @Override
+    public int getActive()
+    {
+        return active.get();
+    }
+
+    @Override
+    public int getPeakActive()
+    {
+        return peak.get();
+    }
+
+    @Override
+    public long getCompleted()
+    {
+        return completed.get();
+    }
+
+    @Override
+    public long getRejected()
+    {
+        return rejected.get();
+    }
+
+    /**
+     * @return the histogram of the times in nanoseconds the tasks waited in the lane's queue
+     */
+    public Histogram getQueueWait()
+    {
+        return queueWait;
+    }
+
+    @Override
+    public double getQueueWaitMean()
+    {
+        return queueWait.getMean() / 1000;
+    }
+
+    @Override
+    public long getQueueWaitMedian()
+    {
+        return TimeUnit.NANOSECONDS.toMicros(queueWait.getValueAtPercentile(50));
+    }
+
+    @Override
+    public long getQueueWait99th()
+    {
+        return TimeUnit.NANOSECONDS.toMicros(queueWait.getValueAtPercentile(99));
+    }
+
+    @Override
+    public long getQueueWaitMax()
+    {
+        return TimeUnit.NANOSECONDS.toMicros(queueWait.getMax());
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Lane[" + name + ", limit " + limit + ", active " + active.get() + ", queued " + getQueueLength() + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+    }
+}
@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 18.10.2026 at 00:12:44
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.concurrent;
+
+/**
+ * The JMX management interface of a {@link Lane}. All durations are in microseconds.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public interface LaneMBean
+{
+    public String getName();
+
+    /**
+     * @return the maximum number of the lane's tasks running at the same time
+     */
+    public int getLimit();
+
+    /**
+     * @param limit
+     *            the maximum number of the lane's tasks running at the same time, at least 1
+     */
+    public void setLimit(int limit);
+
+    /**
+     * @return the number of tasks waiting in the lane's queue
+     */
+    public int getQueueLength();
+
+    /**
+     * @return the number of the lane's tasks running right now
+     */
+    public int getActive();
+
+    /**
+     * @return the largest number of the lane's tasks which ran at the same time
+     */
+    public int getPeakActive();
+
+    /**
+     * @return the number of tasks which were run, including the failed ones
+     */
+    public long getCompleted();
+
+    /**
+     * @return the number of tasks rejected after the lane's shutdown
+     */
+    public long getRejected();
+
+    public double getQueueWaitMean();
+
+    public long getQueueWaitMedian();
+
+    public long getQueueWait99th();
+
+    public long getQueueWaitMax();
+}
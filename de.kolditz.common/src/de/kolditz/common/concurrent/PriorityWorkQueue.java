@@ -0,0 +1,343 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 18.10.2026 at 01:07:35
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import de.kolditz.common.concurrent.Scheduler.Priority;
+
+/**
+ * The work queue of the {@link Scheduler}'s worker pool: a multi-level queue with one FIFO level per {@link Priority}.
+ * The head of a higher level is taken first, unless the head of a lower level has waited long enough to be
+ * {@link #rank(int, long, long) aged} above it. Aging never lets a task overtake one of a higher priority which reached
+ * the same level, so {@link Priority#HIGH} tasks are always taken first, while {@link Priority#LOW} tasks are delayed
+ * but not starved by a backlog of {@link Priority#NORMAL} ones. Tasks without a priority are queued as
+ * {@link Priority#NORMAL}.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+final class PriorityWorkQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable>
+{
+    /**
+     * The waiting time after which a task is raised by one level, which is much longer than typical queue waits, so
+     * that aging only takes effect for a lasting backlog.
+     */
+    static final long AGING_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final int LEVELS = Priority.values().length;
+
+    private static final class Node
+    {
+        final Runnable task;
+        final long queued = System.nanoTime();
+
+        Node(Runnable task)
+        {
+            this.task = task;
+        }
+    }
+
+    private final ArrayDeque<Node>[] levels;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private int count = 0;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    PriorityWorkQueue()
+    {
+        levels = new ArrayDeque[LEVELS];
+        for (int i = 0; i < LEVELS; ++i)
+        {
+            levels[i] = new ArrayDeque<Node>();
+        }
+    }
+
+    /**
+     * @param level
+     *            the task's {@link Priority#ordinal() priority level}
+     * @param queued
+     *            the {@link System#nanoTime()} when the task was queued
+     * @param now
+     *            the current {@link System#nanoTime()}
+     * @return the rank of the task, the highest of which is taken first: the level raised by one per
+     *         {@link #AGING_NANOS} of waiting, up to the highest level, and among equally raised tasks, the one of the
+     *         higher priority
+     */
+    static int rank(int level, long queued, long now)
+    {
+        long aged = level + (now - queued) / AGING_NANOS;
+        return (aged < LEVELS ? (int) aged : LEVELS - 1) * LEVELS + level;
+    }
+
+    /**
+     * @return the level whose head is to be taken next, or -1 if the queue is empty
+     */
+    private int select()
+    {
+        long now = System.nanoTime();
+        int best = -1;
+        int bestRank = -1;
+        for (int level = LEVELS - 1; level >= 0; --level)
+        {
+            Node head = levels[level].peekFirst();
+            if (head == null)
+                continue;
+            int rank = rank(level, head.queued, now);
+            if (rank > bestRank)
+            {
+                best = level;
+                bestRank = rank;
+            }
+        }
+        return best;
+    }
+
+    private Runnable dequeue()
+    {
+        --count;
+        return levels[select()].pollFirst().task;
+    }
+
+    @Override
+    public boolean offer(Runnable task)
+    {
+        if (task == null)
+            throw new NullPointerException();
+        Node node = new Node(task);
+        lock.lock();
+        try
+        {
+            levels[Lane.levelOf(task)].addLast(node);
+            ++count;
+            notEmpty.signal();
+            return true;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(Runnable task)
+    {
+        offer(task);
+    }
+
+    @Override
+    public boolean offer(Runnable task, long timeout, TimeUnit unit)
+    {
+        return offer(task);
+    }
+
+    @Override
+    public Runnable poll()
+    {
+        lock.lock();
+        try
+        {
+            return count == 0 ? null : dequeue();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException
+    {
+        lock.lockInterruptibly();
+        try
+        {
+            while (count == 0)
+            {
+                notEmpty.await();
+            }
+            return dequeue();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try
+        {
+            while (count == 0)
+            {
+                if (nanos <= 0)
+                    return null;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable peek()
+    {
+        lock.lock();
+        try
+        {
+            return count == 0 ? null : levels[select()].peekFirst().task;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size()
+    {
+        lock.lock();
+        try
+        {
+            return count;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity()
+    {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean remove(Object o)
+    {
+        lock.lock();
+        try
+        {
+            for (ArrayDeque<Node> level : levels)
+            {
+                for (Iterator<Node> it = level.iterator(); it.hasNext();)
+                {
+                    if (it.next().task.equals(o))
+                    {
+                        it.remove();
+                        --count;
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c)
+    {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c, int maxElements)
+    {
+        if (c == this)
+            throw new IllegalArgumentException();
+        lock.lock();
+        try
+        {
+            int n = 0;
+            while (n < maxElements && count > 0)
+            {
+                c.add(dequeue());
+                ++n;
+            }
+            return n;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the queue, from the highest to the lowest level. Its remove method removes
+     * the last returned task from the queue, if it is still queued.
+     */
+    @Override
+    public Iterator<Runnable> iterator()
+    {
+        final List<Runnable> snapshot = new ArrayList<Runnable>();
+        lock.lock();
+        try
+        {
+            for (int level = LEVELS - 1; level >= 0; --level)
+            {
+                for (Node node : levels[level])
+                {
+                    snapshot.add(node.task);
+                }
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        return new Iterator<Runnable>()
+        {
+            private final Iterator<Runnable> it = snapshot.iterator();
+            private Runnable last;
+
+            @Override
+            public boolean hasNext()
+            {
+                return it.hasNext();
+            }
+
+            @Override
+            public Runnable next()
+            {
+                return last = it.next();
+            }
+
+            @Override
+            public void remove()
+            {
+                if (last == null)
+                    throw new IllegalStateException();
+                PriorityWorkQueue.this.remove(last);
+                last = null;
+            }
+        };
+    }
+}
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 20:41:09
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A delayed or periodic task of the {@link Scheduler}. The timer only fires the task, which then runs in its
+ * {@link Lane} on the worker pool, so long running tasks never delay other timers. A periodic task is re-armed after
+ * each execution, so its executions never overlap, just like those of a
+ * {@link java.util.concurrent.ScheduledThreadPoolExecutor}. A cancelled task is removed from the timer at once.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+final class ScheduledTask<V> extends FutureTask<V> implements RunnableScheduledFuture<V>
+{
+    private final HashedWheelTimer timer;
+    private final Lane lane;
+    private final Scheduler.Priority priority;
+    /** 0 for a one-shot task, positive for a fixed rate, negative for a fixed delay. */
+    private final long period;
+    /** The wrapped task if the {@link Scheduler} is instrumented, which needs to know when the task became due. */
+    private final InstrumentedTask<?> instrumented;
+    /** The {@link System#nanoTime()} of the next execution. */
+    private volatile long time;
+    private volatile HashedWheelTimer.Timeout trigger;
+
+    ScheduledTask(HashedWheelTimer timer, Lane lane, Scheduler.Priority priority, Callable<V> callable, long delay,
+            TimeUnit unit)
+    {
+        super(callable);
+        this.instrumented = callable instanceof InstrumentedTask ? (InstrumentedTask<?>) callable : null;
+        this.timer = timer;
+        this.lane = lane;
+        this.priority = priority;
+        this.period = 0;
+        this.time = System.nanoTime() + unit.toNanos(Math.max(0, delay));
+    }
+
+    ScheduledTask(HashedWheelTimer timer, Lane lane, Scheduler.Priority priority, Runnable runnable, long delay,
+            long period, TimeUnit unit)
+    {
+        super(runnable, null);
+        this.instrumented = runnable instanceof InstrumentedTask ? (InstrumentedTask<?>) runnable : null;
+        this.timer = timer;
+        this.lane = lane;
+        this.priority = priority;
+        this.period = unit.toNanos(period);
+        this.time = System.nanoTime() + unit.toNanos(Math.max(0, delay));
+    }
+
+    /**
+     * Hands the task to the timer.
+     * 
+     * @return this task
+     * @throws RejectedExecutionException
+     *             if the timer was shut down
+     */
+    ScheduledTask<V> arm()
+    {
+        trigger = timer.add(this, time - System.nanoTime());
+        if (isCancelled())
+            timer.cancel(trigger);
+        return this;
+    }
+
+    /**
+     * Called by the timer when the task is due. Hands the task off to its lane with its priority.
+     */
+    void fire()
+    {
+        if (instrumented != null)
+            instrumented.setQueued(time);
+        try
+        {
+            lane.execute(this, priority);
+        }
+        catch (RejectedExecutionException e)
+        {
+            // the lane was shut down: like a ScheduledThreadPoolExecutor, run previously scheduled one-shot tasks
+            // anyway, but end periodic ones. The task goes to the worker pool directly, since running it on the timer's
+            // thread would delay all other timers
+            if (isPeriodic())
+            {
+                cancel(false);
+                return;
+            }
+            try
+            {
+                Scheduler.dispatch(this);
+            }
+            catch (RejectedExecutionException ex)
+            {
+                cancel(false);
+            }
+        }
+    }
+
+    @Override
+    public void run()
+    {
+        if (period == 0)
+        {
+            super.run();
+        }
+        else if (runAndReset())
+        {
+            time = period > 0 ? time + period : System.nanoTime() - period;
+            try
+            {
+                arm();
+            }
+            catch (RejectedExecutionException e)
+            {
+                // periodic tasks end with the timer's shutdown
+                cancel(false);
+            }
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning)
+    {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        HashedWheelTimer.Timeout t = trigger;
+        if (cancelled && t != null)
+            timer.cancel(t);
+        return cancelled;
+    }
+
+    @Override
+    public boolean isPeriodic()
+    {
+        return period != 0;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit)
+    {
+        return unit.convert(time - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other)
+    {
+        if (other == this)
+            return 0;
+        long diff = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+        return diff < 0 ? -1 : diff > 0 ? 1 : 0;
+    }
+}
@@ -10,22 +10,47 @@
  *******************************************************************************/
 package de.kolditz.common.concurrent;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * A scheduler utility class which internally uses a single {@link ScheduledThreadPoolExecutor} instance. It allows to
- * be shutdown and will recreate the executor when necessary. This utility class is intended to be used without ANY
- * configuration, so if you really need to configure an executor, create one on your own.
+ * A scheduler utility class which internally uses a worker pool for immediate tasks and a timer for delayed and
+ * periodic tasks. It allows to be shutdown and will recreate both when necessary. This utility class is intended to be
+ * used without ANY configuration, so if you really need to configure an executor, create one on your own.
  * <p>
- * This executor sets a thread idle time of 10 (ten) seconds and uses no core threads in order to allow graceful
+ * By default, the worker pool has as many threads as there are available processors. For tasks blocking on I/O, the
+ * {@link Mode#VIRTUAL} mode runs each task on a new virtual thread instead, see {@link #setMode(Mode)} and
+ * {@link #MODE_PROPERTY}. The timer is a hashed timing wheel with a resolution of one millisecond, which schedules and
+ * cancels in constant time and only fires delayed and periodic tasks; they are then handed off to the worker pool, so
+ * long running tasks never delay other timers.
+ * </p>
+ * <p>
+ * Tasks are queued in named {@link Lane}s with their own concurrency limits, which share the worker pool in proportion
+ * to their limits, see {@link #lane(String, int)}. The static task methods of this class use the
+ * {@link #DEFAULT_LANE default lane}.
+ * Tasks can be given a {@link Priority}, e.g. to let UI related work overtake bulk background jobs.
+ * </p>
+ * <p>
+ * Both set a thread idle time of 30 (thirty) seconds and let their core threads time out in order to allow graceful
  * termination of runtimes without the need to explicitely call {@link #shutdown()} or {@link #shutdownNow()}.
  * </p>
  * 
@@ -37,234 +62,765 @@ public final class Scheduler
     {
     }
 
-    private static final Object lock = new Object();
-    private static volatile ScheduledThreadPoolExecutor executor;
+    /**
+     * The kinds of threads running the immediate tasks.
+     */
+    public enum Mode
+    {
+        /**
+         * A pool with as many platform threads as there are available processors. Best for CPU-bound tasks.
+         */
+        PLATFORM,
+        /**
+         * A new virtual thread per task, so tasks blocking on I/O do not occupy platform threads and starve other
+         * tasks. If the VM does not support virtual threads, a new platform thread is used per task, and idle threads
+         * are kept for reuse.
+         */
+        VIRTUAL
+    }
+
+    /**
+     * The priorities of tasks. A waiting task of a higher priority is run before those of lower priorities, both within
+     * a {@link Lane} and in the shared worker pool. A waiting task gains one priority per second up to, but never
+     * above, the tasks of a higher priority. Hence, high priority tasks always overtake the others, while low priority
+     * tasks are delayed by a backlog of normal ones, but not starved.
+     */
+    public enum Priority
+    {
+        /**
+         * Bulk background work, e.g. indexing or prefetching.
+         */
+        LOW,
+        /**
+         * The priority of tasks submitted without one.
+         */
+        NORMAL,
+        /**
+         * Work a user is waiting for, e.g. the background part of an UI update.
+         */
+        HIGH
+    }
+
+    /**
+     * The system property selecting the initial {@link Mode} by its name, e.g.
+     * <code>-Dde.kolditz.common.concurrent.Scheduler.mode=VIRTUAL</code>. Defaults to {@link Mode#PLATFORM}.
+     */
+    public static final String MODE_PROPERTY = "de.kolditz.common.concurrent.Scheduler.mode"; //$NON-NLS-1$
+
+    private static volatile Mode mode = initialMode();
+
+    private static Mode initialMode()
+    {
+        String name = System.getProperty(MODE_PROPERTY);
+        if (name != null)
+        {
+            try
+            {
+                return Mode.valueOf(name.trim().toUpperCase(Locale.ENGLISH));
+            }
+            catch (IllegalArgumentException e)
+            {
+                // unknown mode, use the default
+            }
+        }
+        return Mode.PLATFORM;
+    }
+
+    /**
+     * The system property enabling the {@link #setInstrumented(boolean) instrumentation} from the start, e.g.
+     * <code>-Dde.kolditz.common.concurrent.Scheduler.metrics=true</code>.
+     */
+    public static final String METRICS_PROPERTY = "de.kolditz.common.concurrent.Scheduler.metrics"; //$NON-NLS-1$
+
+    /** The name of the lane used by the static task methods of this class. */
+    public static final String DEFAULT_LANE = "default"; //$NON-NLS-1$
+
+    private static final ConcurrentMap<String, Lane> lanes = new ConcurrentHashMap<String, Lane>();
+    private static final Lane defaultLane = new Lane(DEFAULT_LANE, defaultLimit(mode));
 
     static
     {
-        checkState();
+        lanes.put(DEFAULT_LANE, defaultLane);
     }
 
-    private static void checkState()
+    /**
+     * @return the limit of the default lane for the given mode: as many tasks as the pool has threads, so the default
+     *         lane cannot flood the pool's queue and the other lanes keep their share, or no limit for virtual threads,
+     *         which are never queued
+     */
+    private static int defaultLimit(Mode mode)
+    {
+        return mode == Mode.VIRTUAL ? Integer.MAX_VALUE : Runtime.getRuntime().availableProcessors();
+    }
+
+    /** Created on first instrumentation and kept afterwards. */
+    private static volatile SchedulerMetrics metrics;
+    private static volatile boolean instrumented;
+
+    static
+    {
+        if (Boolean.getBoolean(METRICS_PROPERTY))
+            setInstrumented(true);
+    }
+
+    private static final int RUNNING = 0;
+    private static final int SHUTTING_DOWN = 1;
+    private static final int RECREATING = 2;
+
+    /** The current lifecycle state and executors, which are replaced as a whole by compare-and-set. */
+    private static final AtomicReference<Pools> pools = new AtomicReference<Pools>(new Pools());
+
+    /**
+     * An immutable lifecycle state together with the worker pool and the timer, which are always replaced together.
+     */
+    private static final class Pools
     {
-        boolean recreate = false;
-        if (executor != null)
+        final int state;
+        final Mode mode;
+        final ExecutorService workers;
+        final HashedWheelTimer timer;
+
+        /**
+         * Creates new, running executors for the current {@link Scheduler#mode}. Their threads are only started by the
+         * first tasks.
+         */
+        Pools()
         {
-            if (executor.isShutdown() || executor.isTerminating() || executor.isTerminated())
+            state = RUNNING;
+            mode = Scheduler.mode;
+            workers = mode == Mode.VIRTUAL ? newVirtualWorkers() : newPlatformWorkers();
+            // 1 ms ticks, a rotation takes about a second
+            timer = new HashedWheelTimer(1, 1024, 30000, TimeUnit.MILLISECONDS);
+        }
+
+        Pools(int state, Pools pools)
+        {
+            this.state = state;
+            this.mode = pools.mode;
+            this.workers = pools.workers;
+            this.timer = pools.timer;
+        }
+
+        private static ExecutorService newPlatformWorkers()
+        {
+            int threads = Runtime.getRuntime().availableProcessors();
+            ThreadPoolExecutor workers = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                    new PriorityWorkQueue());
+            workers.allowCoreThreadTimeOut(true);
+            return workers;
+        }
+
+        private static ExecutorService newVirtualWorkers()
+        {
+            try
             {
-                executor = null;
-                recreate = true;
+                // Java 21 and later
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor"); //$NON-NLS-1$
+                return (ExecutorService) factory.invoke(null);
+            }
+            catch (Exception e)
+            {
+                // no virtual threads, or only as a disabled preview feature
+                return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 30, TimeUnit.SECONDS,
+                        new SynchronousQueue<Runnable>());
             }
         }
-        else
+
+        void shutdown()
         {
-            recreate = true;
+            // the timer hands its remaining one-shot tasks to their lanes, which run them on the recreated workers
+            timer.shutdown();
+            workers.shutdown();
         }
-        if (recreate)
+
+        List<Runnable> shutdownNow()
+        {
+            List<Runnable> notRun = new ArrayList<Runnable>(timer.shutdownNow());
+            notRun.addAll(workers.shutdownNow());
+            return notRun;
+        }
+    }
+
+    /**
+     * Returns the running executors. The fast path is a single volatile read. After a shutdown, exactly one thread
+     * recreates the executors while the others wait for it.
+     */
+    private static Pools checkState()
+    {
+        Pools p = pools.get();
+        if (p.state == RUNNING)
+            return p;
+        for (;;)
         {
-            synchronized (lock)
+            if (p.state == SHUTTING_DOWN)
             {
-                if (executor == null)
+                Pools recreating = new Pools(RECREATING, p);
+                if (pools.compareAndSet(p, recreating))
                 {
-                    // (hopefully) fix to allow termination when neither shutdown() nor shutdownNow() were called
-                    executor = new ScheduledThreadPoolExecutor(16); // Maximum of 16 threads
-                    executor.setKeepAliveTime(30, TimeUnit.SECONDS);
-                    executor.allowCoreThreadTimeOut(true);
+                    Pools created = new Pools();
+                    pools.set(created);
+                    return created;
                 }
             }
+            else if (p.state == RUNNING)
+            {
+                return p;
+            }
+            else
+            {
+                Thread.yield();
+            }
+            p = pools.get();
         }
     }
 
     /**
-     * Initiates an orderly shutdown in which previously submitted tasks are executed. Synchronized.
+     * Moves the running executors to the {@link #SHUTTING_DOWN} state.
      * 
-     * @see ScheduledThreadPoolExecutor#shutdown()
+     * @return the executors to shut down, or null if they were shut down already
      */
-    public static void shutdown()
+    private static Pools stop()
     {
-        synchronized (lock)
+        for (;;)
         {
-            if (executor != null)
-                executor.shutdown();
-            executor = null;
+            Pools p = pools.get();
+            if (p.state == SHUTTING_DOWN)
+                return null;
+            if (p.state == RUNNING && pools.compareAndSet(p, new Pools(SHUTTING_DOWN, p)))
+                return p;
+            Thread.yield();
         }
     }
 
+    /**
+     * Tolerates a rejection by executors which were shut down concurrently, so the caller retries with the recreated
+     * ones.
+     */
+    private static void checkRejected(Pools p, RejectedExecutionException e)
+    {
+        if (instrumented)
+            metrics.rejected();
+        if (pools.get() == p)
+            throw e;
+        restartWorker(p.workers);
+    }
+
+    /**
+     * A {@link ThreadPoolExecutor} which rejects a task because it was shut down while starting a worker for it may
+     * leave tasks queued concurrently without any worker to run them. Starting a worker after the rejection lets it
+     * drain the queue; it exits immediately if the queue is empty.
+     * 
+     * @param workers
+     *            the worker pool which rejected a task
+     */
+    static void restartWorker(Executor workers)
+    {
+        if (workers instanceof ThreadPoolExecutor)
+            ((ThreadPoolExecutor) workers).prestartCoreThread();
+    }
+
+    /**
+     * Initiates an orderly shutdown in which previously submitted tasks are executed. Atomic.
+     * 
+     * @see ThreadPoolExecutor#shutdown()
+     */
+    public static void shutdown()
+    {
+        Pools p = stop();
+        if (p != null)
+            p.shutdown();
+    }
+
     /**
      * Attempts to stop all actively executing tasks, halts the processing of waiting tasks, and returns a list of the
      * tasks that were awaiting execution.
      * 
      * @return list of tasks that never commenced execution. <b>May be empty or null</b>
-     * @see ScheduledThreadPoolExecutor#shutdownNow()
+     * @see ThreadPoolExecutor#shutdownNow()
      */
     public static List<Runnable> shutdownNow()
     {
-        List<Runnable> notShutdown = null;
-        synchronized (lock)
+        Pools p = stop();
+        if (p == null)
+            return null;
+        // empty the lanes first, so the discarded drainers do not hand their tasks to recreated workers
+        List<Runnable> notRun = new ArrayList<Runnable>();
+        for (Lane lane : lanes.values())
+        {
+            lane.drainTo(notRun);
+        }
+        for (Runnable task : p.shutdownNow())
         {
-            if (executor != null)
+            // the lanes' drainers are no tasks of the clients
+            if (!Lane.discard(task))
+                notRun.add(task);
+        }
+        return notRun;
+    }
+
+    /**
+     * Returns the lane with the given name, which is created if necessary. A lane is a logical executor with its own
+     * queue and concurrency limit, multiplexed with all other lanes on the shared worker pool, so e.g. a burst of slow
+     * validators does not delay background I/O and vice versa. Each lane with waiting tasks has up to its limit of
+     * tasks in the pool's queue, which are served in turn, so the lanes share the pool's threads in proportion to their
+     * limits. All static task methods of this class use the {@link #DEFAULT_LANE default lane}, whose limit is the
+     * number of the pool's threads, or unlimited in {@link Mode#VIRTUAL} mode.
+     * 
+     * @param name
+     *            the lane's name
+     * @param limit
+     *            the maximum number of the lane's tasks running at the same time, which replaces the limit of an
+     *            existing lane
+     * @return the lane
+     * @throws IllegalArgumentException
+     *             if the limit is less than 1
+     */
+    public static Lane lane(String name, int limit)
+    {
+        if (name == null)
+            throw new IllegalArgumentException("name must not be null"); //$NON-NLS-1$
+        for (;;)
+        {
+            Lane lane = lanes.get(name);
+            if (lane != null)
             {
-                notShutdown = executor.shutdownNow();
-                executor = null;
+                lane.setLimit(limit);
+                return lane;
+            }
+            lane = new Lane(name, limit);
+            if (lanes.putIfAbsent(name, lane) == null)
+            {
+                SchedulerMetrics m = metrics;
+                if (m != null)
+                    SchedulerMetrics.register(lane, lane.getObjectName());
+                return lane;
             }
         }
-        return notShutdown;
     }
 
     /**
-     * @see ScheduledThreadPoolExecutor#purge()
+     * @return the lane used by the static task methods of this class
+     */
+    public static Lane getDefaultLane()
+    {
+        return defaultLane;
+    }
+
+    /**
+     * @return all lanes which were not shut down, including the default lane
+     */
+    public static Collection<Lane> getLanes()
+    {
+        return new ArrayList<Lane>(lanes.values());
+    }
+
+    /**
+     * Removes a lane which was shut down.
+     */
+    static void removeLane(Lane lane)
+    {
+        if (lanes.remove(lane.getName(), lane))
+            SchedulerMetrics.unregister(lane.getObjectName());
+    }
+
+    /**
+     * Hands a lane's drainer to the worker pool.
+     */
+    static void dispatch(Runnable drainer)
+    {
+        for (;;)
+        {
+            Pools p = checkState();
+            try
+            {
+                p.workers.execute(drainer);
+                return;
+            }
+            catch (RejectedExecutionException e)
+            {
+                checkRejected(p, e);
+            }
+        }
+    }
+
+    /**
+     * Adds a delayed or periodic task of the given lane to the timer.
+     */
+    static ScheduledFuture<?> arm(Lane lane, Priority priority, Runnable command, long delay, long period,
+            TimeUnit unit)
+    {
+        command = instrument(command);
+        for (;;)
+        {
+            Pools p = checkState();
+            try
+            {
+                return new ScheduledTask<Object>(p.timer, lane, priority, command, delay, period, unit).arm();
+            }
+            catch (RejectedExecutionException e)
+            {
+                checkRejected(p, e);
+            }
+        }
+    }
+
+    /**
+     * Adds a delayed task of the given lane to the timer.
+     */
+    static <V> ScheduledFuture<V> arm(Lane lane, Priority priority, Callable<V> callable, long delay, TimeUnit unit)
+    {
+        callable = instrument(callable);
+        for (;;)
+        {
+            Pools p = checkState();
+            try
+            {
+                return new ScheduledTask<V>(p.timer, lane, priority, callable, delay, unit).arm();
+            }
+            catch (RejectedExecutionException e)
+            {
+                checkRejected(p, e);
+            }
+        }
+    }
+
+    /**
+     * @return the kind of threads running the immediate tasks
+     */
+    public static Mode getMode()
+    {
+        return mode;
+    }
+
+    /**
+     * Selects the kind of threads running the immediate tasks. If the current executors use another mode, they are
+     * {@link #shutdown() shut down} in an orderly fashion and recreated with the new mode on next use. The timer is not
+     * affected by the mode, it only fires delayed tasks and hands them to the workers.
+     * 
+     * @param mode
+     *            the new mode
+     */
+    public static void setMode(Mode mode)
+    {
+        if (mode == null)
+            throw new IllegalArgumentException("mode must not be null"); //$NON-NLS-1$
+        Scheduler.mode = mode;
+        defaultLane.setLimit(defaultLimit(mode));
+        for (;;)
+        {
+            Pools p = pools.get();
+            if (p.state == RUNNING && p.mode != mode)
+            {
+                if (pools.compareAndSet(p, new Pools(SHUTTING_DOWN, p)))
+                {
+                    p.shutdown();
+                    return;
+                }
+            }
+            else if (p.state == RECREATING)
+            {
+                Thread.yield();
+            }
+            else
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Enables or disables the instrumentation of all further tasks. Instrumented tasks are wrapped in order to record
+     * how long they waited for a worker and how long they ran, tagged by their class or {@link Tagged#getTag() tag}.
+     * The {@link SchedulerMetrics} are registered as MBeans on first use and kept when the instrumentation is
+     * disabled again.
+     * 
+     * @param enabled
+     *            whether to instrument further tasks
+     * @see #METRICS_PROPERTY
+     */
+    public static void setInstrumented(boolean enabled)
+    {
+        if (enabled && metrics == null)
+        {
+            synchronized (Scheduler.class)
+            {
+                if (metrics == null)
+                    metrics = new SchedulerMetrics();
+            }
+        }
+        instrumented = enabled;
+    }
+
+    /**
+     * @return whether further tasks are instrumented
+     */
+    public static boolean isInstrumented()
+    {
+        return instrumented;
+    }
+
+    /**
+     * @return the metrics recorded so far, or null if the Scheduler was never instrumented
+     */
+    public static SchedulerMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    static Runnable instrument(Runnable task)
+    {
+        return instrumented ? new InstrumentedTask<Object>(metrics, task) : task;
+    }
+
+    static <T> Callable<T> instrument(Callable<T> task)
+    {
+        return instrumented ? new InstrumentedTask<T>(metrics, task) : task;
+    }
+
+    /**
+     * @return the number of tasks waiting in the lanes' queues
+     */
+    static int getQueueLength()
+    {
+        int length = 0;
+        for (Lane lane : lanes.values())
+        {
+            length += lane.getQueueLength();
+        }
+        return length;
+    }
+
+    /**
+     * @return the number of delayed tasks waiting in the timer
+     */
+    static int getDelayedTasks()
+    {
+        return pools.get().timer.size();
+    }
+
+    /**
+     * Removes cancelled tasks from the lanes' queues. Cancelled delayed tasks are removed from the timer at once.
+     * 
+     * @see ThreadPoolExecutor#purge()
      */
     public static void purge()
     {
-        checkState();
-        executor.purge();
+        for (Lane lane : lanes.values())
+        {
+            lane.purge();
+        }
+        Pools p = checkState();
+        if (p.workers instanceof ThreadPoolExecutor)
+            ((ThreadPoolExecutor) p.workers).purge();
     }
 
     /**
-     * @see ScheduledThreadPoolExecutor#isShutdown()
+     * @see ThreadPoolExecutor#isShutdown()
      */
     public static boolean isShutdown()
     {
-        checkState();
-        return executor.isShutdown();
+        return checkState().workers.isShutdown();
     }
 
     /**
-     * @see ScheduledThreadPoolExecutor#isTerminated()
+     * @see ThreadPoolExecutor#isTerminated()
      */
     public static boolean isTerminated()
     {
-        checkState();
-        return executor.isTerminated();
+        Pools p = checkState();
+        return p.timer.isTerminated() && p.workers.isTerminated();
     }
 
     /**
-     * @see ScheduledThreadPoolExecutor#isTerminating()
+     * @see ThreadPoolExecutor#isTerminating()
      */
     public static boolean isTerminating()
     {
-        checkState();
-        return executor.isTerminating();
+        Pools p = checkState();
+        return p.timer.isShutdown() && !p.timer.isTerminated() || p.workers.isShutdown() && !p.workers.isTerminated();
     }
 
     /**
-     * @see ScheduledThreadPoolExecutor#awaitTermination(long, TimeUnit)
+     * @see ThreadPoolExecutor#awaitTermination(long, TimeUnit)
      */
     public static boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException
     {
-        checkState();
-        return executor.awaitTermination(timeout, unit);
+        Pools p = checkState();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        return p.timer.awaitTermination(timeout, unit)
+                && p.workers.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
     }
 
     /**
-     * @see ScheduledThreadPoolExecutor#submit(Callable)
+     * Submits the task to the {@link #getDefaultLane() default lane}.
+     * 
+     * @see ThreadPoolExecutor#submit(Callable)
      */
     public static <T> Future<T> submit(Callable<T> task)
     {
-        checkState();
-        return executor.submit(task);
+        return defaultLane.submit(task);
     }
 
     /**
-     * @see ScheduledThreadPoolExecutor#submit(Runnable, Object)
+     * Submits the task to the {@link #getDefaultLane() default lane}.
+     * 
+     * @see ThreadPoolExecutor#submit(Runnable, Object)
      */
     public static <T> Future<T> submit(Runnable task, T result)
     {
-        checkState();
-        return executor.submit(task, result);
+        return defaultLane.submit(task, result);
     }
 
     /**
-     * @see ScheduledThreadPoolExecutor#submit(Runnable)
+     * Submits the task to the {@link #getDefaultLane() default lane}.
+     * 
+     * @see ThreadPoolExecutor#submit(Runnable)
      */
     public static Future<?> submit(Runnable task)
     {
-        checkState();
-        return executor.submit(task);
+        return defaultLane.submit(task);
+    }
+
+    /**
+     * Submits the task with the given priority to the {@link #getDefaultLane() default lane}.
+     * 
+     * @see Priority
+     * @see ThreadPoolExecutor#submit(Callable)
+     */
+    public static <T> Future<T> submit(Callable<T> task, Priority priority)
+    {
+        return defaultLane.submit(task, priority);
+    }
+
+    /**
+     * Submits the task with the given priority to the {@link #getDefaultLane() default lane}.
+     * 
+     * @see Priority
+     * @see ThreadPoolExecutor#submit(Runnable)
+     */
+    public static Future<?> submit(Runnable task, Priority priority)
+    {
+        return defaultLane.submit(task, priority);
     }
 
     /**
-     * @see ScheduledThreadPoolExecutor#invokeAll(Collection)
+     * @see ThreadPoolExecutor#invokeAll(Collection)
      */
     public static <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException
     {
-        checkState();
-        return executor.invokeAll(tasks);
+        return defaultLane.invokeAll(tasks);
     }
 
     /**
-     * @see ScheduledThreadPoolExecutor#invokeAll(Collection, long, TimeUnit)
+     * @see ThreadPoolExecutor#invokeAll(Collection, long, TimeUnit)
      */
     public static <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
             throws InterruptedException
     {
-        checkState();
-        return executor.invokeAll(tasks, timeout, unit);
+        return defaultLane.invokeAll(tasks, timeout, unit);
     }
 
     /**
-     * @see ScheduledThreadPoolExecutor#invokeAny(Collection)
+     * @see ThreadPoolExecutor#invokeAny(Collection)
      */
     public static <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException,
             ExecutionException
     {
-        checkState();
-        return executor.invokeAny(tasks);
+        return defaultLane.invokeAny(tasks);
     }
 
     /**
-     * @see ScheduledThreadPoolExecutor#invokeAny(Collection, long, TimeUnit)
+     * @see ThreadPoolExecutor#invokeAny(Collection, long, TimeUnit)
      */
     public static <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
             throws InterruptedException, ExecutionException, TimeoutException
     {
-        checkState();
-        return executor.invokeAny(tasks, timeout, unit);
+        return defaultLane.invokeAny(tasks, timeout, unit);
     }
 
     /**
-     * @see ScheduledThreadPoolExecutor#execute(Runnable)
+     * Executes the command in the {@link #getDefaultLane() default lane}.
+     * 
+     * @see ThreadPoolExecutor#execute(Runnable)
      */
     public static void execute(Runnable command)
     {
-        checkState();
-        executor.execute(command);
+        defaultLane.execute(command);
     }
 
     /**
+     * Executes the command with the given priority in the {@link #getDefaultLane() default lane}.
+     * 
+     * @see Priority
+     * @see ThreadPoolExecutor#execute(Runnable)
+     */
+    public static void execute(Runnable command, Priority priority)
+    {
+        defaultLane.execute(command, priority);
+    }
+
+    /**
+     * The command is run in the {@link #getDefaultLane() default lane} when the delay elapsed.
+     * 
      * @see ScheduledThreadPoolExecutor#schedule(Runnable, long, TimeUnit)
      */
     public static ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit)
     {
-        checkState();
-        return executor.schedule(command, delay, unit);
+        return defaultLane.schedule(command, delay, unit);
     }
 
     /**
+     * The callable is run in the {@link #getDefaultLane() default lane} when the delay elapsed.
+     * 
      * @see ScheduledThreadPoolExecutor#schedule(Runnable, long, TimeUnit)
      */
     public static <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit)
     {
-        checkState();
-        return executor.schedule(callable, delay, unit);
+        return defaultLane.schedule(callable, delay, unit);
     }
 
     /**
+     * The command is queued with the given priority in the {@link #getDefaultLane() default lane} when the delay
+     * elapsed. Its priority only applies from then on, the delay is kept exactly.
+     * 
+     * @see Priority
+     * @see ScheduledThreadPoolExecutor#schedule(Runnable, long, TimeUnit)
+     */
+    public static ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit, Priority priority)
+    {
+        return defaultLane.schedule(command, delay, unit, priority);
+    }
+
+    /**
+     * The callable is queued with the given priority in the {@link #getDefaultLane() default lane} when the delay
+     * elapsed. Its priority only applies from then on, the delay is kept exactly.
+     * 
+     * @see Priority
+     * @see ScheduledThreadPoolExecutor#schedule(Callable, long, TimeUnit)
+     */
+    public static <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit, Priority priority)
+    {
+        return defaultLane.schedule(callable, delay, unit, priority);
+    }
+
+    /**
+     * Each execution runs in the {@link #getDefaultLane() default lane}. Executions never overlap.
+     * 
      * @see ScheduledThreadPoolExecutor#scheduleAtFixedRate(Runnable, long, long, TimeUnit)
      */
     public static ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit)
     {
-        checkState();
-        return executor.scheduleAtFixedRate(command, initialDelay, period, unit);
+        return defaultLane.scheduleAtFixedRate(command, initialDelay, period, unit);
     }
 
     /**
+     * Each execution runs in the {@link #getDefaultLane() default lane}.
+     * 
      * @see ScheduledThreadPoolExecutor#scheduleWithFixedDelay(Runnable, long, long, TimeUnit)
      */
     public static ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay,
             TimeUnit unit)
     {
-        checkState();
-        return executor.scheduleWithFixedDelay(command, initialDelay, delay, unit);
+        return defaultLane.scheduleWithFixedDelay(command, initialDelay, delay, unit);
     }
 }
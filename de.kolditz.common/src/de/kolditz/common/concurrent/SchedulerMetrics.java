@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 23:29:18
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.concurrent;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The metrics of all tasks run by the {@link Scheduler} while it is {@link Scheduler#setInstrumented(boolean)
+ * instrumented}, together with the {@link TaskMetrics} of each {@link Tagged tag}. Each is registered as a standard
+ * MBean with the platform MBean server, named {@value #OBJECT_NAME} and {@value #OBJECT_NAME}<code>,tag=...</code>
+ * respectively, so they can be watched with e.g. JConsole. The {@link Lane}s are registered alongside.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public final class SchedulerMetrics extends TaskMetrics implements SchedulerMetricsMBean
+{
+    public static final String OBJECT_NAME = "de.kolditz.common.concurrent:type=Scheduler"; //$NON-NLS-1$
+
+    private final ConcurrentMap<String, TaskMetrics> tags = new ConcurrentHashMap<String, TaskMetrics>();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+
+    SchedulerMetrics()
+    {
+        super(null);
+        register(this, OBJECT_NAME);
+        for (Lane lane : Scheduler.getLanes())
+        {
+            register(lane, lane.getObjectName());
+        }
+    }
+
+    /**
+     * Registers the given MBean. Failures only cost the visibility via JMX, e.g. if another instance of this bundle
+     * registered its metrics already.
+     */
+    static void register(Object mbean, String name)
+    {
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (!server.isRegistered(objectName))
+                server.registerMBean(mbean, objectName);
+        }
+        catch (JMException e)
+        {
+            // not visible via JMX
+        }
+        catch (SecurityException e)
+        {
+            // not visible via JMX
+        }
+    }
+
+    /**
+     * Unregisters the MBean with the given name, if any.
+     */
+    static void unregister(String name)
+    {
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (server.isRegistered(objectName))
+                server.unregisterMBean(objectName);
+        }
+        catch (JMException e)
+        {
+            // unregistered concurrently
+        }
+        catch (SecurityException e)
+        {
+            // not visible via JMX
+        }
+    }
+
+    /**
+     * @return the metrics of the given tag, which are created and registered on first use
+     */
+    public TaskMetrics forTag(String tag)
+    {
+        TaskMetrics metrics = tags.get(tag);
+        if (metrics == null)
+        {
+            TaskMetrics created = new TaskMetrics(tag);
+            metrics = tags.putIfAbsent(tag, created);
+            if (metrics == null)
+            {
+                metrics = created;
+                register(created, OBJECT_NAME + ",tag=" + ObjectName.quote(tag)); //$NON-NLS-1$
+            }
+        }
+        return metrics;
+    }
+
+    void started()
+    {
+        int a = active.incrementAndGet();
+        int p;
+        while ((p = peak.get()) < a && !peak.compareAndSet(p, a))
+        {
+            // retry
+        }
+    }
+
+    void finished(TaskMetrics metrics, long queueWaitNanos, long executionNanos, boolean failure)
+    {
+        active.decrementAndGet();
+        record(queueWaitNanos, executionNanos, failure);
+        metrics.record(queueWaitNanos, executionNanos, failure);
+    }
+
+    void rejected()
+    {
+        rejected.incrementAndGet();
+    }
+
+    @Override
+    public long getRejected()
+    {
+        return rejected.get();
+    }
+
+    @Override
+    public int getActiveThreads()
+    {
+        return active.get();
+    }
+
+    @Override
+    public int getPeakThreads()
+    {
+        return peak.get();
+    }
+
+    @Override
+    public int getQueueLength()
+    {
+        return Scheduler.getQueueLength();
+    }
+
+    @Override
+    public int getDelayedTasks()
+    {
+        return Scheduler.getDelayedTasks();
+    }
+
+    @Override
+    public String[] getTags()
+    {
+        return tags.keySet().toArray(new String[0]);
+    }
+
+    /**
+     * Clears all counters and histograms, including those of the tags.
+     */
+    @Override
+    public void reset()
+    {
+        super.reset();
+        rejected.set(0);
+        peak.set(active.get());
+        for (TaskMetrics metrics : tags.values())
+        {
+            metrics.reset();
+        }
+    }
+}
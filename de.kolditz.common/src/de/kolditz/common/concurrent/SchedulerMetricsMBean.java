@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 23:25:37
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.concurrent;
+
+/**
+ * The JMX management interface of {@link SchedulerMetrics}. All durations are in microseconds.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public interface SchedulerMetricsMBean extends TaskMetricsMBean
+{
+    /**
+     * @return the number of tasks rejected by the executors, including those retried after a concurrent shutdown
+     */
+    public long getRejected();
+
+    /**
+     * @return the number of threads currently running instrumented tasks
+     */
+    public int getActiveThreads();
+
+    /**
+     * @return the largest number of threads which ran instrumented tasks at the same time
+     */
+    public int getPeakThreads();
+
+    /**
+     * @return the number of tasks waiting in the lanes' queues
+     */
+    public int getQueueLength();
+
+    /**
+     * @return the number of delayed tasks waiting in the timer
+     */
+    public int getDelayedTasks();
+
+    /**
+     * @return the tags of all tasks recorded so far
+     */
+    public String[] getTags();
+}
@@ -0,0 +1,28 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 23:16:42
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.concurrent;
+
+/**
+ * Implemented by tasks which are to be attributed to something else than their own class in the {@link Scheduler}'s
+ * {@link SchedulerMetrics metrics}, e.g. the internal runnable of a worker class which should be reported as the
+ * worker's subclass.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public interface Tagged
+{
+    /**
+     * @return the tag to record the task's metrics under, usually a class name
+     */
+    public String getTag();
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 23:22:51
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The metrics of the {@link Scheduler}'s tasks with the same {@link Tagged tag}: how long they waited between becoming
+ * due and being started, which includes the time spent in the worker pool's queue, and how long they ran.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ * @see Scheduler#setInstrumented(boolean)
+ */
+public class TaskMetrics implements TaskMetricsMBean
+{
+    private final String tag;
+    private final Histogram queueWait = new Histogram();
+    private final Histogram execution = new Histogram();
+    private final AtomicLong failed = new AtomicLong();
+
+    TaskMetrics(String tag)
+    {
+        this.tag = tag;
+    }
+
+    void record(long queueWaitNanos, long executionNanos, boolean failure)
+    {
+        queueWait.record(queueWaitNanos);
+        execution.record(executionNanos);
+        if (failure)
+            failed.incrementAndGet();
+    }
+
+    private static long micros(long nanos)
+    {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    /**
+     * @return the histogram of the queue wait times in nanoseconds
+     */
+    public Histogram getQueueWait()
+    {
+        return queueWait;
+    }
+
+    /**
+     * @return the histogram of the execution times in nanoseconds
+     */
+    public Histogram getExecution()
+    {
+        return execution;
+    }
+
+    @Override
+    public String getTag()
+    {
+        return tag;
+    }
+
+    @Override
+    public long getCount()
+    {
+        return execution.getCount();
+    }
+
+    @Override
+    public long getFailed()
+    {
+        return failed.get();
+    }
+
+    @Override
+    public double getQueueWaitMean()
+    {
+        return queueWait.getMean() / 1000;
+    }
+
+    @Override
+    public long getQueueWaitMedian()
+    {
+        return micros(queueWait.getValueAtPercentile(50));
+    }
+
+    @Override
+    public long getQueueWait99th()
+    {
+        return micros(queueWait.getValueAtPercentile(99));
+    }
+
+    @Override
+    public long getQueueWait999th()
+    {
+        return micros(queueWait.getValueAtPercentile(99.9));
+    }
+
+    @Override
+    public long getQueueWaitMax()
+    {
+        return micros(queueWait.getMax());
+    }
+
+    @Override
+    public double getExecutionMean()
+    {
+        return execution.getMean() / 1000;
+    }
+
+    @Override
+    public long getExecutionMedian()
+    {
+        return micros(execution.getValueAtPercentile(50));
+    }
+
+    @Override
+    public long getExecution99th()
+    {
+        return micros(execution.getValueAtPercentile(99));
+    }
+
+    @Override
+    public long getExecution999th()
+    {
+        return micros(execution.getValueAtPercentile(99.9));
+    }
+
+    @Override
+    public long getExecutionMax()
+    {
+        return micros(execution.getMax());
+    }
+
+    @Override
+    public void reset()
+    {
+        queueWait.reset();
+        execution.reset();
+        failed.set(0);
+    }
+}
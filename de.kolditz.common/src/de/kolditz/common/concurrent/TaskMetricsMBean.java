@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 23:19:25
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.concurrent;
+
+/**
+ * The JMX management interface of {@link TaskMetrics}. All durations are in microseconds.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public interface TaskMetricsMBean
+{
+    /**
+     * @return the tag of the recorded tasks, or null for all tasks
+     */
+    public String getTag();
+
+    /**
+     * @return the number of executed tasks, including the failed ones
+     */
+    public long getCount();
+
+    /**
+     * @return the number of tasks which threw an exception
+     */
+    public long getFailed();
+
+    public double getQueueWaitMean();
+
+    public long getQueueWaitMedian();
+
+    public long getQueueWait99th();
+
+    public long getQueueWait999th();
+
+    public long getQueueWaitMax();
+
+    public double getExecutionMean();
+
+    public long getExecutionMedian();
+
+    public long getExecution99th();
+
+    public long getExecution999th();
+
+    public long getExecutionMax();
+
+    /**
+     * Clears all counters and histograms.
+     */
+    public void reset();
+}
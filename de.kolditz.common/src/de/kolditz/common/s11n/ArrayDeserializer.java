@@ -12,8 +12,16 @@
  *******************************************************************************/
 package de.kolditz.common.s11n;
 
-import java.util.LinkedList;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import de.kolditz.common.concurrent.Scheduler;
 
 /**
  * A light-weight, non thread-safe serializer for whole arrays / collections. Does currently not support nested arrays.
@@ -22,6 +30,59 @@ import java.util.List;
  */
 public abstract class ArrayDeserializer extends DeSerializer
 {
+    /**
+     * The minimum number of characters per chunk of the parallel deserialization. Smaller arrays are deserialized
+     * sequentially.
+     */
+    private static final int MIN_CHUNK_SIZE = 1 << 16;
+
+    /**
+     * The number of chunks per available processor, which evens out chunks of different complexity.
+     */
+    private static final int CHUNKS_PER_PROCESSOR = 4;
+
+    static final Executor SCHEDULER = new Executor()
+    {
+        @Override
+        public void execute(Runnable command)
+        {
+            Scheduler.execute(command);
+        }
+    };
+
+    static final ChunkReader<String[]> FIELDS = new ChunkReader<String[]>()
+    {
+        @Override
+        public void read(PullDeserializer parser, List<String[]> list) throws IOException
+        {
+            StreamingArrayDeserializer deserializer = new StreamingArrayDeserializer(parser);
+            String[] fields;
+            while ((fields = deserializer.nextObject()) != null)
+            {
+                list.add(fields);
+            }
+        }
+    };
+
+    /**
+     * @return a chunk reader binding the objects to new instances of the given class
+     */
+    static <T> ChunkReader<T> objects(final Class<T> clazz)
+    {
+        return new ChunkReader<T>()
+        {
+            @Override
+            public void read(PullDeserializer parser, List<T> list) throws IOException
+            {
+                T object;
+                while ((object = ObjectDeserializer.deserialize(parser, clazz)) != null)
+                {
+                    list.add(object);
+                }
+            }
+        };
+    }
+
     /**
      * Tries to deserialize a whole array of objects which was serialized by an {@link ArraySerializer}. This should be
      * an escaped string.
@@ -31,41 +92,459 @@ public abstract class ArrayDeserializer extends DeSerializer
      * @return the found objects' fields
      */
     public static String[][] deserialize(String serialized)
+    {
+        return deserialize(serialized, (StringTable) null);
+    }
+
+    /**
+     * Tries to deserialize a whole array of objects like {@link #deserialize(String)}, but repeated field values are
+     * shared via the given table. The table's statistics tell how many copies were saved.
+     * 
+     * @param serialized
+     *            the serialized string representation
+     * @param strings
+     *            the table sharing repeated values, or null
+     * @return the found objects' fields
+     */
+    public static String[][] deserialize(String serialized, StringTable strings)
     {
         if (serialized.length() < 3)
             return new String[0][0];
-        // init
-        List<String[]> list = new LinkedList<String[]>();
-        int charCount = serialized.codePointCount(0, serialized.length());
-        int maxPos = charCount;
-        int[] chars = new int[charCount];
-        // convert everything to true unicode
-        for (int i = 0; i < charCount; ++i)
-        {
-            chars[i] = serialized.codePointAt(i);
-        }
-        // 1) search for array delimiters
-        int pos = search(chars, 0, maxPos, ARR_BEG);
-        int end = search(chars, pos, maxPos, ARR_END);
-        if (chars[end] != ARRAY_END)
-            return new String[0][0];
-        // 2) search for objects and then for the fields
-        int next;
-        while (pos < end)
+        ObjectArrayBuilder objects = new ObjectArrayBuilder(serialized);
+        read(new StreamingArrayDeserializer(serialized), strings, objects);
+        return objects.toArray();
+    }
+
+    /**
+     * Tries to deserialize a whole array of objects which was serialized by an {@link ArraySerializer} and passes each
+     * object to the given consumer as soon as it was read. Like {@link #deserialize(String)}, a malformed array yields
+     * the objects found up to the malformed one.
+     * 
+     * @param serialized
+     *            the serialized string representation
+     * @param consumer
+     *            the consumer of the found objects' fields
+     * @return the number of objects passed to the consumer
+     */
+    public static int deserialize(String serialized, ObjectConsumer consumer)
+    {
+        if (serialized.length() < 3)
+            return 0;
+        // scan directly on the characters, without converting everything to code points first
+        return read(new StreamingArrayDeserializer(serialized), null, consumer);
+    }
+
+    private static int read(StreamingArrayDeserializer deserializer, StringTable strings, ObjectConsumer consumer)
+    {
+        deserializer.setStringTable(strings);
+        int count = 0;
+        try
+        {
+            String[] fields;
+            while ((fields = deserializer.nextObject()) != null)
+            {
+                ++count;
+                if (!consumer.accept(fields))
+                    break;
+            }
+        }
+        catch (IOException e)
+        {
+            // no further well-formed object found
+        }
+        return count;
+    }
+
+    /**
+     * Tries to deserialize a whole array of objects which was serialized by an {@link ArraySerializer} directly into
+     * the given array. Deserialization stops when the array is full, so callers may read a large array in pages.
+     * 
+     * @param serialized
+     *            the serialized string representation
+     * @param target
+     *            the array receiving the found objects' fields
+     * @param offset
+     *            the index of the first object in the target array
+     * @return the number of objects written to the target array
+     */
+    public static int deserialize(String serialized, final String[][] target, final int offset)
+    {
+        if (offset < 0 || offset > target.length)
+            throw new IndexOutOfBoundsException("offset " + offset + " not within [0, " + target.length + "]"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        if (offset == target.length)
+            return 0;
+        return deserialize(serialized, new ObjectConsumer()
+        {
+            private int index = offset;
+
+            @Override
+            public boolean accept(String[] fields)
+            {
+                target[index++] = fields;
+                return index < target.length;
+            }
+        });
+    }
+
+    /**
+     * Deserializes only the given columns of a whole array of objects which was serialized with a {@link Schema}
+     * header. The other fields are skipped without being unescaped.
+     * 
+     * @param serialized
+     *            the serialized string representation
+     * @param columns
+     *            the names of the requested columns
+     * @return the found objects' requested fields in the order of the columns
+     * @throws IllegalArgumentException
+     *             if the string has no schema header
+     * @see StreamingArrayDeserializer#project(String...)
+     */
+    public static String[][] deserialize(String serialized, String... columns)
+    {
+        ObjectArrayBuilder objects = new ObjectArrayBuilder(serialized);
+        StreamingArrayDeserializer deserializer = new StreamingArrayDeserializer(serialized);
+        try
+        {
+            deserializer.project(columns);
+        }
+        catch (IOException e)
+        {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        try
+        {
+            String[] fields;
+            while ((fields = deserializer.nextObject()) != null)
+            {
+                objects.accept(fields);
+            }
+        }
+        catch (IOException e)
+        {
+            // no further well-formed object found
+        }
+        return objects.toArray();
+    }
+
+    /**
+     * Tries to deserialize a whole array of objects which was serialized by an {@link ArraySerializer} directly into
+     * new instances of the given class. This should be an escaped string.
+     * 
+     * @param serialized
+     *            the serialized string representation
+     * @param clazz
+     *            the class to instantiate, which needs a no-argument constructor
+     * @return the new instances in array order
+     * @throws IllegalArgumentException
+     *             if the string is malformed, a field cannot be converted to its type or the class cannot be
+     *             instantiated
+     * @see ObjectDeserializer#deserialize(PullDeserializer, Class)
+     */
+    public static <T> List<T> deserialize(String serialized, Class<T> clazz)
+    {
+        List<T> list = new ArrayList<T>();
+        PullDeserializer parser = new PullDeserializer(serialized);
+        try
+        {
+            T object;
+            while ((object = ObjectDeserializer.deserialize(parser, clazz)) != null)
+            {
+                list.add(object);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        return list;
+    }
+
+    /**
+     * Deserializes a whole array of objects like {@link #deserialize(String)}, but splits large arrays into chunks of
+     * whole objects which are deserialized in parallel on the {@link Scheduler}.
+     * 
+     * @param serialized
+     *            the serialized string representation
+     * @return the found objects' fields in array order
+     * @throws InterruptedException
+     *             if the current thread was interrupted while waiting for the chunks
+     * @see #deserializeParallel(String, Executor)
+     */
+    public static String[][] deserializeParallel(String serialized) throws InterruptedException
+    {
+        return deserializeParallel(serialized, SCHEDULER);
+    }
+
+    /**
+     * Deserializes a whole array of objects like {@link #deserialize(String)}, but splits large arrays into chunks of
+     * whole objects which are deserialized in parallel on the given {@link Executor}. The calling thread deserializes
+     * the first chunk and every chunk no worker started yet itself, so it may be a task of the executor. The chunk
+     * boundaries are found by searching unescaped {@link #OBJECT_END}s near evenly distributed positions, so the input
+     * is not pre-scanned as a whole. Like {@link #deserialize(String)}, a malformed array yields the objects found up
+     * to the malformed one.
+     * 
+     * @param serialized
+     *            the serialized string representation
+     * @param executor
+     *            the executor running the chunks
+     * @return the found objects' fields in array order
+     * @throws InterruptedException
+     *             if the current thread was interrupted while waiting for the chunks
+     */
+    public static String[][] deserializeParallel(String serialized, Executor executor) throws InterruptedException
+    {
+        PullDeserializer head = new PullDeserializer(serialized);
+        int[] starts = split(serialized, head);
+        if (starts == null)
+            return deserialize(serialized);
+        List<List<String[]>> parts = run(serialized, starts, head.getSchema(), FIELDS, executor, true);
+        int size = 0;
+        for (List<String[]> part : parts)
         {
-            pos = search(chars, pos, end, OBJ_BEG);
-            next = search(chars, pos, end, OBJ_END);
-            if (chars[pos] != OBJECT_BEGIN || chars[next] != OBJECT_END)
-                break; // no further object found
-            // include the object delimiters
-            list.add(ObjectDeserializer.deserializeAsArray(new String(chars, pos, next - pos + 1)));
-            pos = next + 1;
+            size += part.size();
         }
-        String[][] result = new String[list.size()][];
-        for (int i = 0; i < list.size(); ++i)
+        String[][] result = new String[size][];
+        int pos = 0;
+        for (List<String[]> part : parts)
         {
-            result[i] = list.get(i);
+            for (String[] fields : part)
+            {
+                result[pos++] = fields;
+            }
         }
         return result;
     }
+
+    /**
+     * Deserializes a whole array of objects like {@link #deserialize(String, Class)}, but splits large arrays into
+     * chunks of whole objects which are deserialized in parallel on the {@link Scheduler}.
+     * 
+     * @param serialized
+     *            the serialized string representation
+     * @param clazz
+     *            the class to instantiate, which needs a no-argument constructor
+     * @return the new instances in array order
+     * @throws IllegalArgumentException
+     *             if the string is malformed, a field cannot be converted to its type or the class cannot be
+     *             instantiated
+     * @throws InterruptedException
+     *             if the current thread was interrupted while waiting for the chunks
+     * @see #deserializeParallel(String, Executor)
+     */
+    public static <T> List<T> deserializeParallel(String serialized, Class<T> clazz) throws InterruptedException
+    {
+        return deserializeParallel(serialized, clazz, SCHEDULER);
+    }
+
+    /**
+     * Deserializes a whole array of objects like {@link #deserialize(String, Class)}, but splits large arrays into
+     * chunks of whole objects which are deserialized in parallel on the given {@link Executor}.
+     * 
+     * @param serialized
+     *            the serialized string representation
+     * @param clazz
+     *            the class to instantiate, which needs a no-argument constructor
+     * @param executor
+     *            the executor running the chunks
+     * @return the new instances in array order
+     * @throws IllegalArgumentException
+     *             if the string is malformed, a field cannot be converted to its type or the class cannot be
+     *             instantiated
+     * @throws InterruptedException
+     *             if the current thread was interrupted while waiting for the chunks
+     * @see #deserializeParallel(String, Executor)
+     */
+    public static <T> List<T> deserializeParallel(String serialized, Class<T> clazz, Executor executor)
+            throws InterruptedException
+    {
+        PullDeserializer head = new PullDeserializer(serialized);
+        int[] starts = split(serialized, head);
+        if (starts == null)
+            return deserialize(serialized, clazz);
+        List<List<T>> parts = run(serialized, starts, head.getSchema(), objects(clazz), executor, false);
+        int size = 0;
+        for (List<T> part : parts)
+        {
+            size += part.size();
+        }
+        List<T> result = new ArrayList<T>(size);
+        for (List<T> part : parts)
+        {
+            result.addAll(part);
+        }
+        return result;
+    }
+
+    /**
+     * Splits the array's content into chunks of whole objects. A chunk ends directly after an {@link #OBJECT_END} and
+     * the next one starts after the following {@link #SEPARATOR}. Since special characters within fields are always
+     * escaped, an {@link #OBJECT_END} preceded by an even number of backslashes ends an object.
+     * 
+     * @param head
+     *            a new parser of the serialized string, which is used to find the array's begin and schema
+     * @return the chunks' start indices, or null if the array should be deserialized sequentially
+     */
+    private static int[] split(String serialized, PullDeserializer head)
+    {
+        int length = serialized.length();
+        int chunkCount = Math.min(Runtime.getRuntime().availableProcessors() * CHUNKS_PER_PROCESSOR, length
+                / MIN_CHUNK_SIZE);
+        if (chunkCount < 2)
+            return null;
+        // skips leading characters and the schema header
+        try
+        {
+            if (head.next() != PullDeserializer.START_ARRAY)
+                return null;
+        }
+        catch (IOException e)
+        {
+            // the sequential deserialization handles it
+            return null;
+        }
+        int begin = (int) head.getPosition();
+        int[] starts = new int[chunkCount];
+        starts[0] = begin;
+        int count = 1;
+        for (int i = 1; i < chunkCount; ++i)
+        {
+            int target = begin + (int) ((long) (length - begin) * i / chunkCount);
+            if (target <= starts[count - 1])
+                continue;
+            int end = serialized.indexOf(OBJECT_END, target);
+            while (end >= 0 && isEscaped(serialized, begin, end))
+            {
+                end = serialized.indexOf(OBJECT_END, end + 1);
+            }
+            // stop at the array's end or at malformed input, which the last chunk will report
+            if (end < 0 || end + 2 >= length || serialized.charAt(end + 1) != SEPARATOR)
+                break;
+            starts[count++] = end + 2;
+        }
+        return count < 2 ? null : Arrays.copyOf(starts, count);
+    }
+
+    private static boolean isEscaped(String serialized, int begin, int pos)
+    {
+        int backslashes = 0;
+        while (--pos >= begin && serialized.charAt(pos) == BACKSLASH)
+        {
+            ++backslashes;
+        }
+        return (backslashes & 1) != 0;
+    }
+
+    /**
+     * Deserializes the chunks and waits for them in order, running each chunk which was not started yet in the calling
+     * thread. If a chunk is malformed, the following chunks are cancelled.
+     * 
+     * @param lenient
+     *            whether a malformed chunk ends the result (like {@link #deserialize(String)}) instead of throwing an
+     *            {@link IllegalArgumentException}
+     */
+    private static <E> List<List<E>> run(String serialized, int[] starts, Schema schema, ChunkReader<E> reader,
+            Executor executor, boolean lenient) throws InterruptedException
+    {
+        List<Chunk<E>> chunks = new ArrayList<Chunk<E>>(starts.length);
+        List<FutureTask<List<E>>> tasks = new ArrayList<FutureTask<List<E>>>(starts.length);
+        for (int i = 0; i < starts.length; ++i)
+        {
+            int end = i + 1 < starts.length ? starts[i + 1] - 1 : serialized.length();
+            Chunk<E> chunk = new Chunk<E>(serialized, starts[i], end, schema, reader);
+            FutureTask<List<E>> task = new FutureTask<List<E>>(chunk);
+            chunks.add(chunk);
+            tasks.add(task);
+            if (i > 0)
+                executor.execute(task);
+        }
+        List<List<E>> parts = new ArrayList<List<E>>(starts.length);
+        try
+        {
+            for (int i = 0; i < starts.length; ++i)
+            {
+                FutureTask<List<E>> task = tasks.get(i);
+                // runs the first chunk, and each chunk no worker started yet, in the calling thread. Hence, a caller
+                // which is a worker itself does not wait for chunks queued behind it in the same pool.
+                // FutureTask.run() does nothing if a worker started the task already
+                if (!task.isDone())
+                    task.run();
+                parts.add(get(task));
+                IOException error = chunks.get(i).error;
+                if (error != null)
+                {
+                    if (lenient)
+                        break;
+                    throw new IllegalArgumentException(error.getMessage(), error);
+                }
+            }
+        }
+        finally
+        {
+            for (FutureTask<List<E>> task : tasks)
+            {
+                task.cancel(false);
+            }
+        }
+        return parts;
+    }
+
+    private static <V> V get(FutureTask<V> task) throws InterruptedException
+    {
+        try
+        {
+            return task.get();
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Reads all objects of a chunk.
+     */
+    interface ChunkReader<E>
+    {
+        void read(PullDeserializer parser, List<E> list) throws IOException;
+    }
+
+    private static final class Chunk<E> implements Callable<List<E>>
+    {
+        private final String serialized;
+        private final int start;
+        private final int end;
+        private final Schema schema;
+        private final ChunkReader<E> reader;
+        /** Set if the chunk is malformed. Visible to the waiting thread via the {@link FutureTask}. */
+        private IOException error;
+
+        Chunk(String serialized, int start, int end, Schema schema, ChunkReader<E> reader)
+        {
+            this.serialized = serialized;
+            this.start = start;
+            this.end = end;
+            this.schema = schema;
+            this.reader = reader;
+        }
+
+        @Override
+        public List<E> call()
+        {
+            List<E> list = new ArrayList<E>();
+            try
+            {
+                reader.read(new PullDeserializer(serialized, start, end, schema), list);
+            }
+            catch (IOException e)
+            {
+                error = e;
+            }
+            return list;
+        }
+    }
 }
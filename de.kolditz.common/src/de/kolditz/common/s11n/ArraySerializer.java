@@ -12,6 +12,7 @@
  *******************************************************************************/
 package de.kolditz.common.s11n;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -55,14 +56,64 @@ public class ArraySerializer extends DeSerializer
         return serializer.serialize();
     }
 
+    /**
+     * Serializes a whole collection of objects using the ArraySerializer's methods, preceded by the given schema
+     * header.
+     * 
+     * @param schema
+     *            the schema of the objects
+     * @param objects
+     *            the collection of objects
+     * @return the serialization string
+     * @see Schema#forClass(Class, int)
+     */
+    public static String serialize(Schema schema, Collection<?> objects)
+    {
+        ArraySerializer serializer = new ArraySerializer(schema);
+        for (Object o : objects)
+        {
+            serializer.addObject(o);
+        }
+        return serializer.serialize();
+    }
+
     private StringBuilder sb = new StringBuilder();
     private boolean finished = false;
+    private final int headerLength;
+
+    /**
+     * Creates a serializer without a schema header.
+     */
+    public ArraySerializer()
+    {
+        headerLength = 0;
+    }
+
+    /**
+     * Creates a serializer which writes the given schema header before the array.
+     * 
+     * @param schema
+     *            the schema of the objects
+     */
+    public ArraySerializer(Schema schema)
+    {
+        try
+        {
+            schema.write(sb);
+        }
+        catch (IOException e)
+        {
+            // a StringBuilder does not throw
+            throw new IllegalStateException(e);
+        }
+        headerLength = sb.length();
+    }
 
     private void check(Object argument)
     {
         assert argument != null;
 
-        if (sb.length() == 0)
+        if (sb.length() == headerLength)
         {
             sb.append(ARRAY_BEGIN);
         }
@@ -127,6 +178,8 @@ public class ArraySerializer extends DeSerializer
         if (!finished)
         {
             finished = true;
+            if (sb.length() == headerLength)
+                sb.append(ARRAY_BEGIN);
             sb.append(ARRAY_END);
         }
         return sb.toString();
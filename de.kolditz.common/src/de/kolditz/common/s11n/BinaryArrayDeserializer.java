@@ -0,0 +1,333 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 14:02:47
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A light-weight, non thread-safe, streaming deserializer for whole arrays which were serialized by a
+ * {@link BinaryArraySerializer}. Each object is returned as soon as it was read, so the memory used is proportional to
+ * a single object. Does currently not support nested arrays.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ * @see #toText(InputStream, Appendable)
+ */
+public class BinaryArrayDeserializer implements Closeable
+{
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Tries to deserialize a whole array of objects which was serialized by a {@link BinaryArraySerializer}.
+     * 
+     * @param serialized
+     *            the binary serialization
+     * @return the found objects' fields
+     * @throws IllegalArgumentException
+     *             if the binary serialization is malformed
+     */
+    public static String[][] deserialize(byte[] serialized)
+    {
+        BinaryArrayDeserializer deserializer = new BinaryArrayDeserializer(new ByteArrayInputStream(serialized));
+        List<String[]> list = new ArrayList<String[]>();
+        try
+        {
+            String[] fields;
+            while ((fields = deserializer.nextObject()) != null)
+            {
+                list.add(fields);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        return list.toArray(new String[list.size()][]);
+    }
+
+    /**
+     * Converts a whole array from the binary format to the escaped text format written by an {@link ArraySerializer}.
+     * Only one object is held in memory at a time. Closes neither the stream nor the target.
+     * 
+     * @param in
+     *            the stream providing the binary format
+     * @param text
+     *            the target for the escaped text format
+     * @throws DeserializationException
+     *             if the binary format is malformed
+     * @throws IOException
+     *             if the stream or the target throws it
+     * @see BinaryArraySerializer#fromText(java.io.Reader, java.io.OutputStream)
+     */
+    public static void toText(InputStream in, Appendable text) throws IOException
+    {
+        BinaryArrayDeserializer deserializer = new BinaryArrayDeserializer(in);
+        StreamingArraySerializer serializer = new StreamingArraySerializer(text);
+        String[] fields;
+        while ((fields = deserializer.nextObject()) != null)
+        {
+            serializer.addObject(fields);
+        }
+        serializer.finish();
+    }
+
+    private final InputStream in;
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int bufferPos = 0;
+    private int bufferLimit = 0;
+    private long consumed = 0;
+
+    private char[] text = new char[64];
+    private int textLength = 0;
+
+    private StringTable strings;
+
+    private boolean started = false;
+    private boolean done = false;
+
+    /**
+     * Creates a deserializer reading from the given stream. The header is read on first use.
+     * 
+     * @param in
+     *            the stream, which need not be buffered
+     */
+    public BinaryArrayDeserializer(InputStream in)
+    {
+        assert in != null;
+        this.in = in;
+    }
+
+    /**
+     * Reads the next object of the array.
+     * 
+     * @return the next object's fields (null fields stay null), or null when the end of the array was reached
+     * @throws DeserializationException
+     *             if the input is malformed or ends before the array is terminated
+     * @throws IOException
+     *             if the underlying stream throws it
+     */
+    public String[] nextObject() throws IOException
+    {
+        int fieldCount = startObject();
+        if (fieldCount < 0)
+            return null;
+        String[] fields = new String[fieldCount];
+        for (int i = 0; i < fieldCount; ++i)
+        {
+            if (readField())
+                fields[i] = strings != null ? strings.intern(text, 0, textLength) : new String(text, 0, textLength);
+        }
+        return fields;
+    }
+
+    /**
+     * Reads the next object of the array directly into a new instance of the given class. Primitive fields are parsed
+     * without creating intermediate Strings. Surplus fields are ignored, missing fields keep their initial values.
+     * 
+     * @param clazz
+     *            the class to instantiate, which needs a no-argument constructor
+     * @return the new instance, or null when the end of the array was reached
+     * @throws DeserializationException
+     *             if the input is malformed or a field cannot be converted to its type
+     * @throws IOException
+     *             if the underlying stream throws it
+     * @throws IllegalArgumentException
+     *             if the class cannot be instantiated
+     * @see ObjectDeserializer#deserialize(PullDeserializer, Class)
+     */
+    public <T> T nextObject(Class<T> clazz) throws IOException
+    {
+        ObjectBinder<T> binder = ObjectBinder.forClass(clazz);
+        int fieldCount = startObject();
+        if (fieldCount < 0)
+            return null;
+        T object = binder.newInstance();
+        int bound = binder.getFieldCount();
+        for (int i = 0; i < fieldCount; ++i)
+        {
+            if (i >= bound)
+                skipField();
+            else if (readField())
+                binder.set(object, i, text, 0, textLength, strings);
+            else
+                binder.setNull(object, i);
+        }
+        return object;
+    }
+
+    /**
+     * Sets the table used to share repeated field values between the returned objects.
+     * 
+     * @param strings
+     *            the table, or null to create a new String for each field
+     */
+    public void setStringTable(StringTable strings)
+    {
+        this.strings = strings;
+    }
+
+    /**
+     * @return the next object's field count, or -1 at the end of the array
+     */
+    private int startObject() throws IOException
+    {
+        if (!started)
+            readHeader();
+        if (done)
+            return -1;
+        int fieldCount = readVarint() - 1;
+        if (fieldCount < 0)
+        {
+            done = true;
+            return -1;
+        }
+        return fieldCount;
+    }
+
+    private void readHeader() throws IOException
+    {
+        started = true;
+        require(BinaryArraySerializer.MAGIC.length + 1);
+        for (byte magic : BinaryArraySerializer.MAGIC)
+        {
+            if (buffer[bufferPos++] != magic)
+                throw new DeserializationException("not a binary serialization"); //$NON-NLS-1$
+        }
+        byte version = buffer[bufferPos++];
+        if (version != BinaryArraySerializer.VERSION)
+            throw new DeserializationException("unsupported binary serialization version " + version); //$NON-NLS-1$
+    }
+
+    /**
+     * Decodes the next field into the text buffer.
+     * 
+     * @return false if the field is null
+     */
+    private boolean readField() throws IOException
+    {
+        int length = readVarint() - 1;
+        textLength = 0;
+        if (length < 0)
+            return false;
+        require(length);
+        if (text.length < length)
+            text = new char[Math.max(length, text.length << 1)];
+        byte[] b = buffer;
+        char[] t = text;
+        int pos = bufferPos;
+        int end = pos + length;
+        int n = 0;
+        int c;
+        while (pos < end)
+        {
+            c = b[pos++];
+            if (c >= 0)
+            {
+                t[n++] = (char) c;
+            }
+            else if ((c & 0xE0) == 0xC0 && pos < end)
+            {
+                t[n++] = (char) (((c & 0x1F) << 6) | (b[pos++] & 0x3F));
+            }
+            else if ((c & 0xF0) == 0xE0 && pos + 1 < end)
+            {
+                t[n++] = (char) (((c & 0x0F) << 12) | ((b[pos] & 0x3F) << 6) | (b[pos + 1] & 0x3F));
+                pos += 2;
+            }
+            else if ((c & 0xF8) == 0xF0 && pos + 2 < end)
+            {
+                int cp = ((c & 0x07) << 18) | ((b[pos] & 0x3F) << 12) | ((b[pos + 1] & 0x3F) << 6)
+                        | (b[pos + 2] & 0x3F);
+                pos += 3;
+                // a code point takes at most as many chars as it took bytes
+                n += Character.toChars(cp, t, n);
+            }
+            else
+            {
+                t[n++] = '\uFFFD';
+            }
+        }
+        bufferPos = end;
+        textLength = n;
+        return true;
+    }
+
+    private void skipField() throws IOException
+    {
+        int length = readVarint() - 1;
+        if (length > 0)
+        {
+            require(length);
+            bufferPos += length;
+        }
+    }
+
+    private int readVarint() throws IOException
+    {
+        int value = 0;
+        int b;
+        for (int shift = 0; shift < 32; shift += 7)
+        {
+            require(1);
+            b = buffer[bufferPos++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+        throw new DeserializationException("malformed varint at offset " + (consumed + bufferPos)); //$NON-NLS-1$
+    }
+
+    /**
+     * Makes sure that the given number of bytes is available in the buffer, reading and growing it as necessary.
+     */
+    private void require(int bytes) throws IOException
+    {
+        if (bufferLimit - bufferPos >= bytes)
+            return;
+        int rest = bufferLimit - bufferPos;
+        if (bytes > buffer.length)
+        {
+            byte[] larger = new byte[Math.max(bytes, buffer.length << 1)];
+            System.arraycopy(buffer, bufferPos, larger, 0, rest);
+            buffer = larger;
+        }
+        else
+        {
+            System.arraycopy(buffer, bufferPos, buffer, 0, rest);
+        }
+        consumed += bufferPos;
+        bufferPos = 0;
+        bufferLimit = rest;
+        while (bufferLimit < bytes)
+        {
+            int count = in.read(buffer, bufferLimit, buffer.length - bufferLimit);
+            if (count < 0)
+                throw new DeserializationException("unexpected end of input at offset " + (consumed + bufferLimit)); //$NON-NLS-1$
+            bufferLimit += count;
+        }
+    }
+
+    /**
+     * Closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        done = true;
+        in.close();
+    }
+}
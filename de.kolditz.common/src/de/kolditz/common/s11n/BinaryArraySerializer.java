@@ -0,0 +1,355 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 13:35:12
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.Collection;
+
+/**
+ * A light-weight, non thread-safe serializer for whole arrays / collections using a compact binary encoding instead of
+ * the escaped text format of the {@link ArraySerializer}. It uses the same model of an array of objects consisting of
+ * string fields, but no escaping at all, so it is considerably cheaper for fields containing many special characters.
+ * Use the {@link BinaryArrayDeserializer} for reading it. Does currently not support nested arrays.
+ * <p>
+ * The format is:
+ * <ul>
+ * <li>the magic bytes {@link #MAGIC} followed by the {@link #VERSION} byte</li>
+ * <li>for each object: its field count plus one as an unsigned varint, followed by its fields</li>
+ * <li>for each field: 0 for null, or its UTF-8 byte length plus one as an unsigned varint followed by the UTF-8
+ * bytes</li>
+ * <li>a single 0 byte terminating the array</li>
+ * </ul>
+ * Unsigned varints store 7 bits per byte, least significant group first, and set the high bit on all but the last
+ * byte.
+ * <p>
+ * Clients must call {@link #finish()} or {@link #close()} in order to terminate the array.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ * @see #fromText(Reader, OutputStream)
+ */
+public class BinaryArraySerializer implements Closeable, Flushable
+{
+    /**
+     * The magic bytes starting the binary format.
+     */
+    public static final byte[] MAGIC = { 'S', '1', '1', 'N' };
+
+    /**
+     * The format version following the {@link #MAGIC} bytes.
+     */
+    public static final byte VERSION = 1;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Serializes a whole collection of objects using the BinaryArraySerializer's methods.
+     * 
+     * @param objects
+     *            the collection of objects
+     * @return the binary serialization
+     */
+    public static byte[] serialize(Collection<?> objects)
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryArraySerializer serializer = new BinaryArraySerializer(out);
+        try
+        {
+            for (Object o : objects)
+            {
+                serializer.addObject(o);
+            }
+            serializer.finish();
+        }
+        catch (IOException e)
+        {
+            // cannot happen with a ByteArrayOutputStream
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Converts a whole array from the text format written by an {@link ArraySerializer} or a
+     * {@link StreamingArraySerializer} to the binary format. Only one object is held in memory at a time. Closes
+     * neither the reader nor the stream.
+     * 
+     * @param text
+     *            the reader providing the escaped text format
+     * @param out
+     *            the target stream for the binary format
+     * @throws DeserializationException
+     *             if the text is malformed
+     * @throws IOException
+     *             if the reader or the stream throws it
+     * @see BinaryArrayDeserializer#toText(java.io.InputStream, Appendable)
+     */
+    public static void fromText(Reader text, OutputStream out) throws IOException
+    {
+        StreamingArrayDeserializer deserializer = new StreamingArrayDeserializer(text);
+        BinaryArraySerializer serializer = new BinaryArraySerializer(out);
+        String[] fields;
+        while ((fields = deserializer.nextObject()) != null)
+        {
+            serializer.addObject(fields);
+        }
+        serializer.finish();
+    }
+
+    private final OutputStream out;
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int count = 0;
+    private boolean finished = false;
+
+    /**
+     * Creates a serializer writing to the given stream. The header is written immediately.
+     * 
+     * @param out
+     *            the target stream, which need not be buffered
+     */
+    public BinaryArraySerializer(OutputStream out)
+    {
+        assert out != null;
+        this.out = out;
+        System.arraycopy(MAGIC, 0, buffer, 0, MAGIC.length);
+        buffer[MAGIC.length] = VERSION;
+        count = MAGIC.length + 1;
+    }
+
+    /**
+     * Writes another Object denoted by this object.
+     * 
+     * @param object
+     *            the object whose non-static and non-transient public fields shall be serialized
+     * @throws IOException
+     *             if the stream throws it
+     * @see ObjectSerializer#serialize(StringBuilder, Object)
+     */
+    public void addObject(Object object) throws IOException
+    {
+        assert object != null;
+        FieldAccessor[] accessors = FieldAccessor.forClass(object.getClass());
+        startObject(accessors.length);
+        for (FieldAccessor accessor : accessors)
+        {
+            String value;
+            try
+            {
+                value = accessor.getString(object);
+            }
+            catch (IllegalAccessException e)
+            {
+                // print, write null and proceed, so that the following fields keep their positions
+                e.printStackTrace();
+                value = null;
+            }
+            writeField(value);
+        }
+    }
+
+    /**
+     * Writes another Object denoted by this array of strings (its fields' string values).
+     * 
+     * @param fields
+     *            the object's fields' values
+     * @throws IOException
+     *             if the stream throws it
+     */
+    public void addObject(String... fields) throws IOException
+    {
+        assert fields != null;
+        startObject(fields.length);
+        for (String f : fields)
+        {
+            writeField(f);
+        }
+    }
+
+    /**
+     * Writes another Object denoted by this collection of strings (its fields' string values).
+     * 
+     * @param fields
+     *            the object's fields' values
+     * @throws IOException
+     *             if the stream throws it
+     */
+    public void addObject(Collection<String> fields) throws IOException
+    {
+        assert fields != null;
+        startObject(fields.size());
+        for (String f : fields)
+        {
+            writeField(f);
+        }
+    }
+
+    private void startObject(int fieldCount) throws IOException
+    {
+        if (finished)
+            throw new IllegalStateException("array already finished"); //$NON-NLS-1$
+        ensure(5);
+        writeVarint(fieldCount + 1);
+    }
+
+    private void writeField(String field) throws IOException
+    {
+        if (field == null)
+        {
+            ensure(1);
+            buffer[count++] = 0;
+            return;
+        }
+        int length = field.length();
+        // at most 3 bytes per char, surrogate pairs take 4 bytes for 2 chars
+        ensure(5 + 3 * length);
+        int utf8Length = utf8Length(field, length);
+        writeVarint(utf8Length + 1);
+        byte[] b = buffer;
+        int pos = count;
+        char c;
+        for (int i = 0; i < length; ++i)
+        {
+            c = field.charAt(i);
+            if (c < 0x80)
+            {
+                b[pos++] = (byte) c;
+            }
+            else if (c < 0x800)
+            {
+                b[pos++] = (byte) (0xC0 | (c >> 6));
+                b[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(field.charAt(i + 1)))
+            {
+                int cp = Character.toCodePoint(c, field.charAt(++i));
+                b[pos++] = (byte) (0xF0 | (cp >> 18));
+                b[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                b[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                b[pos++] = (byte) (0x80 | (cp & 0x3F));
+            }
+            else if (Character.isHighSurrogate(c) || Character.isLowSurrogate(c))
+            {
+                // unpaired surrogate, just like String.getBytes(String) does
+                b[pos++] = '?';
+            }
+            else
+            {
+                b[pos++] = (byte) (0xE0 | (c >> 12));
+                b[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                b[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        assert pos - count == utf8Length;
+        count = pos;
+    }
+
+    private static int utf8Length(String field, int length)
+    {
+        int utf8Length = length;
+        char c;
+        for (int i = 0; i < length; ++i)
+        {
+            c = field.charAt(i);
+            if (c >= 0x80)
+            {
+                if (c < 0x800)
+                {
+                    ++utf8Length;
+                }
+                else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(field.charAt(i + 1)))
+                {
+                    utf8Length += 2; // 4 bytes for 2 chars
+                    ++i;
+                }
+                else if (!Character.isHighSurrogate(c) && !Character.isLowSurrogate(c))
+                {
+                    utf8Length += 2;
+                }
+            }
+        }
+        return utf8Length;
+    }
+
+    private void writeVarint(int value)
+    {
+        while ((value & ~0x7F) != 0)
+        {
+            buffer[count++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[count++] = (byte) value;
+    }
+
+    /**
+     * Makes sure that the buffer has room for the given number of bytes, flushing it or growing it if necessary.
+     */
+    private void ensure(int bytes) throws IOException
+    {
+        if (count + bytes <= buffer.length)
+            return;
+        flushBuffer();
+        if (bytes > buffer.length)
+            buffer = new byte[bytes];
+    }
+
+    private void flushBuffer() throws IOException
+    {
+        if (count > 0)
+        {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    /**
+     * Terminates the array and flushes the stream. No further objects may be added afterwards. Further calls have no
+     * effect.
+     * 
+     * @throws IOException
+     *             if the stream throws it
+     */
+    public void finish() throws IOException
+    {
+        if (finished)
+            return;
+        finished = true;
+        ensure(1);
+        buffer[count++] = 0;
+        flush();
+    }
+
+    /**
+     * Writes all buffered objects to the stream and flushes it.
+     */
+    @Override
+    public void flush() throws IOException
+    {
+        flushBuffer();
+        out.flush();
+    }
+
+    /**
+     * {@link #finish() Finishes} the array and closes the stream.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        finish();
+        out.close();
+    }
+}
@@ -0,0 +1,387 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 17:31:18
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A light-weight, non thread-safe, random access deserializer for containers which were written by a
+ * {@link BlockArraySerializer}. The container's index is read once on construction. Reading object N only decompresses
+ * the block containing it; the last block read is cached, so reading neighbouring objects does not decompress it
+ * again. Does currently not support nested arrays.
+ * <p>
+ * Typical usage:
+ * 
+ * <pre>
+ * BlockArrayDeserializer deserializer = new BlockArrayDeserializer(file);
+ * try
+ * {
+ *     List&lt;String[]&gt; page = deserializer.read(offset, 100);
+ * }
+ * finally
+ * {
+ *     deserializer.close();
+ * }
+ * </pre>
+ * 
+ * </p>
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public class BlockArrayDeserializer implements Closeable
+{
+    private static final String ARRAY = "" + DeSerializer.ARRAY_BEGIN + DeSerializer.ARRAY_END; //$NON-NLS-1$
+
+    private final RandomAccessFile file;
+    private final Schema schema;
+    private final long[] blockOffsets;
+    private final long[] blockFirstObjects;
+    private final long indexOffset;
+    private final long size;
+    private final Inflater inflater = new Inflater();
+    private byte[] compressed = new byte[0];
+    private byte[] raw = new byte[0];
+
+    private int cachedBlock = -1;
+    private String blockText;
+    private int[] objectStarts;
+
+    /**
+     * Opens the given container and reads its index.
+     * 
+     * @param file
+     *            the container written by a {@link BlockArraySerializer}
+     * @throws DeserializationException
+     *             if the file is no valid container or its schema header is columnar
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public BlockArrayDeserializer(File file) throws IOException
+    {
+        this.file = new RandomAccessFile(file, "r"); //$NON-NLS-1$
+        try
+        {
+            byte[] magic = new byte[BlockArraySerializer.MAGIC.length];
+            this.file.readFully(magic);
+            checkMagic(magic);
+            byte version = this.file.readByte();
+            if (version != BlockArraySerializer.VERSION)
+                throw new DeserializationException("unsupported container version " + version); //$NON-NLS-1$
+            byte[] header = new byte[this.file.readInt()];
+            this.file.readFully(header);
+            schema = readSchema(header);
+            long blocksBegin = this.file.getFilePointer();
+
+            long trailer = this.file.length() - 8 - magic.length;
+            if (trailer < blocksBegin)
+                throw new DeserializationException("container has no index"); //$NON-NLS-1$
+            this.file.seek(trailer);
+            indexOffset = this.file.readLong();
+            this.file.readFully(magic);
+            checkMagic(magic);
+            if (indexOffset < blocksBegin || indexOffset > trailer)
+                throw new DeserializationException("malformed index offset " + indexOffset); //$NON-NLS-1$
+            this.file.seek(indexOffset);
+            int blockCount = this.file.readInt();
+            if (blockCount < 0 || indexOffset + 4 + blockCount * 16L + 8 != trailer)
+                throw new DeserializationException("malformed index"); //$NON-NLS-1$
+            blockOffsets = new long[blockCount];
+            blockFirstObjects = new long[blockCount];
+            for (int i = 0; i < blockCount; ++i)
+            {
+                blockOffsets[i] = this.file.readLong();
+                blockFirstObjects[i] = this.file.readLong();
+            }
+            size = this.file.readLong();
+        }
+        catch (IOException e)
+        {
+            this.file.close();
+            throw e;
+        }
+    }
+
+    private static void checkMagic(byte[] magic) throws DeserializationException
+    {
+        for (int i = 0; i < magic.length; ++i)
+        {
+            if (magic[i] != BlockArraySerializer.MAGIC[i])
+                throw new DeserializationException("not a block container"); //$NON-NLS-1$
+        }
+    }
+
+    private static Schema readSchema(byte[] header) throws IOException
+    {
+        if (header.length == 0)
+            return null;
+        PullDeserializer parser = new PullDeserializer(new String(header, StreamingArraySerializer.UTF8) + ARRAY);
+        parser.next();
+        Schema schema = parser.getSchema();
+        Schema.checkRows(schema);
+        return schema;
+    }
+
+    /**
+     * @return the number of objects in the container
+     */
+    public long size()
+    {
+        return size;
+    }
+
+    /**
+     * @return the number of compressed blocks
+     */
+    public int getBlockCount()
+    {
+        return blockOffsets.length;
+    }
+
+    /**
+     * @return the container's schema, or null if it has no schema header
+     */
+    public Schema getSchema()
+    {
+        return schema;
+    }
+
+    /**
+     * Reads the object with the given index.
+     * 
+     * @param index
+     *            the object's index
+     * @return the object's unescaped fields (null fields stay null)
+     * @throws IndexOutOfBoundsException
+     *             if the index is not within [0, {@link #size()})
+     * @throws DeserializationException
+     *             if the container is malformed
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public String[] get(long index) throws IOException
+    {
+        checkRange(index, 1);
+        return openAt(index).nextObject();
+    }
+
+    /**
+     * Reads the object with the given index directly into a new instance of the given class. If the container has a
+     * {@link Schema} header, the fields are bound by name.
+     * 
+     * @param index
+     *            the object's index
+     * @param clazz
+     *            the class to instantiate, which needs a no-argument constructor
+     * @return the new instance
+     * @throws IndexOutOfBoundsException
+     *             if the index is not within [0, {@link #size()})
+     * @throws DeserializationException
+     *             if the container is malformed or a field cannot be converted to its type
+     * @throws IOException
+     *             if the file cannot be read
+     * @throws IllegalArgumentException
+     *             if the class cannot be instantiated
+     */
+    public <T> T get(long index, Class<T> clazz) throws IOException
+    {
+        checkRange(index, 1);
+        return ObjectDeserializer.deserialize(openAt(index).parser, clazz);
+    }
+
+    /**
+     * Reads a slice of consecutive objects, decompressing each block the slice touches once.
+     * 
+     * @param from
+     *            the index of the first object
+     * @param count
+     *            the number of objects
+     * @return the objects' unescaped fields (null fields stay null)
+     * @throws IndexOutOfBoundsException
+     *             if the slice is not within [0, {@link #size()})
+     * @throws DeserializationException
+     *             if the container is malformed
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public List<String[]> read(long from, int count) throws IOException
+    {
+        checkRange(from, count);
+        List<String[]> list = new ArrayList<String[]>(count);
+        while (list.size() < count)
+        {
+            Cursor cursor = openAt(from + list.size());
+            String[] fields;
+            while (list.size() < count && (fields = cursor.nextObject()) != null)
+            {
+                list.add(fields);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Reads a slice of consecutive objects directly into new instances of the given class, decompressing each block
+     * the slice touches once. If the container has a {@link Schema} header, the fields are bound by name.
+     * 
+     * @param from
+     *            the index of the first object
+     * @param count
+     *            the number of objects
+     * @param clazz
+     *            the class to instantiate, which needs a no-argument constructor
+     * @return the new instances
+     * @throws IndexOutOfBoundsException
+     *             if the slice is not within [0, {@link #size()})
+     * @throws DeserializationException
+     *             if the container is malformed or a field cannot be converted to its type
+     * @throws IOException
+     *             if the file cannot be read
+     * @throws IllegalArgumentException
+     *             if the class cannot be instantiated
+     */
+    public <T> List<T> read(long from, int count, Class<T> clazz) throws IOException
+    {
+        checkRange(from, count);
+        List<T> list = new ArrayList<T>(count);
+        while (list.size() < count)
+        {
+            PullDeserializer parser = openAt(from + list.size()).parser;
+            T object;
+            while (list.size() < count && (object = ObjectDeserializer.deserialize(parser, clazz)) != null)
+            {
+                list.add(object);
+            }
+        }
+        return list;
+    }
+
+    private void checkRange(long from, int count)
+    {
+        if (from < 0 || count < 0 || from + count > size)
+            throw new IndexOutOfBoundsException("[" + from + ", " + (from + count) + ") not within [0, " + size + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+    }
+
+    /**
+     * Loads the block containing the given object and creates a parser starting at the object.
+     */
+    private Cursor openAt(long index) throws IOException
+    {
+        int block = findBlock(index);
+        load(block);
+        int local = (int) (index - blockFirstObjects[block]);
+        if (local >= objectStarts.length)
+            throw new DeserializationException("block " + block + " is missing object " + index); //$NON-NLS-1$ //$NON-NLS-2$
+        return new Cursor(new PullDeserializer(blockText, objectStarts[local], blockText.length(), schema));
+    }
+
+    private int findBlock(long index)
+    {
+        int low = 0;
+        int high = blockFirstObjects.length - 1;
+        while (low < high)
+        {
+            int mid = (low + high + 1) >>> 1;
+            if (blockFirstObjects[mid] <= index)
+                low = mid;
+            else
+                high = mid - 1;
+        }
+        return low;
+    }
+
+    /**
+     * Decompresses the given block, unless it is cached, and computes its objects' start offsets.
+     */
+    private void load(int block) throws IOException
+    {
+        if (block == cachedBlock)
+            return;
+        cachedBlock = -1;
+        long end = block + 1 < blockOffsets.length ? blockOffsets[block + 1] : indexOffset;
+        file.seek(blockOffsets[block]);
+        int compressedLength = file.readInt();
+        int rawLength = file.readInt();
+        if (compressedLength < 0 || rawLength < 0 || blockOffsets[block] + 8 + compressedLength != end)
+            throw new DeserializationException("malformed block " + block); //$NON-NLS-1$
+        if (compressed.length < compressedLength)
+            compressed = new byte[compressedLength];
+        if (raw.length < rawLength)
+            raw = new byte[rawLength];
+        file.readFully(compressed, 0, compressedLength);
+        inflater.reset();
+        inflater.setInput(compressed, 0, compressedLength);
+        try
+        {
+            if (inflater.inflate(raw, 0, rawLength) != rawLength || !inflater.finished() && rawLength > 0)
+                throw new DeserializationException("malformed block " + block); //$NON-NLS-1$
+        }
+        catch (DataFormatException e)
+        {
+            throw new DeserializationException("malformed block " + block, e); //$NON-NLS-1$
+        }
+        blockText = new String(raw, 0, rawLength, StreamingArraySerializer.UTF8);
+
+        // the index only holds each block's first object, so the objects within are located once per load
+        int count = (int) ((block + 1 < blockOffsets.length ? blockFirstObjects[block + 1] : size)
+                - blockFirstObjects[block]);
+        int[] starts = new int[count];
+        PullDeserializer parser = new PullDeserializer(blockText, 0, blockText.length(), schema);
+        int n = 0;
+        int event;
+        while (n < count && (event = parser.next()) == PullDeserializer.START_OBJECT)
+        {
+            starts[n++] = (int) parser.getPosition() - 1;
+            parser.skipObject();
+        }
+        if (n < count)
+            throw new DeserializationException("block " + block + " holds " + n + " of " + count + " objects"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        objectStarts = starts;
+        cachedBlock = block;
+    }
+
+    /**
+     * Closes the file and releases the decompressor.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        cachedBlock = -1;
+        blockText = null;
+        inflater.end();
+        file.close();
+    }
+
+    private static final class Cursor
+    {
+        final PullDeserializer parser;
+        private final StreamingArrayDeserializer objects;
+
+        Cursor(PullDeserializer parser)
+        {
+            this.parser = parser;
+            this.objects = new StreamingArrayDeserializer(parser);
+        }
+
+        String[] nextObject() throws IOException
+        {
+            return objects.nextObject();
+        }
+    }
+}
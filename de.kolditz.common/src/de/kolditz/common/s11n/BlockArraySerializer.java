@@ -0,0 +1,303 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 17:12:05
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.zip.Deflater;
+
+/**
+ * A light-weight, non thread-safe serializer writing the text format of the {@link ArraySerializer} into a
+ * block-compressed container. The objects are grouped into blocks of a fixed number of objects, and each block is
+ * deflate-compressed on its own. A trailing index lists each block's offset, so the {@link BlockArrayDeserializer} can
+ * read object N, or a slice of objects, by decompressing only the blocks containing them. Does currently not support
+ * nested arrays.
+ * <p>
+ * The format is (all numbers big endian, as written by a {@link DataOutputStream}):
+ * <ul>
+ * <li>the magic bytes {@link #MAGIC} followed by the {@link #VERSION} byte</li>
+ * <li>the byte length of the UTF-8 encoded {@link Schema} header (0 if there is none) followed by the header</li>
+ * <li>for each block: its compressed and uncompressed byte lengths as ints, followed by the compressed UTF-8 text of
+ * its objects, separated by {@link #SEPARATOR}s without any array delimiters</li>
+ * <li>the index: the number of blocks as int, for each block its offset and the number of its first object as longs,
+ * and the total number of objects as long</li>
+ * <li>the offset of the index as long followed by the {@link #MAGIC} bytes</li>
+ * </ul>
+ * <p>
+ * Clients must call {@link #finish()} or {@link #close()} in order to write the index.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public class BlockArraySerializer extends DeSerializer implements Closeable, Flushable
+{
+    /**
+     * The magic bytes starting and ending the container.
+     */
+    public static final byte[] MAGIC = { 'S', '1', '1', 'Z' };
+
+    /**
+     * The format version following the leading {@link #MAGIC} bytes.
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * The default number of objects per block.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    /**
+     * Serializes a whole collection of objects into the given stream and closes it.
+     * 
+     * @param out
+     *            the target stream
+     * @param objects
+     *            the collection of objects
+     * @throws IOException
+     *             if the stream throws it
+     */
+    public static void serialize(OutputStream out, Collection<?> objects) throws IOException
+    {
+        BlockArraySerializer serializer = new BlockArraySerializer(out);
+        try
+        {
+            for (Object o : objects)
+            {
+                serializer.addObject(o);
+            }
+        }
+        finally
+        {
+            serializer.close();
+        }
+    }
+
+    private final DataOutputStream out;
+    private final int blockSize;
+    private final Deflater deflater = new Deflater();
+    private final StringBuilder block = new StringBuilder();
+    private final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    private final byte[] buffer = new byte[8192];
+    private long position = 0;
+    private int blockCount = 0;
+    private long objectCount = 0;
+    private long[] blockOffsets = new long[16];
+    private long[] blockFirstObjects = new long[16];
+    private int count = 0;
+    private boolean finished = false;
+
+    /**
+     * Creates a serializer without a schema header and with the {@link #DEFAULT_BLOCK_SIZE}.
+     * 
+     * @param out
+     *            the target stream, which is buffered internally
+     * @throws IOException
+     *             if the container header cannot be written
+     */
+    public BlockArraySerializer(OutputStream out) throws IOException
+    {
+        this(out, null, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a serializer writing the given schema header and using the {@link #DEFAULT_BLOCK_SIZE}.
+     * 
+     * @param out
+     *            the target stream, which is buffered internally
+     * @param schema
+     *            the schema of the objects, or null for no header
+     * @throws IOException
+     *             if the container header cannot be written
+     */
+    public BlockArraySerializer(OutputStream out, Schema schema) throws IOException
+    {
+        this(out, schema, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param out
+     *            the target stream, which is buffered internally
+     * @param schema
+     *            the schema of the objects, or null for no header
+     * @param blockSize
+     *            the number of objects per block
+     * @throws IOException
+     *             if the container header cannot be written
+     */
+    public BlockArraySerializer(OutputStream out, Schema schema, int blockSize) throws IOException
+    {
+        if (blockSize <= 0)
+            throw new IllegalArgumentException("blockSize must be positive"); //$NON-NLS-1$
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.blockSize = blockSize;
+        this.out.write(MAGIC);
+        this.out.writeByte(VERSION);
+        byte[] header = new byte[0];
+        if (schema != null)
+        {
+            StringBuilder sb = new StringBuilder();
+            schema.write(sb);
+            header = sb.toString().getBytes(StreamingArraySerializer.UTF8);
+        }
+        this.out.writeInt(header.length);
+        this.out.write(header);
+        position = MAGIC.length + 1 + 4 + header.length;
+    }
+
+    private void check(Object argument)
+    {
+        assert argument != null;
+
+        if (finished)
+            throw new IllegalStateException("container already finished"); //$NON-NLS-1$
+        if (count > 0)
+            block.append(SEPARATOR);
+    }
+
+    private void added() throws IOException
+    {
+        ++objectCount;
+        if (++count == blockSize)
+            writeBlock();
+    }
+
+    /**
+     * Writes another Object denoted by this object.
+     * 
+     * @param object
+     *            the object whose fields shall be serialized
+     * @throws IOException
+     *             if the stream throws it
+     * @see ObjectSerializer#serialize(StringBuilder, Object)
+     */
+    public void addObject(Object object) throws IOException
+    {
+        check(object);
+        ObjectSerializer.serialize(block, object);
+        added();
+    }
+
+    /**
+     * Writes another Object denoted by this array of strings (its fields' string values).
+     * 
+     * @param fields
+     *            the object's fields' values
+     * @throws IOException
+     *             if the stream throws it
+     */
+    public void addObject(String... fields) throws IOException
+    {
+        check(fields);
+        ObjectSerializer.serialize(block, fields);
+        added();
+    }
+
+    /**
+     * Writes another Object denoted by this collection of strings (its fields' string values).
+     * 
+     * @param fields
+     *            the object's fields' values
+     * @throws IOException
+     *             if the stream throws it
+     */
+    public void addObject(Collection<String> fields) throws IOException
+    {
+        check(fields);
+        ObjectSerializer.serialize(block, fields);
+        added();
+    }
+
+    private void writeBlock() throws IOException
+    {
+        if (blockCount == blockOffsets.length)
+        {
+            long[] offsets = new long[blockCount << 1];
+            long[] firstObjects = new long[blockCount << 1];
+            System.arraycopy(blockOffsets, 0, offsets, 0, blockCount);
+            System.arraycopy(blockFirstObjects, 0, firstObjects, 0, blockCount);
+            blockOffsets = offsets;
+            blockFirstObjects = firstObjects;
+        }
+        blockOffsets[blockCount] = position;
+        blockFirstObjects[blockCount] = objectCount - count;
+        ++blockCount;
+
+        byte[] text = block.toString().getBytes(StreamingArraySerializer.UTF8);
+        compressed.reset();
+        deflater.reset();
+        deflater.setInput(text);
+        deflater.finish();
+        while (!deflater.finished())
+        {
+            compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+        out.writeInt(compressed.size());
+        out.writeInt(text.length);
+        compressed.writeTo(out);
+        position += 8 + compressed.size();
+
+        block.setLength(0);
+        count = 0;
+    }
+
+    /**
+     * Writes the pending block and the index. No further objects may be added afterwards. Further calls have no effect.
+     * 
+     * @throws IOException
+     *             if the stream throws it
+     */
+    public void finish() throws IOException
+    {
+        if (finished)
+            return;
+        finished = true;
+        if (count > 0)
+            writeBlock();
+        long indexOffset = position;
+        out.writeInt(blockCount);
+        for (int i = 0; i < blockCount; ++i)
+        {
+            out.writeLong(blockOffsets[i]);
+            out.writeLong(blockFirstObjects[i]);
+        }
+        out.writeLong(objectCount);
+        out.writeLong(indexOffset);
+        out.write(MAGIC);
+        out.flush();
+        deflater.end();
+    }
+
+    /**
+     * Flushes the blocks written so far. A pending block is not written before it is complete.
+     */
+    @Override
+    public void flush() throws IOException
+    {
+        out.flush();
+    }
+
+    /**
+     * {@link #finish() Finishes} the container and closes the stream.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        finish();
+        out.close();
+    }
+}
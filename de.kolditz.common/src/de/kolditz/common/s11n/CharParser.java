@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 12:02:10
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+/**
+ * Parses primitive values directly from a range of a character buffer, without creating an intermediate String. The
+ * accepted formats are those produced by {@link String#valueOf(int)}, {@link String#valueOf(long)},
+ * {@link String#valueOf(double)} and {@link String#valueOf(boolean)}.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+final class CharParser
+{
+    private CharParser()
+    {
+    }
+
+    /**
+     * Exactly representable powers of ten, see {@link #parseDouble(char[], int, int)}.
+     */
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    /**
+     * The largest integer mantissa which a double represents exactly.
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    /**
+     * @throws NumberFormatException
+     *             if the range does not contain a parsable int
+     * @see Integer#parseInt(String)
+     */
+    static int parseInt(char[] chars, int offset, int length)
+    {
+        long value = parseLong(chars, offset, length);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            throw invalid(chars, offset, length);
+        return (int) value;
+    }
+
+    /**
+     * @throws NumberFormatException
+     *             if the range does not contain a parsable long
+     * @see Long#parseLong(String)
+     */
+    static long parseLong(char[] chars, int offset, int length)
+    {
+        if (length <= 0)
+            throw invalid(chars, offset, length);
+        int pos = offset;
+        int end = offset + length;
+        boolean negative = false;
+        char c = chars[pos];
+        if (c == '-' || c == '+')
+        {
+            negative = c == '-';
+            if (++pos == end)
+                throw invalid(chars, offset, length);
+        }
+        // accumulate negatively in order to be able to represent Long.MIN_VALUE
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit / 10;
+        long result = 0;
+        int digit;
+        while (pos < end)
+        {
+            digit = chars[pos++] - '0';
+            if (digit < 0 || digit > 9 || result < multiplyLimit)
+                throw invalid(chars, offset, length);
+            result *= 10;
+            if (result < limit + digit)
+                throw invalid(chars, offset, length);
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Parses the simple decimal representations which the {@link String#valueOf(double)} method creates for most
+     * values directly. When the mantissa has at most 53 bits and the decimal exponent's absolute value is at most 22,
+     * a single multiplication or division of two exactly represented doubles yields the correctly rounded result.
+     * Other representations fall back to {@link Double#parseDouble(String)}.
+     * 
+     * @throws NumberFormatException
+     *             if the range does not contain a parsable double
+     * @see Double#parseDouble(String)
+     */
+    static double parseDouble(char[] chars, int offset, int length)
+    {
+        int pos = offset;
+        int end = offset + length;
+        boolean negative = false;
+        if (pos < end && (chars[pos] == '-' || chars[pos] == '+'))
+            negative = chars[pos++] == '-';
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean dot = false;
+        boolean fast = pos < end;
+        char c;
+        while (fast && pos < end)
+        {
+            c = chars[pos];
+            if (c >= '0' && c <= '9')
+            {
+                if (mantissa >= MAX_EXACT_MANTISSA / 10)
+                {
+                    fast = false;
+                    break;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                ++digits;
+                if (dot)
+                    --exponent;
+            }
+            else if (c == '.' && !dot)
+            {
+                dot = true;
+            }
+            else if ((c == 'E' || c == 'e') && digits > 0)
+            {
+                int exp;
+                try
+                {
+                    exp = parseInt(chars, pos + 1, end - pos - 1);
+                }
+                catch (NumberFormatException e)
+                {
+                    fast = false;
+                    break;
+                }
+                exponent += exp;
+                pos = end;
+                break;
+            }
+            else
+            {
+                fast = false;
+                break;
+            }
+            ++pos;
+        }
+        if (fast && digits > 0 && exponent >= -22 && exponent <= 22)
+        {
+            double value = mantissa;
+            value = exponent < 0 ? value / POWERS_OF_TEN[-exponent] : value * POWERS_OF_TEN[exponent];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(new String(chars, offset, length));
+    }
+
+    /**
+     * @return true if the range equals "true" ignoring case, false otherwise
+     * @see Boolean#parseBoolean(String)
+     */
+    static boolean parseBoolean(char[] chars, int offset, int length)
+    {
+        return length == 4 && (chars[offset] | 0x20) == 't' && (chars[offset + 1] | 0x20) == 'r'
+                && (chars[offset + 2] | 0x20) == 'u' && (chars[offset + 3] | 0x20) == 'e';
+    }
+
+    private static NumberFormatException invalid(char[] chars, int offset, int length)
+    {
+        return new NumberFormatException("For input string: \"" + new String(chars, offset, Math.max(length, 0)) //$NON-NLS-1$
+                + "\""); //$NON-NLS-1$
+    }
+}
@@ -0,0 +1,643 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 16:31:50
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A light-weight, non thread-safe deserializer for arrays written by the {@link ColumnarSerializer}. Columns are read
+ * one after the other, each directly into an array of the requested type. Columns which are not read are skipped
+ * without being unescaped, and dictionary entries are parsed only once per column.
+ * <p>
+ * Typical usage, reading only a single column:
+ * 
+ * <pre>
+ * ColumnarDeserializer deserializer = new ColumnarDeserializer(reader);
+ * int[] ages = deserializer.readInts(&quot;age&quot;);
+ * </pre>
+ * 
+ * Since the input is read sequentially, columns must be requested in their serialization order.
+ * </p>
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public class ColumnarDeserializer extends DeSerializer implements Closeable
+{
+    private final PullDeserializer parser;
+    private Schema schema;
+    private int column = -1;
+    private boolean pending = false;
+
+    /**
+     * Creates a deserializer reading from the given {@link Reader}. Clients need not wrap the reader in a
+     * {@link java.io.BufferedReader} since this class does its own buffering.
+     * 
+     * @param reader
+     *            the reader providing the escaped serialization string
+     */
+    public ColumnarDeserializer(Reader reader)
+    {
+        parser = new PullDeserializer(reader);
+    }
+
+    /**
+     * Creates a deserializer reading from the given {@link CharSequence}, e.g. a {@link String} or a
+     * {@link StringBuilder}. The sequence must not be modified while this deserializer is in use.
+     * 
+     * @param serialized
+     *            the escaped serialization string
+     */
+    public ColumnarDeserializer(CharSequence serialized)
+    {
+        parser = new PullDeserializer(serialized);
+    }
+
+    /**
+     * Returns the input's schema, reading the input up to the array's begin if necessary.
+     * 
+     * @return the columnar schema
+     * @throws DeserializationException
+     *             if the input has no columnar schema header or is malformed
+     * @throws IOException
+     *             if the underlying reader throws it
+     */
+    public Schema getSchema() throws IOException
+    {
+        if (schema == null)
+        {
+            parser.next();
+            Schema s = parser.getSchema();
+            if (s == null || !s.isColumnar())
+                throw new DeserializationException("the input has no columnar schema header"); //$NON-NLS-1$
+            schema = s;
+        }
+        return schema;
+    }
+
+    /**
+     * Advances to the next column. If the current column was not read, it is skipped.
+     * 
+     * @return false when the end of the array was reached
+     * @throws DeserializationException
+     *             if the input is malformed
+     * @throws IOException
+     *             if the underlying reader throws it
+     */
+    public boolean nextColumn() throws IOException
+    {
+        getSchema();
+        if (pending)
+            parser.skipObject();
+        pending = false;
+        int event = parser.next();
+        if (event != PullDeserializer.START_OBJECT)
+            return false;
+        ++column;
+        pending = true;
+        return true;
+    }
+
+    /**
+     * @return the index of the current column, or -1 before the first call to {@link #nextColumn()}
+     */
+    public int getColumnIndex()
+    {
+        return column;
+    }
+
+    /**
+     * @return the name of the current column
+     */
+    public String getColumnName()
+    {
+        return schema.getFieldName(column);
+    }
+
+    /**
+     * Reads the current column.
+     * 
+     * @return the column's unescaped values
+     * @throws IllegalStateException
+     *             if the cursor is not at an unread column
+     * @throws DeserializationException
+     *             if the column is malformed
+     * @throws IOException
+     *             if the underlying reader throws it
+     */
+    public String[] readStrings() throws IOException
+    {
+        StringColumn c = new StringColumn();
+        read(c);
+        return c.values;
+    }
+
+    /**
+     * Reads the current column into an int array.
+     * 
+     * @return the column's values
+     * @throws IllegalStateException
+     *             if the cursor is not at an unread column
+     * @throws DeserializationException
+     *             if the column is malformed or contains null or non-int values
+     * @throws IOException
+     *             if the underlying reader throws it
+     */
+    public int[] readInts() throws IOException
+    {
+        IntColumn c = new IntColumn();
+        read(c);
+        return c.values;
+    }
+
+    /**
+     * Reads the current column into a long array.
+     * 
+     * @return the column's values
+     * @throws IllegalStateException
+     *             if the cursor is not at an unread column
+     * @throws DeserializationException
+     *             if the column is malformed or contains null or non-long values
+     * @throws IOException
+     *             if the underlying reader throws it
+     */
+    public long[] readLongs() throws IOException
+    {
+        LongColumn c = new LongColumn();
+        read(c);
+        return c.values;
+    }
+
+    /**
+     * Reads the current column into a double array.
+     * 
+     * @return the column's values
+     * @throws IllegalStateException
+     *             if the cursor is not at an unread column
+     * @throws DeserializationException
+     *             if the column is malformed or contains null or non-double values
+     * @throws IOException
+     *             if the underlying reader throws it
+     */
+    public double[] readDoubles() throws IOException
+    {
+        DoubleColumn c = new DoubleColumn();
+        read(c);
+        return c.values;
+    }
+
+    /**
+     * Reads the current column into a boolean array.
+     * 
+     * @return the column's values
+     * @throws IllegalStateException
+     *             if the cursor is not at an unread column
+     * @throws DeserializationException
+     *             if the column is malformed or contains null or non-boolean values
+     * @throws IOException
+     *             if the underlying reader throws it
+     */
+    public boolean[] readBooleans() throws IOException
+    {
+        BooleanColumn c = new BooleanColumn();
+        read(c);
+        return c.values;
+    }
+
+    /**
+     * Skips all columns up to the given one and reads it.
+     * 
+     * @param name
+     *            the column's name
+     * @return the column's unescaped values
+     * @throws IllegalStateException
+     *             if the column was already passed
+     * @throws DeserializationException
+     *             if there is no such column or the input is malformed
+     * @throws IOException
+     *             if the underlying reader throws it
+     * @see #readStrings()
+     */
+    public String[] readStrings(String name) throws IOException
+    {
+        seek(name);
+        return readStrings();
+    }
+
+    /**
+     * Skips all columns up to the given one and reads it into an int array.
+     * 
+     * @param name
+     *            the column's name
+     * @return the column's values
+     * @throws IllegalStateException
+     *             if the column was already passed
+     * @throws DeserializationException
+     *             if there is no such column or the input is malformed
+     * @throws IOException
+     *             if the underlying reader throws it
+     * @see #readInts()
+     */
+    public int[] readInts(String name) throws IOException
+    {
+        seek(name);
+        return readInts();
+    }
+
+    /**
+     * Skips all columns up to the given one and reads it into a long array.
+     * 
+     * @param name
+     *            the column's name
+     * @return the column's values
+     * @throws IllegalStateException
+     *             if the column was already passed
+     * @throws DeserializationException
+     *             if there is no such column or the input is malformed
+     * @throws IOException
+     *             if the underlying reader throws it
+     * @see #readLongs()
+     */
+    public long[] readLongs(String name) throws IOException
+    {
+        seek(name);
+        return readLongs();
+    }
+
+    /**
+     * Skips all columns up to the given one and reads it into a double array.
+     * 
+     * @param name
+     *            the column's name
+     * @return the column's values
+     * @throws IllegalStateException
+     *             if the column was already passed
+     * @throws DeserializationException
+     *             if there is no such column or the input is malformed
+     * @throws IOException
+     *             if the underlying reader throws it
+     * @see #readDoubles()
+     */
+    public double[] readDoubles(String name) throws IOException
+    {
+        seek(name);
+        return readDoubles();
+    }
+
+    /**
+     * Skips all columns up to the given one and reads it into a boolean array.
+     * 
+     * @param name
+     *            the column's name
+     * @return the column's values
+     * @throws IllegalStateException
+     *             if the column was already passed
+     * @throws DeserializationException
+     *             if there is no such column or the input is malformed
+     * @throws IOException
+     *             if the underlying reader throws it
+     * @see #readBooleans()
+     */
+    public boolean[] readBooleans(String name) throws IOException
+    {
+        seek(name);
+        return readBooleans();
+    }
+
+    private void seek(String name) throws IOException
+    {
+        int index = getSchema().indexOf(name);
+        if (index < 0)
+            throw new DeserializationException("no column " + name); //$NON-NLS-1$
+        if (index < column || (index == column && !pending))
+            throw new IllegalStateException("column " + name + " was already passed"); //$NON-NLS-1$ //$NON-NLS-2$
+        while (column < index)
+        {
+            if (!nextColumn())
+                throw new DeserializationException("missing column " + name); //$NON-NLS-1$
+        }
+    }
+
+    private void read(Column c) throws IOException
+    {
+        if (!pending)
+            throw new IllegalStateException("not at an unread column"); //$NON-NLS-1$
+        pending = false;
+        nextField(false);
+        char encoding = parser.getTextLength() == 1 ? parser.getTextCharacters()[0] : 0;
+        int rows = readCount();
+        if (encoding == ColumnarSerializer.PLAIN)
+        {
+            c.allocate(rows, 0);
+            for (int row = 0; row < rows; ++row)
+            {
+                if (nextField(true) == PullDeserializer.NULL_FIELD)
+                    setNull(c, row);
+                else
+                    set(c, row);
+            }
+        }
+        else if (encoding == ColumnarSerializer.DICTIONARY)
+        {
+            int size = readCount();
+            c.allocate(rows, size);
+            for (int entry = 0; entry < size; ++entry)
+            {
+                nextField(false);
+                try
+                {
+                    c.define(entry, parser.getTextCharacters(), 0, parser.getTextLength());
+                }
+                catch (IllegalArgumentException e)
+                {
+                    // includes NumberFormatException
+                    throw invalid("dictionary entry " + entry, e); //$NON-NLS-1$
+                }
+            }
+            for (int row = 0; row < rows; ++row)
+            {
+                if (nextField(true) == PullDeserializer.NULL_FIELD)
+                {
+                    setNull(c, row);
+                }
+                else
+                {
+                    int entry = parseCount();
+                    if (entry >= size)
+                        throw invalid("row " + row, null); //$NON-NLS-1$
+                    c.use(row, entry);
+                }
+            }
+        }
+        else
+        {
+            throw invalid("encoding", null); //$NON-NLS-1$
+        }
+        if (parser.next() != PullDeserializer.END_OBJECT)
+            throw invalid("number of values", null); //$NON-NLS-1$
+    }
+
+    private void set(Column c, int row) throws IOException
+    {
+        try
+        {
+            c.set(row, parser.getTextCharacters(), 0, parser.getTextLength());
+        }
+        catch (IllegalArgumentException e)
+        {
+            // includes NumberFormatException
+            throw invalid("row " + row, e); //$NON-NLS-1$
+        }
+    }
+
+    private void setNull(Column c, int row) throws DeserializationException
+    {
+        if (!c.setNull(row))
+            throw invalid("row " + row + " (null)", null); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Advances to the column's next field.
+     * 
+     * @param nullable
+     *            whether the field may be null
+     */
+    private int nextField(boolean nullable) throws IOException
+    {
+        int event = parser.next();
+        if (event == PullDeserializer.FIELD || (nullable && event == PullDeserializer.NULL_FIELD))
+            return event;
+        throw invalid("field " + parser.getFieldIndex(), null); //$NON-NLS-1$
+    }
+
+    private int readCount() throws IOException
+    {
+        nextField(false);
+        return parseCount();
+    }
+
+    private int parseCount() throws IOException
+    {
+        try
+        {
+            int count = CharParser.parseInt(parser.getTextCharacters(), 0, parser.getTextLength());
+            if (count >= 0)
+                return count;
+        }
+        catch (NumberFormatException e)
+        {
+            // handled below
+        }
+        throw invalid("count " + parser.getText(), null); //$NON-NLS-1$
+    }
+
+    private DeserializationException invalid(String what, Throwable cause)
+    {
+        String message = "invalid " + what + " in column " + getColumnName(); //$NON-NLS-1$ //$NON-NLS-2$
+        return cause != null ? new DeserializationException(message, cause) : new DeserializationException(message);
+    }
+
+    /**
+     * Closes the underlying {@link Reader}, if any.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        parser.close();
+    }
+
+    /**
+     * Collects the values of a column.
+     */
+    private static abstract class Column
+    {
+        abstract void allocate(int rows, int dictionarySize);
+
+        abstract void set(int row, char[] chars, int offset, int length);
+
+        /**
+         * @return false if the column cannot hold null values
+         */
+        boolean setNull(int row)
+        {
+            return false;
+        }
+
+        abstract void define(int entry, char[] chars, int offset, int length);
+
+        abstract void use(int row, int entry);
+    }
+
+    private static final class StringColumn extends Column
+    {
+        String[] values;
+        String[] dictionary;
+
+        @Override
+        void allocate(int rows, int dictionarySize)
+        {
+            values = new String[rows];
+            dictionary = new String[dictionarySize];
+        }
+
+        @Override
+        void set(int row, char[] chars, int offset, int length)
+        {
+            values[row] = new String(chars, offset, length);
+        }
+
+        @Override
+        boolean setNull(int row)
+        {
+            return true;
+        }
+
+        @Override
+        void define(int entry, char[] chars, int offset, int length)
+        {
+            dictionary[entry] = new String(chars, offset, length);
+        }
+
+        @Override
+        void use(int row, int entry)
+        {
+            // all rows share the entry's String
+            values[row] = dictionary[entry];
+        }
+    }
+
+    private static final class IntColumn extends Column
+    {
+        int[] values;
+        int[] dictionary;
+
+        @Override
+        void allocate(int rows, int dictionarySize)
+        {
+            values = new int[rows];
+            dictionary = new int[dictionarySize];
+        }
+
+        @Override
+        void set(int row, char[] chars, int offset, int length)
+        {
+            values[row] = CharParser.parseInt(chars, offset, length);
+        }
+
+        @Override
+        void define(int entry, char[] chars, int offset, int length)
+        {
+            dictionary[entry] = CharParser.parseInt(chars, offset, length);
+        }
+
+        @Override
+        void use(int row, int entry)
+        {
+            values[row] = dictionary[entry];
+        }
+    }
+
+    private static final class LongColumn extends Column
+    {
+        long[] values;
+        long[] dictionary;
+
+        @Override
+        void allocate(int rows, int dictionarySize)
+        {
+            values = new long[rows];
+            dictionary = new long[dictionarySize];
+        }
+
+        @Override
+        void set(int row, char[] chars, int offset, int length)
+        {
+            values[row] = CharParser.parseLong(chars, offset, length);
+        }
+
+        @Override
+        void define(int entry, char[] chars, int offset, int length)
+        {
+            dictionary[entry] = CharParser.parseLong(chars, offset, length);
+        }
+
+        @Override
+        void use(int row, int entry)
+        {
+            values[row] = dictionary[entry];
+        }
+    }
+
+    private static final class DoubleColumn extends Column
+    {
+        double[] values;
+        double[] dictionary;
+
+        @Override
+        void allocate(int rows, int dictionarySize)
+        {
+            values = new double[rows];
+            dictionary = new double[dictionarySize];
+        }
+
+        @Override
+        void set(int row, char[] chars, int offset, int length)
+        {
+            values[row] = CharParser.parseDouble(chars, offset, length);
+        }
+
+        @Override
+        void define(int entry, char[] chars, int offset, int length)
+        {
+            dictionary[entry] = CharParser.parseDouble(chars, offset, length);
+        }
+
+        @Override
+        void use(int row, int entry)
+        {
+            values[row] = dictionary[entry];
+        }
+    }
+
+    private static final class BooleanColumn extends Column
+    {
+        boolean[] values;
+        boolean[] dictionary;
+
+        @Override
+        void allocate(int rows, int dictionarySize)
+        {
+            values = new boolean[rows];
+            dictionary = new boolean[dictionarySize];
+        }
+
+        @Override
+        void set(int row, char[] chars, int offset, int length)
+        {
+            values[row] = CharParser.parseBoolean(chars, offset, length);
+        }
+
+        @Override
+        void define(int entry, char[] chars, int offset, int length)
+        {
+            dictionary[entry] = CharParser.parseBoolean(chars, offset, length);
+        }
+
+        @Override
+        void use(int row, int entry)
+        {
+            values[row] = dictionary[entry];
+        }
+    }
+}
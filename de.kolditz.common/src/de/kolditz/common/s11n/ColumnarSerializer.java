@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 16:02:18
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A light-weight serializer for collections of objects of one class, which writes the array transposed: first all
+ * values of the first field, then all values of the second field, and so on. Each column is written as one object
+ * behind a columnar {@link Schema} header:
+ * 
+ * <pre>
+ * {\#C,1,name,status}[{P,3,Alice,Bob,Carol},{D,3,2,OK,FAILED,0,1,0}]
+ * </pre>
+ * 
+ * A column starts with its encoding and its number of rows:
+ * <ul>
+ * <li><code>P</code>: the plain values follow</li>
+ * <li><code>D</code>: the dictionary size, the distinct values and then the dictionary index of each row follow. Used
+ * for non-primitive columns with at most half as many distinct values as rows, e.g. status codes.</li>
+ * </ul>
+ * Null values are written as {@link #NULL}, just like in the row layout of the {@link ArraySerializer}. The
+ * {@link ColumnarDeserializer} reads single columns into primitive arrays and skips the others.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public abstract class ColumnarSerializer extends DeSerializer
+{
+    /**
+     * The encoding of a column whose values follow directly.
+     */
+    static final char PLAIN = 'P';
+
+    /**
+     * The encoding of a dictionary encoded column.
+     */
+    static final char DICTIONARY = 'D';
+
+    /**
+     * Serializes the public fields of the given objects column by column.
+     * 
+     * @param clazz
+     *            the objects' class, whose fields are serialized
+     * @param version
+     *            the client's version of the schema
+     * @param objects
+     *            the objects
+     * @return the serialization string
+     */
+    public static <T> String serialize(Class<T> clazz, int version, Collection<? extends T> objects)
+    {
+        StringBuilder sb = new StringBuilder();
+        try
+        {
+            serialize(sb, clazz, version, objects);
+        }
+        catch (IOException e)
+        {
+            // a StringBuilder does not throw
+            throw new IllegalStateException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Serializes the public fields of the given objects column by column to the given {@link Appendable}.
+     * 
+     * @param out
+     *            the target
+     * @param clazz
+     *            the objects' class, whose fields are serialized
+     * @param version
+     *            the client's version of the schema
+     * @param objects
+     *            the objects
+     * @throws IOException
+     *             if the {@link Appendable} throws it
+     */
+    public static <T> void serialize(Appendable out, Class<T> clazz, int version, Collection<? extends T> objects)
+            throws IOException
+    {
+        FieldAccessor[] accessors = FieldAccessor.forClass(clazz);
+        Object[] rows = objects.toArray();
+        Schema.forClass(clazz, version).toColumnar().write(out);
+        out.append(ARRAY_BEGIN);
+        for (int i = 0; i < accessors.length; ++i)
+        {
+            if (i > 0)
+                out.append(SEPARATOR);
+            if (accessors[i].getType().isPrimitive())
+                writePlain(out, accessors[i], rows);
+            else
+                writeColumn(out, values(accessors[i], rows));
+        }
+        out.append(ARRAY_END);
+    }
+
+    /**
+     * Serializes the given rows of string fields column by column to the given {@link Appendable}.
+     * 
+     * @param out
+     *            the target
+     * @param schema
+     *            the schema naming the fields
+     * @param rows
+     *            the rows, each with {@link Schema#getFieldCount()} fields
+     * @throws IOException
+     *             if the {@link Appendable} throws it
+     */
+    public static void serialize(Appendable out, Schema schema, Collection<String[]> rows) throws IOException
+    {
+        String[][] table = rows.toArray(new String[rows.size()][]);
+        int columns = schema.getFieldCount();
+        String[] values = new String[table.length];
+        schema.toColumnar().write(out);
+        out.append(ARRAY_BEGIN);
+        for (int i = 0; i < columns; ++i)
+        {
+            if (i > 0)
+                out.append(SEPARATOR);
+            for (int row = 0; row < table.length; ++row)
+            {
+                values[row] = i < table[row].length ? table[row][i] : null;
+            }
+            writeColumn(out, values);
+        }
+        out.append(ARRAY_END);
+    }
+
+    private static void writePlain(Appendable out, FieldAccessor accessor, Object[] rows) throws IOException
+    {
+        out.append(OBJECT_BEGIN).append(PLAIN).append(SEPARATOR).append(Integer.toString(rows.length));
+        for (Object row : rows)
+        {
+            out.append(SEPARATOR);
+            try
+            {
+                accessor.append(out, row);
+            }
+            catch (IllegalAccessException e)
+            {
+                // print, write null and proceed, so that the following rows keep their positions
+                e.printStackTrace();
+                out.append(NULL);
+            }
+        }
+        out.append(OBJECT_END);
+    }
+
+    private static String[] values(FieldAccessor accessor, Object[] rows)
+    {
+        String[] values = new String[rows.length];
+        for (int i = 0; i < rows.length; ++i)
+        {
+            try
+            {
+                values[i] = accessor.getString(rows[i]);
+            }
+            catch (IllegalAccessException e)
+            {
+                // print and proceed with null
+                e.printStackTrace();
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Writes a column of string values, dictionary encoded if there are at most half as many distinct values as rows.
+     */
+    private static void writeColumn(Appendable out, String[] values) throws IOException
+    {
+        int maxSize = values.length / 2;
+        Map<String, Integer> dictionary = new HashMap<String, Integer>();
+        String[] entries = new String[maxSize];
+        for (String value : values)
+        {
+            if (value != null && !dictionary.containsKey(value))
+            {
+                if (dictionary.size() == maxSize)
+                {
+                    dictionary = null;
+                    break;
+                }
+                entries[dictionary.size()] = value;
+                dictionary.put(value, Integer.valueOf(dictionary.size()));
+            }
+        }
+        out.append(OBJECT_BEGIN);
+        if (dictionary == null)
+        {
+            out.append(PLAIN).append(SEPARATOR).append(Integer.toString(values.length));
+            for (String value : values)
+            {
+                out.append(SEPARATOR);
+                escape(value, out);
+            }
+        }
+        else
+        {
+            int size = dictionary.size();
+            out.append(DICTIONARY).append(SEPARATOR).append(Integer.toString(values.length));
+            out.append(SEPARATOR).append(Integer.toString(size));
+            for (int i = 0; i < size; ++i)
+            {
+                out.append(SEPARATOR);
+                escape(entries[i], out);
+            }
+            for (String value : values)
+            {
+                out.append(SEPARATOR);
+                if (value == null)
+                    out.append(NULL);
+                else
+                    out.append(dictionary.get(value).toString());
+            }
+        }
+        out.append(OBJECT_END);
+    }
+}
@@ -12,6 +12,10 @@
  *******************************************************************************/
 package de.kolditz.common.s11n;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
 /**
  * Abstract base utility class for light-weight de-/serialization.
  * 
@@ -121,43 +125,171 @@ public abstract class DeSerializer
         return new String(chars, offset, count);
     }
 
+    /**
+     * The initial capacity of the {@link #scratch()} buffers.
+     */
+    private static final int SCRATCH_CAPACITY = 256;
+
+    /**
+     * {@link #scratch()} buffers which grew larger than this are not kept, so that a single huge field does not pin its
+     * memory for the thread's lifetime.
+     */
+    private static final int MAX_SCRATCH_CAPACITY = 1 << 16;
+
+    private static final ThreadLocal<StringBuilder> SCRATCH = new ThreadLocal<StringBuilder>()
+    {
+        @Override
+        protected StringBuilder initialValue()
+        {
+            return new StringBuilder(SCRATCH_CAPACITY);
+        }
+    };
+
+    /**
+     * Returns the current thread's empty scratch buffer. The buffer is reused by each call on the same thread, so
+     * clients must be done with it before calling any method which might use the scratch buffer itself, including
+     * {@link #escape(String)} and {@link #unescape(String)}.
+     * 
+     * @return the current thread's scratch buffer with a length of 0
+     */
+    protected static StringBuilder scratch()
+    {
+        StringBuilder sb = SCRATCH.get();
+        if (sb.capacity() > MAX_SCRATCH_CAPACITY)
+        {
+            sb = new StringBuilder(SCRATCH_CAPACITY);
+            SCRATCH.set(sb);
+        }
+        sb.setLength(0);
+        return sb;
+    }
+
     /**
      * Escapes the occurences of special characters like '{', '[', ']', or '}'.
      * 
      * @param unescaped
      *            an unescaped string
-     * @return the escaped string
+     * @return the escaped string, possibly the string itself
      */
     protected static String escape(String unescaped)
     {
         if (unescaped == null)
             return NULL;
-        StringBuilder sb = null;
-        int codePoint;
         int length = unescaped.length();
         for (int i = 0; i < length; ++i)
         {
-            codePoint = unescaped.codePointAt(i);
-            if (codePoint == ARRAY_BEGIN || codePoint == ARRAY_END || codePoint == OBJECT_BEGIN
-                    || codePoint == OBJECT_END || codePoint == SEPARATOR || codePoint == BACKSLASH)
+            if (DelimiterScanner.isSpecial(unescaped.charAt(i)))
+                return escape(unescaped, scratch()).toString();
+        }
+        return unescaped;
+    }
+
+    /**
+     * Appends the escaped form of the given string to the given StringBuilder without any intermediate objects. Runs
+     * of ordinary characters are appended in bulk. Since all special characters are ASCII, surrogate pairs need no
+     * special treatment.
+     * 
+     * @param unescaped
+     *            an unescaped string, or null
+     * @param target
+     *            the StringBuilder to append to
+     * @return the target
+     */
+    public static StringBuilder escape(CharSequence unescaped, StringBuilder target)
+    {
+        if (unescaped == null)
+            return target.append(NULL);
+        int length = unescaped.length();
+        int start = 0;
+        char c;
+        for (int i = 0; i < length; ++i)
+        {
+            c = unescaped.charAt(i);
+            if (DelimiterScanner.isSpecial(c))
             {
-                // lazy initialization on first occurence
-                if (sb == null)
-                    sb = new StringBuilder(i > 0 ? unescaped.subSequence(0, i) : "");
-                sb.append(BACKSLASH).append(codePoint);
+                target.append(unescaped, start, i).append((char) BACKSLASH).append(c);
+                start = i + 1;
             }
-            else
+        }
+        return target.append(unescaped, start, length);
+    }
+
+    /**
+     * Appends the escaped form of the given string to the given {@link Appendable}. Strings appended to a
+     * {@link Writer} are written without creating substrings.
+     * 
+     * @param unescaped
+     *            an unescaped string, or null
+     * @param out
+     *            the target
+     * @throws IOException
+     *             if the {@link Appendable} throws it
+     * @see #escape(CharSequence, StringBuilder)
+     */
+    public static void escape(CharSequence unescaped, Appendable out) throws IOException
+    {
+        if (out instanceof StringBuilder)
+        {
+            escape(unescaped, (StringBuilder) out);
+            return;
+        }
+        if (unescaped == null)
+        {
+            out.append(NULL);
+            return;
+        }
+        int length = unescaped.length();
+        int start = 0;
+        char c;
+        for (int i = 0; i < length; ++i)
+        {
+            c = unescaped.charAt(i);
+            if (DelimiterScanner.isSpecial(c))
             {
-                if (sb != null)
-                {
-                    char[] chars = Character.toChars(codePoint);
-                    sb.append(chars);
-                    if (chars.length > 1)
-                        ++i; // skip one index if it's a 32-bit unicode char
-                }
+                append(out, unescaped, start, i);
+                out.append((char) BACKSLASH).append(c);
+                start = i + 1;
             }
         }
-        return sb == null ? unescaped : sb.toString();
+        append(out, unescaped, start, length);
+    }
+
+    private static void append(Appendable out, CharSequence s, int start, int end) throws IOException
+    {
+        if (start == end)
+            return;
+        // Writer.append(CharSequence, int, int) would create a substring
+        if (out instanceof Writer && s instanceof String)
+            ((Writer) out).write((String) s, start, end - start);
+        else
+            out.append(s, start, end);
+    }
+
+    /**
+     * Puts the escaped form of the given string into the given {@link CharBuffer}.
+     * 
+     * @param unescaped
+     *            an unescaped string, or null
+     * @param target
+     *            the buffer to put the characters into
+     * @return the target
+     * @throws java.nio.BufferOverflowException
+     *             if the buffer has not enough space left
+     */
+    public static CharBuffer escape(CharSequence unescaped, CharBuffer target)
+    {
+        if (unescaped == null)
+            return target.put(NULL);
+        int length = unescaped.length();
+        char c;
+        for (int i = 0; i < length; ++i)
+        {
+            c = unescaped.charAt(i);
+            if (DelimiterScanner.isSpecial(c))
+                target.put((char) BACKSLASH);
+            target.put(c);
+        }
+        return target;
     }
 
     /**
@@ -170,37 +302,100 @@ public abstract class DeSerializer
      */
     protected static String unescape(String escaped)
     {
-        int pos = escaped.indexOf(BACKSLASH);
-        if (pos == -1)
+        if (escaped.indexOf(BACKSLASH) == -1)
             return escaped;
-        if (pos == escaped.length() - 1)
-            return escaped.substring(0, escaped.length() - 1);
-        if (escaped.equals(NULL))
+        StringBuilder sb = scratch();
+        if (!unescape(escaped, 0, escaped.length(), sb))
             return null;
-        StringBuilder sb = new StringBuilder();
-        int character;
-        int oldPos = 0;
-        do
+        return sb.toString();
+    }
+
+    /**
+     * Appends the unescaped form of the given range to the given StringBuilder without any intermediate objects. Like
+     * {@link #unescape(String)}, a backslash followed by an ordinary character is dropped together with that character.
+     * 
+     * @param escaped
+     *            a string which potentially contains escaped sequences
+     * @param start
+     *            the range's first index
+     * @param end
+     *            the range's end index (exclusive)
+     * @param target
+     *            the StringBuilder to append to
+     * @return false if the range is an escaped null string, in which case nothing was appended
+     */
+    public static boolean unescape(CharSequence escaped, int start, int end, StringBuilder target)
+    {
+        if (isNull(escaped, start, end))
+            return false;
+        int run = start;
+        char c;
+        for (int i = start; i < end; ++i)
         {
-            if (oldPos < pos)
-                sb.append(escaped.substring(oldPos, pos));
-            character = escaped.codePointAt(++pos); // get the code point after the backslash
-            switch (character)
+            if (escaped.charAt(i) == BACKSLASH)
             {
-                case ARRAY_BEGIN:
-                case ARRAY_END:
-                case OBJECT_BEGIN:
-                case OBJECT_END:
-                case BACKSLASH:
-                case SEPARATOR:
-                    sb.append(character);
+                target.append(escaped, run, i);
+                if (++i < end)
+                {
+                    c = escaped.charAt(i);
+                    if (DelimiterScanner.isSpecial(c))
+                        target.append(c);
+                    else if (Character.isHighSurrogate(c) && i + 1 < end
+                            && Character.isLowSurrogate(escaped.charAt(i + 1)))
+                        ++i;
+                }
+                run = i + 1;
             }
-            pos += Character.charCount(character);
-            oldPos = pos;
-            pos = escaped.indexOf(BACKSLASH, pos);
         }
-        while (pos != -1);
-        return sb.toString();
+        if (run < end)
+            target.append(escaped, run, end);
+        return true;
+    }
+
+    /**
+     * Puts the unescaped form of the given range into the given {@link CharBuffer}.
+     * 
+     * @param escaped
+     *            a string which potentially contains escaped sequences
+     * @param start
+     *            the range's first index
+     * @param end
+     *            the range's end index (exclusive)
+     * @param target
+     *            the buffer to put the characters into
+     * @return false if the range is an escaped null string, in which case nothing was put
+     * @throws java.nio.BufferOverflowException
+     *             if the buffer has not enough space left
+     * @see #unescape(CharSequence, int, int, StringBuilder)
+     */
+    public static boolean unescape(CharSequence escaped, int start, int end, CharBuffer target)
+    {
+        if (isNull(escaped, start, end))
+            return false;
+        char c;
+        for (int i = start; i < end; ++i)
+        {
+            c = escaped.charAt(i);
+            if (c == BACKSLASH)
+            {
+                if (++i == end)
+                    break;
+                c = escaped.charAt(i);
+                if (!DelimiterScanner.isSpecial(c))
+                {
+                    if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(escaped.charAt(i + 1)))
+                        ++i;
+                    continue;
+                }
+            }
+            target.put(c);
+        }
+        return true;
+    }
+
+    private static boolean isNull(CharSequence escaped, int start, int end)
+    {
+        return end - start == 2 && escaped.charAt(start) == BACKSLASH && escaped.charAt(start + 1) == '0';
     }
 
     public static boolean hasLargeUnicodeChars(String s)
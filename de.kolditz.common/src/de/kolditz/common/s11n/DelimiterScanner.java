@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 14:51:06
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fast scanning for the special characters of the s11n format, i.e. {@link DeSerializer#ARRAY_BEGIN},
+ * {@link DeSerializer#ARRAY_END}, {@link DeSerializer#OBJECT_BEGIN}, {@link DeSerializer#OBJECT_END},
+ * {@link DeSerializer#SEPARATOR} and {@link DeSerializer#BACKSLASH}. Unlike {@link DeSerializer#search(int[], int,
+ * int, int[])}, it works on the raw char or UTF-8 byte data and does not compare each character against each
+ * delimiter:
+ * <ul>
+ * <li>char and byte arrays are scanned with a lookup table, four characters per loop iteration</li>
+ * <li>{@link ByteBuffer}s are scanned eight bytes per step by SWAR (SIMD within a register) bit tricks</li>
+ * </ul>
+ * All special characters are ASCII. Hence, neither the chars of a surrogate pair nor the bytes of a multi-byte UTF-8
+ * sequence can ever match one of them, and no code point decoding is necessary at all.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+final class DelimiterScanner
+{
+    private DelimiterScanner()
+    {
+    }
+
+    private static final boolean[] SPECIAL = new boolean[128];
+
+    static
+    {
+        SPECIAL[DeSerializer.ARRAY_BEGIN] = true;
+        SPECIAL[DeSerializer.ARRAY_END] = true;
+        SPECIAL[DeSerializer.OBJECT_BEGIN] = true;
+        SPECIAL[DeSerializer.OBJECT_END] = true;
+        SPECIAL[DeSerializer.SEPARATOR] = true;
+        SPECIAL[DeSerializer.BACKSLASH] = true;
+    }
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW7 = 0x7F7F7F7F7F7F7F7FL;
+    private static final long HIGH = ~LOW7;
+
+    private static final long ARRAY_BEGIN_BYTES = ONES * DeSerializer.ARRAY_BEGIN;
+    private static final long ARRAY_END_BYTES = ONES * DeSerializer.ARRAY_END;
+    private static final long OBJECT_BEGIN_BYTES = ONES * DeSerializer.OBJECT_BEGIN;
+    private static final long OBJECT_END_BYTES = ONES * DeSerializer.OBJECT_END;
+    private static final long SEPARATOR_BYTES = ONES * DeSerializer.SEPARATOR;
+    private static final long BACKSLASH_BYTES = ONES * DeSerializer.BACKSLASH;
+
+    /**
+     * @return whether the given character is one of the special characters
+     */
+    static boolean isSpecial(int c)
+    {
+        return c >= 0 && c < 128 && SPECIAL[c];
+    }
+
+    /**
+     * Returns the index of the first special character in the given range.
+     * 
+     * @param chars
+     *            the characters to scan
+     * @param from
+     *            the first index to scan
+     * @param to
+     *            the index after the last one to scan
+     * @return the index of the first special character, or <code>to</code> if there is none
+     */
+    static int indexOf(char[] chars, int from, int to)
+    {
+        final boolean[] special = SPECIAL;
+        int i = from;
+        int c0, c1, c2, c3;
+        for (int end = to - 3; i < end; i += 4)
+        {
+            c0 = chars[i];
+            c1 = chars[i + 1];
+            c2 = chars[i + 2];
+            c3 = chars[i + 3];
+            // the common case: none of the four characters is special
+            if ((c0 >= 128 || !special[c0]) && (c1 >= 128 || !special[c1]) && (c2 >= 128 || !special[c2])
+                    && (c3 >= 128 || !special[c3]))
+                continue;
+            break;
+        }
+        for (; i < to; ++i)
+        {
+            c0 = chars[i];
+            if (c0 < 128 && special[c0])
+                return i;
+        }
+        return to;
+    }
+
+    /**
+     * Returns the index of the first special character in the given range of UTF-8 encoded bytes.
+     * 
+     * @param bytes
+     *            the UTF-8 encoded bytes to scan
+     * @param from
+     *            the first index to scan
+     * @param to
+     *            the index after the last one to scan
+     * @return the index of the first special character, or <code>to</code> if there is none
+     */
+    static int indexOf(byte[] bytes, int from, int to)
+    {
+        final boolean[] special = SPECIAL;
+        int i = from;
+        int b0, b1, b2, b3;
+        for (int end = to - 3; i < end; i += 4)
+        {
+            // bytes of multi-byte sequences are negative
+            b0 = bytes[i];
+            b1 = bytes[i + 1];
+            b2 = bytes[i + 2];
+            b3 = bytes[i + 3];
+            if ((b0 < 0 || !special[b0]) && (b1 < 0 || !special[b1]) && (b2 < 0 || !special[b2])
+                    && (b3 < 0 || !special[b3]))
+                continue;
+            break;
+        }
+        for (; i < to; ++i)
+        {
+            b0 = bytes[i];
+            if (b0 >= 0 && special[b0])
+                return i;
+        }
+        return to;
+    }
+
+    /**
+     * Returns the absolute index of the first special character in the given range of UTF-8 encoded bytes. Scans eight
+     * bytes per step using {@link ByteBuffer#getLong(int)}, which is especially cheap for direct and memory-mapped
+     * buffers. Does not modify the buffer's position, limit or byte order.
+     * 
+     * @param buffer
+     *            the UTF-8 encoded bytes to scan
+     * @param from
+     *            the first absolute index to scan
+     * @param to
+     *            the absolute index after the last one to scan
+     * @return the index of the first special character, or <code>to</code> if there is none
+     */
+    static int indexOf(ByteBuffer buffer, int from, int to)
+    {
+        boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+        int i = from;
+        long word, mask;
+        for (int end = to - 7; i < end; i += 8)
+        {
+            word = buffer.getLong(i);
+            mask = zeroBytes(word ^ ARRAY_BEGIN_BYTES) | zeroBytes(word ^ ARRAY_END_BYTES)
+                    | zeroBytes(word ^ OBJECT_BEGIN_BYTES) | zeroBytes(word ^ OBJECT_END_BYTES)
+                    | zeroBytes(word ^ SEPARATOR_BYTES) | zeroBytes(word ^ BACKSLASH_BYTES);
+            if (mask != 0)
+            {
+                // the byte at the lowest index is the most significant one in big endian order
+                return i + ((bigEndian ? Long.numberOfLeadingZeros(mask) : Long.numberOfTrailingZeros(mask)) >>> 3);
+            }
+        }
+        int b;
+        for (; i < to; ++i)
+        {
+            b = buffer.get(i);
+            if (b >= 0 && SPECIAL[b])
+                return i;
+        }
+        return to;
+    }
+
+    /**
+     * Checks whether the given range of bytes is pure ASCII, eight bytes per step. Does not modify the buffer's
+     * position, limit or byte order.
+     * 
+     * @param buffer
+     *            the UTF-8 encoded bytes to check
+     * @param from
+     *            the first absolute index to check
+     * @param to
+     *            the absolute index after the last one to check
+     * @return true if none of the bytes has its high bit set
+     */
+    static boolean isAscii(ByteBuffer buffer, int from, int to)
+    {
+        int i = from;
+        for (int end = to - 7; i < end; i += 8)
+        {
+            if ((buffer.getLong(i) & HIGH) != 0)
+                return false;
+        }
+        for (; i < to; ++i)
+        {
+            if (buffer.get(i) < 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns a word which has the high bit set in exactly those bytes which are zero in the given word. Unlike the
+     * well-known <code>(v - 0x01..) & ~v & 0x80..</code> trick, this variant cannot produce false positives due to
+     * borrows, so the first set bit is always exact.
+     */
+    private static long zeroBytes(long v)
+    {
+        return ~(((v & LOW7) + LOW7) | v | LOW7);
+    }
+}
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 09:12:37
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+import java.io.IOException;
+
+/**
+ * Signals that a serialized stream could not be parsed because it is malformed or ends prematurely.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public class DeserializationException extends IOException
+{
+    /**
+     * 
+     */
+    private static final long serialVersionUID = -3188213546412087815L;
+
+    public DeserializationException(String message)
+    {
+        super(message);
+    }
+
+    public DeserializationException(String message, Throwable cause)
+    {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,501 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 20:03:44
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+import de.kolditz.common.concurrent.Scheduler;
+
+/**
+ * Deserializes a whole array, which was serialized by an {@link ArraySerializer} or a {@link StreamingArraySerializer},
+ * in three concurrent stages:
+ * <ol>
+ * <li>a reader task cuts the input into batches of whole objects, without parsing their fields,</li>
+ * <li>each batch is deserialized by a task of its own on the worker pool, and</li>
+ * <li>consumers {@link #take() take} the results in array order.</li>
+ * </ol>
+ * Hence, consumers may process the first objects while the rest of the input is still read and parsed. The stages
+ * are joined with backpressure: at most <code>maxInFlight</code> batches are read but not yet consumed, so the reader
+ * stops reading while consumers are slow, and the memory used is bounded independent of the input's size. All tasks
+ * run on the {@link Scheduler} by default. A consumer whose next batch was not started by the pool yet deserializes it
+ * on its own thread, and a consumer which finds no batch while the pool has not started the reader task yet reads the
+ * input itself until the next batch is complete. Hence, consumers may be tasks of the same pool, even if it has no
+ * other thread left. Such a consumer blocks while the reader has no input available, even if the pipeline is closed.
+ * <p>
+ * Typical usage:
+ * 
+ * <pre>
+ * DeserializationPipeline&lt;Record&gt; pipeline = DeserializationPipeline.start(reader, Record.class);
+ * try
+ * {
+ *     Record record;
+ *     while ((record = pipeline.take()) != null)
+ *     {
+ *         // process record
+ *     }
+ * }
+ * finally
+ * {
+ *     pipeline.close();
+ * }
+ * </pre>
+ * 
+ * </p>
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public final class DeserializationPipeline<T> implements Closeable
+{
+    /**
+     * The default number of objects per batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    /**
+     * The default maximum number of batches which were read but not yet consumed.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 2 * Runtime.getRuntime().availableProcessors();
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Starts deserializing the objects' fields from the given reader on the {@link Scheduler}.
+     * 
+     * @param reader
+     *            the reader providing the escaped serialization string, which is closed by {@link #close()}
+     * @return the started pipeline
+     */
+    public static DeserializationPipeline<String[]> start(Reader reader)
+    {
+        return start(reader, ArrayDeserializer.SCHEDULER, DEFAULT_BATCH_SIZE, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Starts deserializing the objects' fields from the given reader.
+     * 
+     * @param reader
+     *            the reader providing the escaped serialization string, which is closed by {@link #close()}
+     * @param executor
+     *            the executor running the reader and the batches
+     * @param batchSize
+     *            the number of objects per batch
+     * @param maxInFlight
+     *            the maximum number of batches which were read but not yet consumed
+     * @return the started pipeline
+     */
+    public static DeserializationPipeline<String[]> start(Reader reader, Executor executor, int batchSize,
+            int maxInFlight)
+    {
+        return new DeserializationPipeline<String[]>(reader, ArrayDeserializer.FIELDS, executor, batchSize,
+                maxInFlight);
+    }
+
+    /**
+     * Starts deserializing the objects from the given reader into new instances of the given class on the
+     * {@link Scheduler}. If the input has a {@link Schema} header, the fields are bound by name.
+     * 
+     * @param reader
+     *            the reader providing the escaped serialization string, which is closed by {@link #close()}
+     * @param clazz
+     *            the class to instantiate, which needs a no-argument constructor
+     * @return the started pipeline
+     */
+    public static <T> DeserializationPipeline<T> start(Reader reader, Class<T> clazz)
+    {
+        return start(reader, clazz, ArrayDeserializer.SCHEDULER, DEFAULT_BATCH_SIZE, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Starts deserializing the objects from the given reader into new instances of the given class. If the input has a
+     * {@link Schema} header, the fields are bound by name.
+     * 
+     * @param reader
+     *            the reader providing the escaped serialization string, which is closed by {@link #close()}
+     * @param clazz
+     *            the class to instantiate, which needs a no-argument constructor
+     * @param executor
+     *            the executor running the reader and the batches
+     * @param batchSize
+     *            the number of objects per batch
+     * @param maxInFlight
+     *            the maximum number of batches which were read but not yet consumed
+     * @return the started pipeline
+     */
+    public static <T> DeserializationPipeline<T> start(Reader reader, Class<T> clazz, Executor executor,
+            int batchSize, int maxInFlight)
+    {
+        return new DeserializationPipeline<T>(reader, ArrayDeserializer.objects(clazz), executor, batchSize,
+                maxInFlight);
+    }
+
+    private final Reader reader;
+    private final ArrayDeserializer.ChunkReader<T> chunkReader;
+    private final Executor executor;
+    private final int batchSize;
+    /** Limits the batches which were read but not yet consumed. */
+    private final Semaphore permits;
+    /** The batches in array order, followed by {@link #end}. */
+    private final BlockingQueue<Batch<T>> batches = new LinkedBlockingQueue<Batch<T>>();
+    private final Batch<T> end = new Batch<T>(new Callable<List<T>>()
+    {
+        @Override
+        public List<T> call()
+        {
+            return null;
+        }
+    }, false);
+    private final BatchReader batchReader = new BatchReader();
+    private final FutureTask<Void> readerTask;
+    /** Whether the executor started the {@link #readerTask}. */
+    private volatile boolean readerStarted = false;
+    private volatile boolean closed = false;
+
+    private final Object consumerLock = new Object();
+    /** The batch taken from {@link #batches} which is awaited, kept if the wait is interrupted. */
+    private Batch<T> next;
+    private List<T> current;
+    /** Whether the {@link #current} batch holds one of the {@link #permits}. */
+    private boolean permitted;
+    private int index;
+    private boolean done = false;
+
+    /**
+     * A batch of objects, which knows whether it holds one of the {@link DeserializationPipeline#permits}.
+     */
+    private static final class Batch<T> extends FutureTask<List<T>>
+    {
+        final boolean permit;
+
+        Batch(Callable<List<T>> callable, boolean permit)
+        {
+            super(callable);
+            this.permit = permit;
+        }
+    }
+
+    private DeserializationPipeline(Reader reader, ArrayDeserializer.ChunkReader<T> chunkReader, Executor executor,
+            int batchSize, int maxInFlight)
+    {
+        if (batchSize <= 0 || maxInFlight <= 0)
+            throw new IllegalArgumentException("batchSize and maxInFlight must be positive"); //$NON-NLS-1$
+        this.reader = reader;
+        this.chunkReader = chunkReader;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.permits = new Semaphore(maxInFlight);
+        readerTask = new FutureTask<Void>(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                readerStarted = true;
+                while (batchReader.read())
+                {
+                }
+            }
+        }, null);
+        executor.execute(readerTask);
+    }
+
+    /**
+     * Returns the next object in array order, waiting until it was deserialized.
+     * 
+     * @return the next object, or null when the end of the array was reached
+     * @throws DeserializationException
+     *             if the input is malformed or ends before the array is closed, or a field cannot be converted to its
+     *             type. The objects of the batch containing the malformed one are not returned.
+     * @throws IOException
+     *             if the reader throws it or the pipeline was closed
+     * @throws InterruptedException
+     *             if the current thread was interrupted while waiting. The next call continues with the same object.
+     */
+    public T take() throws IOException, InterruptedException
+    {
+        synchronized (consumerLock)
+        {
+            if (closed)
+                throw new IOException("pipeline closed"); //$NON-NLS-1$
+            while (current == null || index == current.size())
+            {
+                if (current != null)
+                {
+                    current = null;
+                    if (permitted)
+                        permits.release();
+                }
+                if (done)
+                    return null;
+                if (next == null)
+                {
+                    // reads the input on this thread while the executor did not start the reader task yet, e.g. since
+                    // this consumer occupies its last thread
+                    while (batches.isEmpty() && !readerStarted && batchReader.read())
+                    {
+                    }
+                    next = batches.take();
+                    if (next == end)
+                    {
+                        done = true;
+                        return null;
+                    }
+                }
+                current = await(next);
+                permitted = next.permit;
+                next = null;
+                index = 0;
+            }
+            // drops the reference, so consumed objects can be collected before the batch is complete
+            return current.set(index++, null);
+        }
+    }
+
+    private List<T> await(FutureTask<List<T>> batch) throws IOException, InterruptedException
+    {
+        if (!batch.isDone())
+        {
+            // does nothing if a worker started it already
+            batch.run();
+        }
+        try
+        {
+            return batch.get();
+        }
+        catch (CancellationException e)
+        {
+            // the pipeline was closed while this consumer was waiting
+            done = true;
+            return Collections.emptyList();
+        }
+        catch (ExecutionException e)
+        {
+            done = true;
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new DeserializationException(String.valueOf(cause), cause);
+        }
+    }
+
+    /**
+     * Cuts the input into batches of whole objects, one buffer per call of {@link #read()}, so the reading can move
+     * between the reader task and consumers. Since special characters within fields are always escaped, an unescaped
+     * {@link DeSerializer#OBJECT_END} ends an object.
+     */
+    private final class BatchReader
+    {
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private final StringBuilder prefix = new StringBuilder();
+        private final StringBuilder batch = new StringBuilder();
+        private Schema schema = null;
+        private boolean inArray = false;
+        private boolean inObject = false;
+        private boolean escaped = false;
+        private int depth = 0;
+        private int count = 0;
+        private int batchEnd = 0;
+        private boolean finished = false;
+
+        /**
+         * Reads and cuts the next buffer of input. At the end of the input or on a failure, the remaining objects, the
+         * failure and {@link DeserializationPipeline#end} are submitted.
+         * 
+         * @return true if there is more input to read
+         */
+        synchronized boolean read()
+        {
+            if (finished)
+                return false;
+            boolean more = false;
+            try
+            {
+                int length = reader.read(buffer);
+                if (length >= 0 && !cut(length))
+                {
+                    more = true;
+                    return true;
+                }
+                if (count > 0)
+                    submit(batch, batchEnd, schema);
+                if (length < 0)
+                    throw new DeserializationException(inArray ? "unexpected end of input before the array's end" //$NON-NLS-1$
+                            : "no array found"); //$NON-NLS-1$
+            }
+            catch (final Exception e)
+            {
+                if (!closed)
+                {
+                    Batch<T> failure = new Batch<T>(new Callable<List<T>>()
+                    {
+                        @Override
+                        public List<T> call() throws Exception
+                        {
+                            throw e;
+                        }
+                    }, false);
+                    failure.run();
+                    batches.add(failure);
+                }
+            }
+            finally
+            {
+                if (!more)
+                {
+                    finished = true;
+                    batches.add(end);
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Cuts the given number of characters of the buffer into batches.
+         * 
+         * @return true if the array ended
+         */
+        private boolean cut(int length) throws IOException, InterruptedException
+        {
+            for (int i = 0; i < length; ++i)
+            {
+                char c = buffer[i];
+                if (!inArray)
+                {
+                    prefix.append(c);
+                    if (escaped)
+                        escaped = false;
+                    else if (c == DeSerializer.BACKSLASH)
+                        escaped = true;
+                    else if (c == DeSerializer.OBJECT_BEGIN)
+                        ++depth;
+                    else if (c == DeSerializer.OBJECT_END)
+                        --depth;
+                    else if (c == DeSerializer.ARRAY_BEGIN && depth == 0)
+                    {
+                        schema = readSchema(prefix);
+                        inArray = true;
+                    }
+                }
+                else if (inObject)
+                {
+                    batch.append(c);
+                    if (escaped)
+                        escaped = false;
+                    else if (c == DeSerializer.BACKSLASH)
+                        escaped = true;
+                    else if (c == DeSerializer.OBJECT_END)
+                    {
+                        inObject = false;
+                        batchEnd = batch.length();
+                        if (++count == batchSize)
+                        {
+                            submit(batch, batchEnd, schema);
+                            count = 0;
+                        }
+                    }
+                }
+                else if (c == DeSerializer.ARRAY_END)
+                {
+                    return true;
+                }
+                else if (c == DeSerializer.OBJECT_BEGIN || count > 0)
+                {
+                    // the separators within a batch are checked by its parser
+                    inObject = c == DeSerializer.OBJECT_BEGIN;
+                    batch.append(c);
+                }
+                else if (c != DeSerializer.SEPARATOR && !Character.isWhitespace(c))
+                {
+                    throw new DeserializationException("unexpected character " + c + " between objects"); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+            }
+            return false;
+        }
+    }
+
+    private static Schema readSchema(StringBuilder prefix) throws IOException
+    {
+        prefix.append(DeSerializer.ARRAY_END);
+        PullDeserializer parser = new PullDeserializer(prefix);
+        parser.next();
+        Schema schema = parser.getSchema();
+        Schema.checkRows(schema);
+        return schema;
+    }
+
+    /**
+     * Submits the objects of the batch up to the given end and clears the batch. Characters after the end can only be
+     * separators or an incomplete object at the end of the input, and are dropped. Waits while the maximum number of
+     * batches is in flight, unless the reader runs on a consumer's thread.
+     */
+    private void submit(StringBuilder batch, int batchEnd, final Schema schema) throws InterruptedException
+    {
+        final String objects = batch.substring(0, batchEnd);
+        batch.setLength(0);
+        // a reader running within take() would wait for its own consumer
+        boolean permit = !Thread.holdsLock(consumerLock);
+        if (permit)
+            permits.acquire();
+        if (closed)
+            throw new InterruptedException();
+        Batch<T> task = new Batch<T>(new Callable<List<T>>()
+        {
+            @Override
+            public List<T> call() throws IOException
+            {
+                List<T> list = new ArrayList<T>(batchSize);
+                chunkReader.read(new PullDeserializer(objects, 0, objects.length(), schema), list);
+                return list;
+            }
+        }, permit);
+        batches.add(task);
+        executor.execute(task);
+    }
+
+    /**
+     * Stops the pipeline and closes the reader. Batches which were not started yet are cancelled. Further calls to
+     * {@link #take()} throw an {@link IOException}, or return null if they were waiting already.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        closed = true;
+        readerTask.cancel(true);
+        // unblocks the reader if it waits for a permit before noticing the interrupt
+        permits.release(batches.size() + 1);
+        Future<List<T>> batch;
+        while ((batch = batches.poll()) != null)
+        {
+            batch.cancel(false);
+        }
+        // wakes up waiting consumers, even if the reader task never ran
+        batches.add(end);
+        reader.close();
+    }
+}
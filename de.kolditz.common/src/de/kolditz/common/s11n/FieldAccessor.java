@@ -0,0 +1,616 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 11:21:45
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Pre-resolved, type-specialized access to one serializable field of a class. The serializable fields of a class are
+ * its non-static and non-transient public fields, in the order returned by {@link Class#getFields()}. They are
+ * resolved only once per class and cached, so serializing many objects of the same class does not repeat any
+ * reflective lookups. Primitive values are read without boxing and written without intermediate Strings, and are
+ * parsed directly from character buffers when binding deserialized fields.
+ * <p>
+ * The cache holds classes weakly and their accessors softly, so it does not keep bundles' class loaders alive.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+abstract class FieldAccessor extends DeSerializer
+{
+    private static final FieldAccessor[] NONE = new FieldAccessor[0];
+
+    private static final Map<Class<?>, SoftReference<FieldAccessor[]>> cache = Collections
+            .synchronizedMap(new WeakHashMap<Class<?>, SoftReference<FieldAccessor[]>>());
+
+    /**
+     * Returns the cached accessors of the given class' serializable fields, resolving them on first use.
+     * 
+     * @param clazz
+     *            the class
+     * @return the accessors in serialization order. Clients must not modify the returned array.
+     */
+    static FieldAccessor[] forClass(Class<?> clazz)
+    {
+        SoftReference<FieldAccessor[]> ref = cache.get(clazz);
+        FieldAccessor[] accessors = ref != null ? ref.get() : null;
+        if (accessors == null)
+        {
+            accessors = resolve(clazz);
+            cache.put(clazz, new SoftReference<FieldAccessor[]>(accessors));
+        }
+        return accessors;
+    }
+
+    private static FieldAccessor[] resolve(Class<?> clazz)
+    {
+        Field[] fields = clazz.getFields();
+        if (fields.length == 0)
+            return NONE;
+        List<FieldAccessor> list = new ArrayList<FieldAccessor>(fields.length);
+        for (Field f : fields)
+        {
+            int mod = f.getModifiers();
+            // non-static and non-transient fields
+            if ((mod & Modifier.STATIC) == 0 && (mod & Modifier.TRANSIENT) == 0)
+            {
+                try
+                {
+                    // skips the access checks on every get, and allows public fields of non-public classes
+                    f.setAccessible(true);
+                }
+                catch (SecurityException e)
+                {
+                    // proceed with access checks
+                }
+                list.add(create(f));
+            }
+        }
+        return list.toArray(new FieldAccessor[list.size()]);
+    }
+
+    private static FieldAccessor create(Field f)
+    {
+        Class<?> type = f.getType();
+        if (type == int.class)
+            return new IntAccessor(f);
+        if (type == long.class)
+            return new LongAccessor(f);
+        if (type == double.class)
+            return new DoubleAccessor(f);
+        if (type == boolean.class)
+            return new BooleanAccessor(f);
+        if (type == float.class)
+            return new FloatAccessor(f);
+        if (type == short.class)
+            return new ShortAccessor(f);
+        if (type == byte.class)
+            return new ByteAccessor(f);
+        if (type == char.class)
+            return new CharAccessor(f);
+        return new ObjectAccessor(f);
+    }
+
+    protected final Field field;
+
+    FieldAccessor(Field field)
+    {
+        this.field = field;
+    }
+
+    /**
+     * @return the field's name
+     */
+    String getName()
+    {
+        return field.getName();
+    }
+
+    /**
+     * @return the field's declared type
+     */
+    Class<?> getType()
+    {
+        return field.getType();
+    }
+
+    /**
+     * Returns the field's value as a string, which is null for null references.
+     * 
+     * @param object
+     *            the object whose field shall be read
+     * @return the unescaped string value
+     */
+    abstract String getString(Object object) throws IllegalAccessException;
+
+    /**
+     * Appends the escaped field value of the given object to the given StringBuilder.
+     * 
+     * @param sb
+     *            the target
+     * @param object
+     *            the object whose field shall be read
+     */
+    void append(StringBuilder sb, Object object) throws IllegalAccessException
+    {
+        escape(getString(object), sb);
+    }
+
+    /**
+     * Appends the escaped field value of the given object to the given {@link Appendable}.
+     * 
+     * @param out
+     *            the target
+     * @param object
+     *            the object whose field shall be read
+     */
+    void append(Appendable out, Object object) throws IOException, IllegalAccessException
+    {
+        escape(getString(object), out);
+    }
+
+    /**
+     * Sets the field of the given object to the value parsed from the given range of unescaped characters.
+     * 
+     * @param object
+     *            the object whose field shall be set
+     * @param chars
+     *            the character buffer
+     * @param offset
+     *            the value's start in the buffer
+     * @param length
+     *            the value's length
+     * @throws NumberFormatException
+     *             if a numeric value cannot be parsed
+     * @throws IllegalArgumentException
+     *             if the value cannot be converted to the field's type
+     */
+    abstract void set(Object object, char[] chars, int offset, int length) throws IllegalAccessException;
+
+    /**
+     * Like {@link #set(Object, char[], int, int)}, but String values are taken from the given table.
+     * 
+     * @param strings
+     *            the table sharing repeated values, or null
+     */
+    void set(Object object, char[] chars, int offset, int length, StringTable strings) throws IllegalAccessException
+    {
+        set(object, chars, offset, length);
+    }
+
+    /**
+     * Sets the field of the given object to null. Primitive fields keep their value.
+     * 
+     * @param object
+     *            the object whose field shall be set
+     */
+    void setNull(Object object) throws IllegalAccessException
+    {
+    }
+
+    /**
+     * The base class of the accessors of primitive fields, which append their values to a StringBuilder without
+     * creating a String. Any other {@link Appendable} receives the value formatted in the thread's
+     * {@link #scratch() scratch buffer}.
+     */
+    private abstract static class PrimitiveAccessor extends FieldAccessor
+    {
+        PrimitiveAccessor(Field field)
+        {
+            super(field);
+        }
+
+        @Override
+        abstract void append(StringBuilder sb, Object object) throws IllegalAccessException;
+
+        @Override
+        void append(Appendable out, Object object) throws IOException, IllegalAccessException
+        {
+            if (out instanceof StringBuilder)
+            {
+                append((StringBuilder) out, object);
+                return;
+            }
+            StringBuilder sb = scratch();
+            append(sb, object);
+            for (int i = 0, length = sb.length(); i < length; ++i)
+            {
+                out.append(sb.charAt(i));
+            }
+        }
+    }
+
+    private static final class IntAccessor extends PrimitiveAccessor
+    {
+        IntAccessor(Field field)
+        {
+            super(field);
+        }
+
+        @Override
+        String getString(Object object) throws IllegalAccessException
+        {
+            return Integer.toString(field.getInt(object));
+        }
+
+        @Override
+        void append(StringBuilder sb, Object object) throws IllegalAccessException
+        {
+            // numbers never need escaping
+            sb.append(field.getInt(object));
+        }
+
+        @Override
+        void set(Object object, char[] chars, int offset, int length) throws IllegalAccessException
+        {
+            field.setInt(object, CharParser.parseInt(chars, offset, length));
+        }
+    }
+
+    private static final class LongAccessor extends PrimitiveAccessor
+    {
+        LongAccessor(Field field)
+        {
+            super(field);
+        }
+
+        @Override
+        String getString(Object object) throws IllegalAccessException
+        {
+            return Long.toString(field.getLong(object));
+        }
+
+        @Override
+        void append(StringBuilder sb, Object object) throws IllegalAccessException
+        {
+            sb.append(field.getLong(object));
+        }
+
+        @Override
+        void set(Object object, char[] chars, int offset, int length) throws IllegalAccessException
+        {
+            field.setLong(object, CharParser.parseLong(chars, offset, length));
+        }
+    }
+
+    private static final class DoubleAccessor extends PrimitiveAccessor
+    {
+        DoubleAccessor(Field field)
+        {
+            super(field);
+        }
+
+        @Override
+        String getString(Object object) throws IllegalAccessException
+        {
+            return Double.toString(field.getDouble(object));
+        }
+
+        @Override
+        void append(StringBuilder sb, Object object) throws IllegalAccessException
+        {
+            sb.append(field.getDouble(object));
+        }
+
+        @Override
+        void set(Object object, char[] chars, int offset, int length) throws IllegalAccessException
+        {
+            field.setDouble(object, CharParser.parseDouble(chars, offset, length));
+        }
+    }
+
+    private static final class FloatAccessor extends PrimitiveAccessor
+    {
+        FloatAccessor(Field field)
+        {
+            super(field);
+        }
+
+        @Override
+        String getString(Object object) throws IllegalAccessException
+        {
+            return Float.toString(field.getFloat(object));
+        }
+
+        @Override
+        void append(StringBuilder sb, Object object) throws IllegalAccessException
+        {
+            sb.append(field.getFloat(object));
+        }
+
+        @Override
+        void set(Object object, char[] chars, int offset, int length) throws IllegalAccessException
+        {
+            // parsing as double first could round twice
+            field.setFloat(object, Float.parseFloat(new String(chars, offset, length)));
+        }
+    }
+
+    private static final class ShortAccessor extends PrimitiveAccessor
+    {
+        ShortAccessor(Field field)
+        {
+            super(field);
+        }
+
+        @Override
+        String getString(Object object) throws IllegalAccessException
+        {
+            return Short.toString(field.getShort(object));
+        }
+
+        @Override
+        void append(StringBuilder sb, Object object) throws IllegalAccessException
+        {
+            sb.append(field.getShort(object));
+        }
+
+        @Override
+        void set(Object object, char[] chars, int offset, int length) throws IllegalAccessException
+        {
+            int value = CharParser.parseInt(chars, offset, length);
+            if (value < Short.MIN_VALUE || value > Short.MAX_VALUE)
+                throw new NumberFormatException("Value out of range: " + value); //$NON-NLS-1$
+            field.setShort(object, (short) value);
+        }
+    }
+
+    private static final class ByteAccessor extends PrimitiveAccessor
+    {
+        ByteAccessor(Field field)
+        {
+            super(field);
+        }
+
+        @Override
+        String getString(Object object) throws IllegalAccessException
+        {
+            return Byte.toString(field.getByte(object));
+        }
+
+        @Override
+        void append(StringBuilder sb, Object object) throws IllegalAccessException
+        {
+            sb.append(field.getByte(object));
+        }
+
+        @Override
+        void set(Object object, char[] chars, int offset, int length) throws IllegalAccessException
+        {
+            int value = CharParser.parseInt(chars, offset, length);
+            if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE)
+                throw new NumberFormatException("Value out of range: " + value); //$NON-NLS-1$
+            field.setByte(object, (byte) value);
+        }
+    }
+
+    private static final class BooleanAccessor extends PrimitiveAccessor
+    {
+        BooleanAccessor(Field field)
+        {
+            super(field);
+        }
+
+        @Override
+        String getString(Object object) throws IllegalAccessException
+        {
+            return field.getBoolean(object) ? "true" : "false"; //$NON-NLS-1$ //$NON-NLS-2$
+        }
+
+        @Override
+        void append(StringBuilder sb, Object object) throws IllegalAccessException
+        {
+            sb.append(field.getBoolean(object));
+        }
+
+        @Override
+        void set(Object object, char[] chars, int offset, int length) throws IllegalAccessException
+        {
+            field.setBoolean(object, CharParser.parseBoolean(chars, offset, length));
+        }
+    }
+
+    private static final class CharAccessor extends PrimitiveAccessor
+    {
+        CharAccessor(Field field)
+        {
+            super(field);
+        }
+
+        @Override
+        String getString(Object object) throws IllegalAccessException
+        {
+            return String.valueOf(field.getChar(object));
+        }
+
+        @Override
+        void append(StringBuilder sb, Object object) throws IllegalAccessException
+        {
+            char c = field.getChar(object);
+            if (DelimiterScanner.isSpecial(c))
+                sb.append((char) BACKSLASH);
+            sb.append(c);
+        }
+
+        @Override
+        void set(Object object, char[] chars, int offset, int length) throws IllegalAccessException
+        {
+            if (length != 1)
+                throw new IllegalArgumentException("not a single character: " + new String(chars, offset, length)); //$NON-NLS-1$
+            field.setChar(object, chars[offset]);
+        }
+    }
+
+    private static final class ObjectAccessor extends FieldAccessor
+    {
+        private static final int STRING = 0;
+        private static final int INTEGER = 1;
+        private static final int LONG = 2;
+        private static final int DOUBLE = 3;
+        private static final int BOOLEAN = 4;
+        private static final int ENUM = 5;
+        private static final int VALUE_OF = 6;
+        private static final int CONSTRUCTOR = 7;
+        private static final int UNSUPPORTED = 8;
+
+        private final int kind;
+        private Method valueOf;
+        private Constructor<?> constructor;
+
+        ObjectAccessor(Field field)
+        {
+            super(field);
+            Class<?> type = field.getType();
+            if (type == String.class || type == Object.class || type == CharSequence.class)
+                kind = STRING;
+            else if (type == Integer.class)
+                kind = INTEGER;
+            else if (type == Long.class)
+                kind = LONG;
+            else if (type == Double.class)
+                kind = DOUBLE;
+            else if (type == Boolean.class)
+                kind = BOOLEAN;
+            else if (type.isEnum())
+                kind = ENUM;
+            else
+                kind = resolveConversion(type);
+        }
+
+        /**
+         * Looks for a static valueOf(String) method or a String constructor, just like e.g. {@link Short},
+         * {@link Float}, {@link java.math.BigDecimal} or {@link java.io.File} provide one.
+         */
+        private int resolveConversion(Class<?> type)
+        {
+            try
+            {
+                Method m = type.getMethod("valueOf", String.class); //$NON-NLS-1$
+                if (Modifier.isStatic(m.getModifiers()) && type.isAssignableFrom(m.getReturnType()))
+                {
+                    valueOf = m;
+                    return VALUE_OF;
+                }
+            }
+            catch (NoSuchMethodException e)
+            {
+                // try the constructor
+            }
+            try
+            {
+                constructor = type.getConstructor(String.class);
+                return CONSTRUCTOR;
+            }
+            catch (NoSuchMethodException e)
+            {
+                return UNSUPPORTED;
+            }
+        }
+
+        @Override
+        String getString(Object object) throws IllegalAccessException
+        {
+            Object value = field.get(object);
+            return value != null ? value.toString() : null;
+        }
+
+        @Override
+        void set(Object object, char[] chars, int offset, int length, StringTable strings)
+                throws IllegalAccessException
+        {
+            if (kind == STRING && strings != null)
+                field.set(object, strings.intern(chars, offset, length));
+            else
+                set(object, chars, offset, length);
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        @Override
+        void set(Object object, char[] chars, int offset, int length) throws IllegalAccessException
+        {
+            Object value;
+            switch (kind)
+            {
+                case STRING:
+                    value = new String(chars, offset, length);
+                    break;
+
+                case INTEGER:
+                    value = Integer.valueOf(CharParser.parseInt(chars, offset, length));
+                    break;
+
+                case LONG:
+                    value = Long.valueOf(CharParser.parseLong(chars, offset, length));
+                    break;
+
+                case DOUBLE:
+                    value = Double.valueOf(CharParser.parseDouble(chars, offset, length));
+                    break;
+
+                case BOOLEAN:
+                    value = Boolean.valueOf(CharParser.parseBoolean(chars, offset, length));
+                    break;
+
+                case ENUM:
+                    value = Enum.valueOf((Class<Enum>) field.getType(), new String(chars, offset, length));
+                    break;
+
+                case VALUE_OF:
+                case CONSTRUCTOR:
+                    value = convert(new String(chars, offset, length));
+                    break;
+
+                default:
+                    throw new IllegalArgumentException("cannot bind field " + field.getName() + " of type " //$NON-NLS-1$ //$NON-NLS-2$
+                            + field.getType().getName());
+            }
+            field.set(object, value);
+        }
+
+        private Object convert(String s)
+        {
+            try
+            {
+                return kind == VALUE_OF ? valueOf.invoke(null, s) : constructor.newInstance(s);
+            }
+            catch (InvocationTargetException e)
+            {
+                throw new IllegalArgumentException(e.getCause());
+            }
+            catch (InstantiationException e)
+            {
+                throw new IllegalArgumentException(e);
+            }
+            catch (IllegalAccessException e)
+            {
+                throw new IllegalArgumentException(e);
+            }
+        }
+
+        @Override
+        void setNull(Object object) throws IllegalAccessException
+        {
+            field.set(object, null);
+        }
+    }
+}
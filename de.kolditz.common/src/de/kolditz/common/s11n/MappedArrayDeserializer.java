@@ -0,0 +1,673 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 14:05:37
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A light-weight, non thread-safe deserializer for whole arrays which were serialized by an {@link ArraySerializer}
+ * and stored UTF-8 encoded in a file, e.g. by a {@link StreamingArraySerializer}. The file is memory-mapped window by
+ * window and decoded on the fly, so even files of several gigabytes are never loaded into the heap.
+ * <p>
+ * The current object's fields are exposed as {@link CharSequence} views into the mapped bytes, which are not decoded
+ * before they are accessed. Fields consisting of ASCII characters without escapes are not decoded at all. Clients only
+ * pay for a {@link String} when calling {@link #getString(int)} or {@link CharSequence#toString()}. The views are only
+ * valid until the next call to {@link #next()}, since they are reused for the next object.
+ * <p>
+ * An optional {@link Schema} header is read by the first call to {@link #next()}, see {@link #getSchema()}.
+ * <p>
+ * Each object has to fit into a single window. The window is enlarged for larger objects. Note that the mapped windows
+ * cannot be unmapped explicitly, they are released when they are garbage collected. Does currently not support nested
+ * arrays.
+ * <p>
+ * Typical usage:
+ * 
+ * <pre>
+ * MappedArrayDeserializer deserializer = new MappedArrayDeserializer(file);
+ * try
+ * {
+ *     while (deserializer.next())
+ *     {
+ *         CharSequence name = deserializer.getField(0);
+ *         // process fields
+ *     }
+ * }
+ * finally
+ * {
+ *     deserializer.close();
+ * }
+ * </pre>
+ * 
+ * </p>
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public class MappedArrayDeserializer extends DeSerializer implements Closeable
+{
+    /**
+     * The default size of the mapped windows (64 MiB).
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 64 << 20;
+
+    private static final int MIN_WINDOW_SIZE = 16;
+
+    private static final int STATE_INIT = 0;
+    private static final int STATE_ARRAY_NEXT = 1;
+    private static final int STATE_END = 2;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final long size;
+    private int windowSize;
+
+    private ByteBuffer window;
+    private long windowStart;
+    private int pos = 0;
+    private int limit = 0;
+
+    private int state = STATE_INIT;
+    private boolean inArray = false;
+    private Schema schema;
+
+    private int fieldCount = 0;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private boolean[] escaped = new boolean[16];
+    private FieldView[] views = new FieldView[16];
+    private char[] text = new char[64];
+    private StringTable strings;
+
+    /**
+     * Creates a deserializer reading the given file with the {@link #DEFAULT_WINDOW_SIZE}.
+     * 
+     * @param file
+     *            the UTF-8 encoded file
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    public MappedArrayDeserializer(File file) throws IOException
+    {
+        this.file = new RandomAccessFile(file, "r"); //$NON-NLS-1$
+        this.channel = this.file.getChannel();
+        this.size = channel.size();
+        this.windowSize = DEFAULT_WINDOW_SIZE;
+        this.windowStart = 0;
+    }
+
+    /**
+     * Creates a deserializer reading the given channel from its current position with the {@link #DEFAULT_WINDOW_SIZE}.
+     * 
+     * @param channel
+     *            the channel providing the UTF-8 encoded bytes
+     * @throws IOException
+     *             if the channel throws it
+     */
+    public MappedArrayDeserializer(FileChannel channel) throws IOException
+    {
+        this(channel, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Creates a deserializer reading the given channel from its current position.
+     * 
+     * @param channel
+     *            the channel providing the UTF-8 encoded bytes
+     * @param windowSize
+     *            the initial size of the mapped windows in bytes, at least 16 bytes are used
+     * @throws IOException
+     *             if the channel throws it
+     */
+    public MappedArrayDeserializer(FileChannel channel, int windowSize) throws IOException
+    {
+        if (windowSize <= 0)
+            throw new IllegalArgumentException("windowSize must be positive"); //$NON-NLS-1$
+        this.file = null;
+        this.channel = channel;
+        this.size = channel.size();
+        this.windowSize = Math.max(windowSize, MIN_WINDOW_SIZE);
+        this.windowStart = channel.position();
+    }
+
+    /**
+     * Advances to the next object of the array. Leading bytes before the array's begin are skipped, just like
+     * {@link ArrayDeserializer#deserialize(String)} does. A single object which is not enclosed by an array is treated
+     * like an array containing only this object.
+     * 
+     * @return false when the end of the array was reached
+     * @throws DeserializationException
+     *             if the input is malformed or ends before the array is closed
+     * @throws IOException
+     *             if the file cannot be mapped
+     */
+    public boolean next() throws IOException
+    {
+        clearFields();
+        int c;
+        switch (state)
+        {
+            case STATE_INIT:
+                do
+                {
+                    c = read();
+                }
+                while (c != -1 && c != ARRAY_BEGIN && c != OBJECT_BEGIN);
+                if (c == -1)
+                    return end();
+                if (c == OBJECT_BEGIN && peek(0) == BACKSLASH && peek(1) == Schema.MARKER)
+                {
+                    readSchema();
+                    c = read();
+                    if (c != ARRAY_BEGIN)
+                        throw malformed(c, "'" + ARRAY_BEGIN + "'");
+                }
+                if (c == ARRAY_BEGIN)
+                {
+                    inArray = true;
+                    c = read();
+                    if (c == ARRAY_END)
+                        return end();
+                    if (c != OBJECT_BEGIN)
+                        throw malformed(c, "'" + OBJECT_BEGIN + "' or '" + ARRAY_END + "'");
+                }
+                return readObject();
+
+            case STATE_ARRAY_NEXT:
+                c = read();
+                if (c == ARRAY_END)
+                    return end();
+                if (c != SEPARATOR)
+                    throw malformed(c, "'" + SEPARATOR + "' or '" + ARRAY_END + "'");
+                c = read();
+                if (c != OBJECT_BEGIN)
+                    throw malformed(c, "'" + OBJECT_BEGIN + "'");
+                return readObject();
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns the schema header preceding the array, which is read by the first call to {@link #next()}.
+     * 
+     * @return the array's schema, or null if there is none
+     */
+    public Schema getSchema()
+    {
+        return schema;
+    }
+
+    /**
+     * @return the number of fields of the current object
+     */
+    public int getFieldCount()
+    {
+        return fieldCount;
+    }
+
+    /**
+     * @param index
+     *            the field's index
+     * @return whether the current object's field is null
+     */
+    public boolean isNull(int index)
+    {
+        checkIndex(index);
+        return isNullField(index);
+    }
+
+    /**
+     * Returns a view of the current object's unescaped field, which is only valid until the next call to
+     * {@link #next()}.
+     * 
+     * @param index
+     *            the field's index
+     * @return the field's view, or null if the field is null
+     */
+    public CharSequence getField(int index)
+    {
+        checkIndex(index);
+        if (isNullField(index))
+            return null;
+        FieldView view = views[index];
+        if (view == null)
+            view = views[index] = new FieldView(index);
+        return view;
+    }
+
+    /**
+     * @param index
+     *            the field's index
+     * @return the current object's unescaped field, or null if the field is null
+     */
+    public String getString(int index)
+    {
+        CharSequence field = getField(index);
+        if (field == null)
+            return null;
+        return strings != null ? strings.intern(field) : field.toString();
+    }
+
+    /**
+     * Sets the table used by {@link #getString(int)} and {@link #nextObject(Class)} to share repeated field values.
+     * 
+     * @param strings
+     *            the table, or null to create a new String for each field
+     */
+    public void setStringTable(StringTable strings)
+    {
+        this.strings = strings;
+    }
+
+    /**
+     * Reads the next object of the array directly into a new instance of the given class. Primitive fields are parsed
+     * without creating intermediate Strings. Surplus fields are ignored, missing fields keep their initial values. If
+     * the file has a {@link Schema} header, the fields are bound by name instead of position.
+     * 
+     * @param clazz
+     *            the class to instantiate, which needs a no-argument constructor
+     * @return the new instance, or null when the end of the array was reached
+     * @throws DeserializationException
+     *             if the input is malformed or a field cannot be converted to its type
+     * @throws IOException
+     *             if the file cannot be mapped
+     * @throws IllegalArgumentException
+     *             if the class cannot be instantiated
+     */
+    public <T> T nextObject(Class<T> clazz) throws IOException
+    {
+        ObjectBinder<T> binder = ObjectBinder.forClass(clazz);
+        if (!next())
+            return null;
+        int[] targets = binder.getTargets(schema);
+        T object = binder.newInstance();
+        int count = Math.min(fieldCount, targets.length);
+        int target;
+        for (int i = 0; i < count; ++i)
+        {
+            target = targets[i];
+            if (target < 0)
+                continue;
+            if (isNullField(i))
+            {
+                binder.setNull(object, target);
+            }
+            else
+            {
+                ensureTextCapacity(ends[i] - starts[i]);
+                binder.set(object, target, text, 0, decode(i, text), strings);
+            }
+        }
+        return object;
+    }
+
+    private void checkIndex(int index)
+    {
+        if (index < 0 || index >= fieldCount)
+            throw new IndexOutOfBoundsException("field " + index + " of " + fieldCount); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private boolean isNullField(int index)
+    {
+        int start = starts[index];
+        return escaped[index] && ends[index] - start == 2 && window.get(start + 1) == '0';
+    }
+
+    private void clearFields()
+    {
+        for (int i = 0; i < fieldCount; ++i)
+        {
+            if (views[i] != null)
+                views[i].reset();
+        }
+        fieldCount = 0;
+    }
+
+    /**
+     * Reads the schema header. The caller checked that the object starts with the escaped {@link Schema#MARKER}, whose
+     * backslash is skipped here, since {@link #decode(int, char[])} drops an escaped ordinary character.
+     */
+    private void readSchema() throws IOException
+    {
+        readObject();
+        ++starts[0];
+        List<String> fields = new ArrayList<String>(fieldCount);
+        for (int i = 1; i < fieldCount; ++i)
+        {
+            fields.add(getString(i));
+        }
+        schema = Schema.read(getString(0), fields);
+        Schema.checkRows(schema);
+        clearFields();
+    }
+
+    private boolean end()
+    {
+        state = STATE_END;
+        return false;
+    }
+
+    /**
+     * Reads the object beginning at the current position, which is right after its {@link #OBJECT_BEGIN}. If the
+     * object exceeds the current window, the window is moved to the object's begin and enlarged if necessary.
+     */
+    private boolean readObject() throws IOException
+    {
+        while (!scanObject())
+        {
+            long begin = windowStart + pos;
+            if (windowStart + limit >= size)
+            {
+                pos = limit;
+                throw malformed(-1, "'" + SEPARATOR + "' or '" + OBJECT_END + "'");
+            }
+            if (pos == 0)
+            {
+                if (windowSize == Integer.MAX_VALUE)
+                    throw new DeserializationException("object at offset " + begin + " exceeds the maximum window size"); //$NON-NLS-1$ //$NON-NLS-2$
+                windowSize = (int) Math.min(Integer.MAX_VALUE, (long) windowSize << 1);
+            }
+            map(begin);
+        }
+        state = inArray ? STATE_ARRAY_NEXT : STATE_END;
+        return true;
+    }
+
+    /**
+     * Finds the fields of the object beginning at the current position. Only advances the position if the whole
+     * object is within the window.
+     * 
+     * @return false if the object exceeds the window
+     */
+    private boolean scanObject() throws IOException
+    {
+        fieldCount = 0;
+        int p = pos;
+        if (p < limit && window.get(p) == OBJECT_END)
+        {
+            pos = p + 1;
+            return true;
+        }
+        int start = p;
+        boolean esc = false;
+        int c;
+        while (true)
+        {
+            p = DelimiterScanner.indexOf(window, p, limit);
+            if (p == limit)
+                return false;
+            c = window.get(p);
+            if (c == BACKSLASH)
+            {
+                if (p + 1 == limit)
+                    return false;
+                esc = true;
+                p += 2;
+            }
+            else if (c == SEPARATOR || c == OBJECT_END)
+            {
+                addField(start, p, esc);
+                start = ++p;
+                esc = false;
+                if (c == OBJECT_END)
+                {
+                    pos = p;
+                    return true;
+                }
+            }
+            else
+            {
+                pos = p + 1;
+                throw malformed(c, "'" + SEPARATOR + "' or '" + OBJECT_END + "'");
+            }
+        }
+    }
+
+    private void addField(int start, int end, boolean esc)
+    {
+        if (fieldCount == starts.length)
+        {
+            int capacity = fieldCount << 1;
+            int[] newStarts = new int[capacity];
+            int[] newEnds = new int[capacity];
+            boolean[] newEscaped = new boolean[capacity];
+            FieldView[] newViews = new FieldView[capacity];
+            System.arraycopy(starts, 0, newStarts, 0, fieldCount);
+            System.arraycopy(ends, 0, newEnds, 0, fieldCount);
+            System.arraycopy(escaped, 0, newEscaped, 0, fieldCount);
+            System.arraycopy(views, 0, newViews, 0, fieldCount);
+            starts = newStarts;
+            ends = newEnds;
+            escaped = newEscaped;
+            views = newViews;
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        escaped[fieldCount] = esc;
+        ++fieldCount;
+    }
+
+    private int read() throws IOException
+    {
+        if (pos == limit)
+        {
+            if (windowStart + limit >= size)
+                return -1;
+            map(windowStart + limit);
+        }
+        return window.get(pos++);
+    }
+
+    /**
+     * Returns the byte at the given offset from the current position without consuming it.
+     */
+    private int peek(int offset) throws IOException
+    {
+        if (pos + offset >= limit)
+        {
+            if (windowStart + limit >= size)
+                return -1;
+            map(windowStart + pos);
+            if (pos + offset >= limit)
+                return -1;
+        }
+        return window.get(pos + offset);
+    }
+
+    private void map(long position) throws IOException
+    {
+        int length = (int) Math.min(windowSize, size - position);
+        window = channel.map(MapMode.READ_ONLY, position, length);
+        windowStart = position;
+        pos = 0;
+        limit = length;
+    }
+
+    private void ensureTextCapacity(int capacity)
+    {
+        if (text.length < capacity)
+            text = new char[Math.max(capacity, text.length << 1)];
+    }
+
+    /**
+     * Unescapes and decodes the UTF-8 bytes of the given field. Since all special characters are ASCII, the backslashes
+     * can be removed before decoding. The target needs at least as many chars as the field has bytes.
+     * 
+     * @return the number of decoded chars
+     */
+    private int decode(int index, char[] t)
+    {
+        ByteBuffer b = window;
+        int p = starts[index];
+        int end = ends[index];
+        int n = 0;
+        int c;
+        while (p < end)
+        {
+            c = b.get(p++);
+            if (c == BACKSLASH && p < end)
+            {
+                c = b.get(p++);
+                // like DeSerializer.unescape, an escaped ordinary character is dropped, including all its bytes
+                if (!DelimiterScanner.isSpecial(c))
+                {
+                    while (p < end && (b.get(p) & 0xC0) == 0x80)
+                    {
+                        ++p;
+                    }
+                    continue;
+                }
+            }
+            if (c >= 0)
+            {
+                t[n++] = (char) c;
+            }
+            else if ((c & 0xE0) == 0xC0 && p < end)
+            {
+                t[n++] = (char) (((c & 0x1F) << 6) | (b.get(p++) & 0x3F));
+            }
+            else if ((c & 0xF0) == 0xE0 && p + 1 < end)
+            {
+                t[n++] = (char) (((c & 0x0F) << 12) | ((b.get(p) & 0x3F) << 6) | (b.get(p + 1) & 0x3F));
+                p += 2;
+            }
+            else if ((c & 0xF8) == 0xF0 && p + 2 < end)
+            {
+                int cp = ((c & 0x07) << 18) | ((b.get(p) & 0x3F) << 12) | ((b.get(p + 1) & 0x3F) << 6)
+                        | (b.get(p + 2) & 0x3F);
+                p += 3;
+                // a code point takes at most as many chars as it took bytes
+                n += Character.toChars(cp, t, n);
+            }
+            else
+            {
+                t[n++] = '\uFFFD';
+            }
+        }
+        return n;
+    }
+
+    private DeserializationException malformed(int found, String expected)
+    {
+        long offset = windowStart + pos - 1;
+        if (found == -1)
+            return new DeserializationException("unexpected end of input, expected " + expected); //$NON-NLS-1$
+        return new DeserializationException("unexpected byte 0x" + Integer.toHexString(found & 0xFF) //$NON-NLS-1$
+                + " at offset " + offset + ", expected " + expected); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Closes the underlying file or channel.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        window = null;
+        if (file != null)
+            file.close();
+        else
+            channel.close();
+    }
+
+    /**
+     * A view of a field of the current object. Pure ASCII fields without escapes are read directly from the mapped
+     * bytes, all others are decoded on the first access.
+     */
+    private final class FieldView implements CharSequence
+    {
+        private final int index;
+        private char[] chars;
+        private int length = -1;
+        private boolean direct;
+
+        FieldView(int index)
+        {
+            this.index = index;
+        }
+
+        void reset()
+        {
+            length = -1;
+        }
+
+        private void examine()
+        {
+            if (length >= 0)
+                return;
+            int start = starts[index];
+            int end = ends[index];
+            if (!escaped[index] && DelimiterScanner.isAscii(window, start, end))
+            {
+                direct = true;
+                length = end - start;
+            }
+            else
+            {
+                direct = false;
+                if (chars == null || chars.length < end - start)
+                    chars = new char[end - start];
+                length = decode(index, chars);
+            }
+        }
+
+        @Override
+        public int length()
+        {
+            examine();
+            return length;
+        }
+
+        @Override
+        public char charAt(int i)
+        {
+            examine();
+            if (i < 0 || i >= length)
+                throw new IndexOutOfBoundsException(String.valueOf(i));
+            return direct ? (char) window.get(starts[index] + i) : chars[i];
+        }
+
+        /**
+         * Returns a copy of the given range, which stays valid after the next call to {@link #next()}.
+         */
+        @Override
+        public CharSequence subSequence(int start, int end)
+        {
+            examine();
+            if (start < 0 || end > length || start > end)
+                throw new IndexOutOfBoundsException(start + ", " + end); //$NON-NLS-1$
+            if (!direct)
+                return new String(chars, start, end - start);
+            char[] c = new char[end - start];
+            int offset = starts[index] + start;
+            for (int i = 0; i < c.length; ++i)
+            {
+                c[i] = (char) window.get(offset + i);
+            }
+            return new String(c);
+        }
+
+        @Override
+        public String toString()
+        {
+            return subSequence(0, length()).toString();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 18:09:52
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+import java.util.Arrays;
+
+/**
+ * Collects deserialized objects in a presized, growable array. Unlike a list, no node is allocated per object. The
+ * array is sized by counting the objects of the serialized string in advance, which is much cheaper than parsing them,
+ * so {@link #toArray()} only copies the array if the string is malformed.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+final class ObjectArrayBuilder implements ObjectConsumer
+{
+    private String[][] objects;
+    private int size = 0;
+
+    /**
+     * @param serialized
+     *            the serialized string, whose objects are counted to size the array
+     */
+    ObjectArrayBuilder(String serialized)
+    {
+        objects = new String[countObjects(serialized)][];
+    }
+
+    /**
+     * Counts the objects of the array in the given string without parsing them. Since special characters within
+     * fields are always escaped, each unescaped {@link DeSerializer#OBJECT_END} after the array's begin ends an
+     * object, while the objects before it belong to the {@link Schema} header.
+     * 
+     * @return the number of objects, which is exact unless the string is malformed
+     */
+    static int countObjects(String serialized)
+    {
+        int count = 0;
+        boolean inArray = false;
+        char c;
+        for (int i = 0, length = serialized.length(); i < length; ++i)
+        {
+            c = serialized.charAt(i);
+            if (c == DeSerializer.BACKSLASH)
+                ++i;
+            else if (c == DeSerializer.OBJECT_END)
+            {
+                if (inArray)
+                    ++count;
+            }
+            else if (c == DeSerializer.ARRAY_BEGIN)
+                inArray = true;
+            else if (c == DeSerializer.ARRAY_END)
+                break;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean accept(String[] fields)
+    {
+        if (size == objects.length)
+            objects = Arrays.copyOf(objects, size + (size >> 1) + 1);
+        objects[size++] = fields;
+        return true;
+    }
+
+    /**
+     * @return the collected objects, without trailing empty slots
+     */
+    String[][] toArray()
+    {
+        return size == objects.length ? objects : Arrays.copyOf(objects, size);
+    }
+}
@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 12:40:33
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Binds deserialized fields directly to new instances of a class, in the field order used by
+ * {@link ObjectSerializer#serialize(StringBuilder, Object)}. The binder of a class is created only once and cached just
+ * like the {@link FieldAccessor}s. Bound classes need a no-argument constructor, which may be private.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+final class ObjectBinder<T>
+{
+    private static final Map<Class<?>, SoftReference<ObjectBinder<?>>> cache = Collections
+            .synchronizedMap(new WeakHashMap<Class<?>, SoftReference<ObjectBinder<?>>>());
+
+    /**
+     * @param clazz
+     *            the class to bind to
+     * @return the cached binder
+     * @throws IllegalArgumentException
+     *             if the class has no no-argument constructor
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ObjectBinder<T> forClass(Class<T> clazz)
+    {
+        SoftReference<ObjectBinder<?>> ref = cache.get(clazz);
+        ObjectBinder<?> binder = ref != null ? ref.get() : null;
+        if (binder == null)
+        {
+            binder = new ObjectBinder<T>(clazz);
+            cache.put(clazz, new SoftReference<ObjectBinder<?>>(binder));
+        }
+        return (ObjectBinder<T>) binder;
+    }
+
+    private final Class<T> clazz;
+    private final Constructor<T> constructor;
+    private final FieldAccessor[] accessors;
+    private volatile Mapping mapping;
+
+    private ObjectBinder(Class<T> clazz)
+    {
+        this.clazz = clazz;
+        try
+        {
+            constructor = clazz.getDeclaredConstructor();
+        }
+        catch (NoSuchMethodException e)
+        {
+            throw new IllegalArgumentException(clazz.getName() + " has no no-argument constructor", e); //$NON-NLS-1$
+        }
+        try
+        {
+            constructor.setAccessible(true);
+        }
+        catch (SecurityException e)
+        {
+            // proceed with access checks
+        }
+        accessors = FieldAccessor.forClass(clazz);
+    }
+
+    /**
+     * Binds the fields of the parser's current object to a new instance. The parser's cursor must be at the object's
+     * {@link PullDeserializer#START_OBJECT} event; afterwards it is at the object's {@link PullDeserializer#END_OBJECT}
+     * event. Surplus fields are skipped without being unescaped, missing fields keep their initial values. If the
+     * parser read a {@link Schema} header, the fields are bound by name instead of position.
+     * 
+     * @param parser
+     *            the parser
+     * @return the new instance
+     * @throws DeserializationException
+     *             if the input is malformed or a field cannot be converted to its type
+     * @throws IOException
+     *             if the underlying reader throws it
+     */
+    T bind(PullDeserializer parser) throws IOException
+    {
+        int[] targets = getTargets(parser.getSchema());
+        StringTable strings = parser.getStringTable();
+        T object = newInstance();
+        int index = 0;
+        int target;
+        int event;
+        while ((event = parser.next()) != PullDeserializer.END_OBJECT)
+        {
+            target = index < targets.length ? targets[index] : -1;
+            if (target >= 0)
+            {
+                if (event == PullDeserializer.NULL_FIELD)
+                    setNull(object, target);
+                else
+                    set(object, target, parser.getTextCharacters(), 0, parser.getTextLength(), strings);
+            }
+            ++index;
+        }
+        return object;
+    }
+
+    /**
+     * Maps each serialized field position to the bindable field it is bound to. The mapping of the last schema is
+     * cached.
+     * 
+     * @param schema
+     *            the input's schema, or null to bind by position
+     * @return the index of the bindable field for each position, or -1 if the position is not bound
+     * @throws DeserializationException
+     *             if the schema is columnar
+     */
+    int[] getTargets(Schema schema) throws DeserializationException
+    {
+        Mapping m = mapping;
+        if (m == null || m.schema != schema)
+        {
+            Schema.checkRows(schema);
+            int[] targets;
+            if (schema == null)
+            {
+                targets = new int[accessors.length];
+                for (int i = 0; i < targets.length; ++i)
+                {
+                    targets[i] = i;
+                }
+            }
+            else
+            {
+                targets = new int[schema.getFieldCount()];
+                Arrays.fill(targets, -1);
+                for (int i = 0; i < accessors.length; ++i)
+                {
+                    int position = schema.indexOf(accessors[i].getName());
+                    if (position >= 0)
+                        targets[position] = i;
+                }
+            }
+            mapping = m = new Mapping(schema, targets);
+        }
+        return m.targets;
+    }
+
+    /**
+     * @return the number of bindable fields
+     */
+    int getFieldCount()
+    {
+        return accessors.length;
+    }
+
+    /**
+     * Sets the field with the given index to the value parsed from the given range of unescaped characters. String
+     * values are taken from the given table, if any.
+     * 
+     * @throws DeserializationException
+     *             if the value cannot be converted to the field's type
+     */
+    void set(T object, int index, char[] chars, int offset, int length, StringTable strings)
+            throws DeserializationException
+    {
+        FieldAccessor accessor = accessors[index];
+        try
+        {
+            accessor.set(object, chars, offset, length, strings);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw cannotBind(accessor, e);
+        }
+        catch (IllegalArgumentException e)
+        {
+            // includes NumberFormatException
+            throw cannotBind(accessor, e);
+        }
+    }
+
+    /**
+     * Sets the field with the given index to null. Primitive fields keep their value.
+     * 
+     * @throws DeserializationException
+     *             if the field cannot be accessed
+     */
+    void setNull(T object, int index) throws DeserializationException
+    {
+        FieldAccessor accessor = accessors[index];
+        try
+        {
+            accessor.setNull(object);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw cannotBind(accessor, e);
+        }
+    }
+
+    private DeserializationException cannotBind(FieldAccessor accessor, Exception cause)
+    {
+        return new DeserializationException("cannot bind field " + accessor.getName() + " of " + clazz.getName(), //$NON-NLS-1$ //$NON-NLS-2$
+                cause);
+    }
+
+    /**
+     * @return a new instance created by the no-argument constructor
+     */
+    T newInstance()
+    {
+        try
+        {
+            return constructor.newInstance();
+        }
+        catch (InstantiationException e)
+        {
+            throw new IllegalArgumentException(e);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new IllegalArgumentException(e);
+        }
+        catch (InvocationTargetException e)
+        {
+            throw new IllegalArgumentException(e.getCause());
+        }
+    }
+
+    private static final class Mapping
+    {
+        final Schema schema;
+        final int[] targets;
+
+        Mapping(Schema schema, int[] targets)
+        {
+            this.schema = schema;
+            this.targets = targets;
+        }
+    }
+}
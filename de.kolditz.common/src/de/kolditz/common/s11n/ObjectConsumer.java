@@ -0,0 +1,30 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 18:04:26
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+/**
+ * Receives each deserialized object as soon as it was read, so whole arrays can be processed without any intermediate
+ * collection.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ * @see ArrayDeserializer#deserialize(String, ObjectConsumer)
+ */
+public interface ObjectConsumer
+{
+    /**
+     * @param fields
+     *            the object's unescaped fields (null fields stay null), which are owned by the consumer
+     * @return true to receive further objects, false to stop the deserialization
+     */
+    boolean accept(String[] fields);
+}
@@ -12,8 +12,9 @@
  *******************************************************************************/
 package de.kolditz.common.s11n;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -36,30 +37,9 @@ public abstract class ObjectDeserializer extends DeSerializer
     {
         if (serialized.length() < 3)
             return null;
-        // init
-        List<String> list = new LinkedList<String>();
-        int charCount = serialized.codePointCount(0, serialized.length());
-        int maxPos = charCount - 1;
-        int[] unicodes = new int[charCount];
-        // convert everything to true unicode
-        for (int i = 0; i < charCount; ++i)
-        {
-            unicodes[i] = serialized.codePointAt(i);
-        }
-        // 1) search for object delimiters
-        int pos = search(unicodes, 0, maxPos, OBJ_BEG);
-        ++pos;
-        int end = search(unicodes, pos, maxPos, OBJ_END);
-        if (unicodes[end] != OBJECT_END)
+        List<String> list = new ArrayList<String>();
+        if (!readFields(serialized, list))
             return null;
-        // 2) search for fields
-        int next;
-        while (pos < end)
-        {
-            next = search(unicodes, pos, end, SEP_OR_OBJEND);
-            list.add(unescape(new String(unicodes, pos, next - pos)));
-            pos = next + 1; // after the previous separator
-        }
         return list.toArray(new String[list.size()]);
     }
 
@@ -75,30 +55,98 @@ public abstract class ObjectDeserializer extends DeSerializer
     {
         if (serialized.length() < 3)
             return null;
-        // init
-        List<String> list = new LinkedList<String>();
-        int charCount = serialized.codePointCount(0, serialized.length());
-        int maxPos = charCount - 1;
-        int[] unicodes = new int[charCount];
-        // convert everything to true unicode
-        for (int i = 0; i < charCount; ++i)
+        List<String> list = new ArrayList<String>();
+        if (!readFields(serialized, list))
+            return null;
+        return list;
+    }
+
+    /**
+     * Reads the fields of the first object in the given string. The string is scanned by a {@link PullDeserializer},
+     * i.e. directly on its characters without converting it to code points first.
+     * 
+     * @return false if the string could not be correctly parsed
+     */
+    private static boolean readFields(String serialized, List<String> list)
+    {
+        PullDeserializer parser = new PullDeserializer(serialized);
+        try
         {
-            unicodes[i] = serialized.codePointAt(i);
+            int event;
+            do
+            {
+                event = parser.next();
+                if (event == PullDeserializer.END_ARRAY || event == PullDeserializer.END_DOCUMENT)
+                    return false;
+            }
+            while (event != PullDeserializer.START_OBJECT);
+            while (parser.next() != PullDeserializer.END_OBJECT)
+            {
+                list.add(parser.getText());
+            }
+            return true;
         }
-        // 1) search for object delimiters
-        int pos = search(unicodes, 0, maxPos, OBJ_BEG);
-        ++pos;
-        int end = search(unicodes, pos, maxPos, OBJ_END);
-        if (unicodes[end] != OBJECT_END)
-            return null;
-        // 2) search for fields
-        int next;
-        while (pos < end)
+        catch (IOException e)
         {
-            next = search(unicodes, pos, end, SEP_OR_OBJEND);
-            list.add(unescape(new String(unicodes, pos, next - pos)));
-            pos = next + 1; // after the previous separator
+            return false;
         }
-        return list;
+    }
+
+    /**
+     * Deserializes a single object which was serialized by the {@link ObjectSerializer#serialize(StringBuilder, Object)}
+     * method directly into a new instance of the given class. Primitive fields are parsed without creating
+     * intermediate Strings. This should be an escaped string.
+     * 
+     * @param serialized
+     *            the single string
+     * @param clazz
+     *            the class to instantiate, which needs a no-argument constructor
+     * @return the new instance, or null if the string contains no object
+     * @throws IllegalArgumentException
+     *             if the string is malformed, a field cannot be converted to its type or the class cannot be
+     *             instantiated
+     * @see #deserialize(PullDeserializer, Class)
+     */
+    public static <T> T deserialize(String serialized, Class<T> clazz)
+    {
+        try
+        {
+            return deserialize(new PullDeserializer(serialized), clazz);
+        }
+        catch (IOException e)
+        {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deserializes the next object of the given parser directly into a new instance of the given class. If the
+     * parser's cursor is not at an object's begin, it is advanced to the next one. Afterwards, the cursor is at the
+     * object's {@link PullDeserializer#END_OBJECT} event. Surplus fields are skipped without being unescaped, missing
+     * fields keep their initial values.
+     * 
+     * @param parser
+     *            the parser
+     * @param clazz
+     *            the class to instantiate, which needs a no-argument constructor
+     * @return the new instance, or null if there are no further objects
+     * @throws DeserializationException
+     *             if the input is malformed or a field cannot be converted to its type
+     * @throws IOException
+     *             if the underlying reader throws it
+     * @throws IllegalArgumentException
+     *             if the class cannot be instantiated
+     */
+    public static <T> T deserialize(PullDeserializer parser, Class<T> clazz) throws IOException
+    {
+        ObjectBinder<T> binder = ObjectBinder.forClass(clazz);
+        int event = parser.getEventType();
+        while (event != PullDeserializer.START_OBJECT)
+        {
+            if (event == PullDeserializer.END_ARRAY || event == PullDeserializer.END_DOCUMENT)
+                return null;
+            event = parser.next();
+        }
+        return binder.bind(parser);
     }
 }
@@ -12,11 +12,8 @@
  *******************************************************************************/
 package de.kolditz.common.s11n;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.Collection;
-import java.util.List;
 
 /**
  * A light-weight, non thread-safe object serializer. For de-/serializing arrays or collections use
@@ -58,37 +55,73 @@ public abstract class ObjectSerializer extends DeSerializer
         return sb.toString();
     }
 
+    /**
+     * Simply appends the given object's non-static and non-transient public fields to the given StringBuilder. Clients
+     * must know the order of serialized fields for deserialization. Null references are serialized as {@link #NULL}.
+     * The fields are resolved only once per class.
+     * 
+     * @param sb
+     * @param object
+     * @see ObjectDeserializer#deserializeAsArray(String)
+     */
     public static void serialize(StringBuilder sb, Object object)
     {
-        Class<?> clazz = object.getClass();
-        Field[] fields = clazz.getFields();
-        List<String> list = new ArrayList<String>(fields.length);
-        if (fields.length > 0)
+        assert sb != null;
+        assert object != null;
+        FieldAccessor[] accessors = FieldAccessor.forClass(object.getClass());
+        int length = accessors.length - 1;
+        sb.append(OBJECT_BEGIN);
+        for (int i = 0; i <= length; ++i)
+        {
+            try
+            {
+                accessors[i].append(sb, object);
+            }
+            catch (IllegalAccessException e)
+            {
+                // print, write null and proceed, so that the following fields keep their positions
+                e.printStackTrace();
+                sb.append(NULL);
+            }
+            if (i < length)
+                sb.append(SEPARATOR);
+        }
+        sb.append(OBJECT_END);
+    }
+
+    /**
+     * Simply appends the given object's non-static and non-transient public fields to the given {@link Appendable}.
+     * Clients must know the order of serialized fields for deserialization.
+     * 
+     * @param out
+     * @param object
+     * @throws IOException
+     *             if the {@link Appendable} throws it
+     * @see ObjectDeserializer#deserializeAsArray(String)
+     */
+    public static void serialize(Appendable out, Object object) throws IOException
+    {
+        assert out != null;
+        assert object != null;
+        FieldAccessor[] accessors = FieldAccessor.forClass(object.getClass());
+        int length = accessors.length - 1;
+        out.append(OBJECT_BEGIN);
+        for (int i = 0; i <= length; ++i)
         {
-            for (Field f : clazz.getFields())
+            try
+            {
+                accessors[i].append(out, object);
+            }
+            catch (IllegalAccessException e)
             {
-                int mod = f.getModifiers();
-                // non-static and non-transient fields
-                if ((mod & Modifier.STATIC) == 0 && (mod & Modifier.TRANSIENT) == 0)
-                {
-                    try
-                    {
-                        list.add(String.valueOf(f.get(object)));
-                    }
-                    catch (IllegalArgumentException e)
-                    {
-                        // print, ignore and proceed
-                        e.printStackTrace();
-                    }
-                    catch (IllegalAccessException e)
-                    {
-                        // print, ignore and proceed
-                        e.printStackTrace();
-                    }
-                }
+                // print, write null and proceed, so that the following fields keep their positions
+                e.printStackTrace();
+                out.append(NULL);
             }
+            if (i < length)
+                out.append(SEPARATOR);
         }
-        serialize(sb, list);
+        out.append(OBJECT_END);
     }
 
     /**
@@ -109,7 +142,7 @@ public abstract class ObjectSerializer extends DeSerializer
         for (int i = 0; i <= length; ++i)
         {
             f = fields[i];
-            sb.append(f != null ? escape(f) : NULL);
+            escape(f, sb);
             if (i < length)
                 sb.append(SEPARATOR);
         }
@@ -133,11 +166,65 @@ public abstract class ObjectSerializer extends DeSerializer
         int i = 0;
         for (String f : fields)
         {
-            sb.append(f != null ? escape(f) : NULL);
+            escape(f, sb);
             if (i < length)
                 sb.append(SEPARATOR);
             ++i;
         }
         sb.append(OBJECT_END);
     }
+
+    /**
+     * Simply appends to the given {@link Appendable}, e.g. a {@link java.io.Writer}. Clients must know the order of
+     * serialized fields for deserialization. Expects unescaped strings, since this method does escape some characters.
+     * 
+     * @param out
+     * @param fields
+     * @throws IOException
+     *             if the {@link Appendable} throws it
+     * @see ObjectDeserializer#deserializeAsArray(String)
+     */
+    public static void serialize(Appendable out, String... fields) throws IOException
+    {
+        assert out != null;
+        assert fields != null;
+        String f;
+        int length = fields.length - 1;
+        out.append(OBJECT_BEGIN);
+        for (int i = 0; i <= length; ++i)
+        {
+            f = fields[i];
+            escape(f, out);
+            if (i < length)
+                out.append(SEPARATOR);
+        }
+        out.append(OBJECT_END);
+    }
+
+    /**
+     * Simply appends to the given {@link Appendable}, e.g. a {@link java.io.Writer}. Clients must know the order of
+     * serialized fields for deserialization. Expects unescaped strings, since this method does escape some characters.
+     * 
+     * @param out
+     * @param fields
+     * @throws IOException
+     *             if the {@link Appendable} throws it
+     * @see ObjectDeserializer#deserializeAsArray(String)
+     */
+    public static void serialize(Appendable out, Collection<String> fields) throws IOException
+    {
+        assert out != null;
+        assert fields != null;
+        int length = fields.size() - 1;
+        out.append(OBJECT_BEGIN);
+        int i = 0;
+        for (String f : fields)
+        {
+            escape(f, out);
+            if (i < length)
+                out.append(SEPARATOR);
+            ++i;
+        }
+        out.append(OBJECT_END);
+    }
 }
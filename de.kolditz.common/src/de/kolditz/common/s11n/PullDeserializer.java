@@ -0,0 +1,636 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 10:03:18
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A light-weight, non thread-safe pull parser (similar to StAX) for strings serialized by an {@link ArraySerializer}
+ * or an {@link ObjectSerializer}. Clients advance the cursor with {@link #next()} and inspect the current event.
+ * Field contents are only unescaped when they are actually requested via {@link #getText()} or
+ * {@link #getTextCharacters()}; fields which are simply passed over by {@link #next()} or {@link #skipObject()} are
+ * scanned, but neither copied nor allocated.
+ * <p>
+ * The input may either be an array of objects or a single object. Leading characters before the first array or object
+ * begin are skipped. An optional {@link Schema} header before the array is read and skipped, see {@link #getSchema()}.
+ * Does currently not support nested arrays.
+ * <p>
+ * Typical usage, reading only the first two fields of each object:
+ * 
+ * <pre>
+ * PullDeserializer parser = new PullDeserializer(reader);
+ * int event;
+ * while ((event = parser.next()) != PullDeserializer.END_DOCUMENT)
+ * {
+ *     if (event == PullDeserializer.START_OBJECT)
+ *     {
+ *         parser.next();
+ *         String first = parser.getText();
+ *         parser.next();
+ *         String second = parser.getText();
+ *         parser.skipObject();
+ *     }
+ * }
+ * </pre>
+ * 
+ * </p>
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public class PullDeserializer extends DeSerializer implements Closeable
+{
+    /**
+     * The cursor is at the begin of an array.
+     */
+    public static final int START_ARRAY = 1;
+
+    /**
+     * The cursor is at the end of an array.
+     */
+    public static final int END_ARRAY = 2;
+
+    /**
+     * The cursor is at the begin of an object.
+     */
+    public static final int START_OBJECT = 3;
+
+    /**
+     * The cursor is at the end of an object.
+     */
+    public static final int END_OBJECT = 4;
+
+    /**
+     * The cursor is at a non-null field of the current object.
+     */
+    public static final int FIELD = 5;
+
+    /**
+     * The cursor is at a null field of the current object.
+     */
+    public static final int NULL_FIELD = 6;
+
+    /**
+     * The whole input was consumed.
+     */
+    public static final int END_DOCUMENT = 7;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int STATE_INIT = 0;
+    private static final int STATE_ARRAY = 1;
+    private static final int STATE_ARRAY_NEXT = 2;
+    private static final int STATE_OBJECT = 3;
+    private static final int STATE_FIELD_PENDING = 4;
+    private static final int STATE_FIELD_DONE = 5;
+    private static final int STATE_END = 6;
+
+    private final Reader reader;
+    private final CharSequence sequence;
+    private final int sequenceEnd;
+    private int sequencePos = 0;
+    private final boolean fragment;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int bufferPos = 0;
+    private int bufferLimit = 0;
+    private long consumed = 0;
+
+    private char[] text = new char[64];
+    private int textLength = 0;
+
+    private int state = STATE_INIT;
+    private int event = 0;
+    private boolean inArray = false;
+    private int fieldIndex = -1;
+    private Schema schema;
+    private StringTable strings;
+
+    /**
+     * Creates a pull parser reading from the given {@link Reader}. Clients need not wrap the reader in a
+     * {@link java.io.BufferedReader} since this class does its own buffering.
+     * 
+     * @param reader
+     *            the reader providing the escaped serialization string
+     */
+    public PullDeserializer(Reader reader)
+    {
+        assert reader != null;
+        this.reader = reader;
+        this.sequence = null;
+        this.sequenceEnd = 0;
+        this.fragment = false;
+    }
+
+    /**
+     * Creates a pull parser reading from the given {@link CharSequence}, e.g. a {@link String} or a
+     * {@link StringBuilder}. The sequence must not be modified while this parser is in use.
+     * 
+     * @param serialized
+     *            the escaped serialization string
+     */
+    public PullDeserializer(CharSequence serialized)
+    {
+        assert serialized != null;
+        this.reader = null;
+        this.sequence = serialized;
+        this.sequenceEnd = serialized.length();
+        this.fragment = false;
+    }
+
+    /**
+     * Creates a pull parser reading a fragment of an array's content, i.e. one or more objects separated by
+     * {@link #SEPARATOR}s. The fragment must start at an {@link #OBJECT_BEGIN} and may either end directly after an
+     * {@link #OBJECT_END}, which yields {@link #END_DOCUMENT}, or include the array's {@link #ARRAY_END}. Offsets in
+     * error messages are relative to the whole sequence.
+     * 
+     * @param serialized
+     *            the escaped serialization string
+     * @param start
+     *            the fragment's first index
+     * @param end
+     *            the fragment's end index (exclusive)
+     * @param schema
+     *            the array's schema, or null
+     */
+    PullDeserializer(CharSequence serialized, int start, int end, Schema schema)
+    {
+        assert serialized != null && 0 <= start && start <= end && end <= serialized.length();
+        this.reader = null;
+        this.sequence = serialized;
+        this.sequencePos = start;
+        this.sequenceEnd = end;
+        this.fragment = true;
+        this.consumed = start;
+        this.inArray = true;
+        this.state = STATE_ARRAY;
+        this.schema = schema;
+    }
+
+    /**
+     * Advances the cursor to the next event. A pending field's content is skipped without being unescaped.
+     * 
+     * @return the new event, one of {@link #START_ARRAY}, {@link #END_ARRAY}, {@link #START_OBJECT},
+     *         {@link #END_OBJECT}, {@link #FIELD}, {@link #NULL_FIELD} or {@link #END_DOCUMENT}
+     * @throws DeserializationException
+     *             if the input is malformed or ends prematurely
+     * @throws IOException
+     *             if the underlying reader throws it
+     */
+    public int next() throws IOException
+    {
+        int c;
+        switch (state)
+        {
+            case STATE_INIT:
+                do
+                {
+                    c = read();
+                }
+                while (c != -1 && c != ARRAY_BEGIN && c != OBJECT_BEGIN);
+                if (c == -1)
+                {
+                    state = STATE_END;
+                    return event = END_DOCUMENT;
+                }
+                if (c == OBJECT_BEGIN)
+                {
+                    if (peek(0) != BACKSLASH || peek(1) != Schema.MARKER)
+                        return startObject();
+                    readSchema();
+                    c = read();
+                    if (c != ARRAY_BEGIN)
+                        throw malformed(c, "'" + ARRAY_BEGIN + "'");
+                }
+                inArray = true;
+                state = STATE_ARRAY;
+                return event = START_ARRAY;
+
+            case STATE_ARRAY:
+                c = read();
+                if (c == ARRAY_END)
+                    return endArray();
+                if (c != OBJECT_BEGIN)
+                    throw malformed(c, "'" + OBJECT_BEGIN + "' or '" + ARRAY_END + "'");
+                return startObject();
+
+            case STATE_ARRAY_NEXT:
+                c = read();
+                if (c == -1 && fragment)
+                {
+                    state = STATE_END;
+                    return event = END_DOCUMENT;
+                }
+                if (c == ARRAY_END)
+                    return endArray();
+                if (c != SEPARATOR)
+                    throw malformed(c, "'" + SEPARATOR + "' or '" + ARRAY_END + "'");
+                c = read();
+                if (c != OBJECT_BEGIN)
+                    throw malformed(c, "'" + OBJECT_BEGIN + "'");
+                return startObject();
+
+            case STATE_OBJECT:
+                if (peek(0) == OBJECT_END)
+                {
+                    ++bufferPos;
+                    return endObject();
+                }
+                return startField();
+
+            case STATE_FIELD_PENDING:
+            case STATE_FIELD_DONE:
+                if (state == STATE_FIELD_PENDING)
+                    scanText(false);
+                c = read();
+                if (c == SEPARATOR)
+                    return startField();
+                if (c == OBJECT_END)
+                    return endObject();
+                throw malformed(c, "'" + SEPARATOR + "' or '" + OBJECT_END + "'");
+
+            default:
+                return event = END_DOCUMENT;
+        }
+    }
+
+    /**
+     * Skips the remainder of the current object. Afterwards, the cursor is at the object's {@link #END_OBJECT} event.
+     * Has no effect if the cursor is not inside an object.
+     * 
+     * @throws DeserializationException
+     *             if the input is malformed or ends prematurely
+     * @throws IOException
+     *             if the underlying reader throws it
+     */
+    public void skipObject() throws IOException
+    {
+        if (event != START_OBJECT && event != FIELD && event != NULL_FIELD)
+            return;
+        while (next() != END_OBJECT)
+        {
+        }
+    }
+
+    /**
+     * Returns the schema header preceding the array, which is read by the first call to {@link #next()}.
+     * 
+     * @return the array's schema, or null if there is none
+     */
+    public Schema getSchema()
+    {
+        return schema;
+    }
+
+    /**
+     * @return the current event, or 0 if {@link #next()} was not called yet
+     */
+    public int getEventType()
+    {
+        return event;
+    }
+
+    /**
+     * @return the zero-based index of the current field inside its object, or -1 if the cursor is at the object's
+     *         begin
+     */
+    public int getFieldIndex()
+    {
+        return fieldIndex;
+    }
+
+    /**
+     * Returns the unescaped text of the current field. Each call creates a new String, unless a
+     * {@link #setStringTable(StringTable) string table} is set; use {@link #getTextCharacters()} and
+     * {@link #getTextLength()} for allocation-free access.
+     * 
+     * @return the current field's unescaped text, or null for a {@link #NULL_FIELD}
+     * @throws IllegalStateException
+     *             if the cursor is not at a field
+     * @throws DeserializationException
+     *             if the field is malformed or ends prematurely
+     * @throws IOException
+     *             if the underlying reader throws it
+     */
+    public String getText() throws IOException
+    {
+        if (event == NULL_FIELD)
+            return null;
+        ensureText();
+        return strings != null ? strings.intern(text, 0, textLength) : new String(text, 0, textLength);
+    }
+
+    /**
+     * Sets the table which {@link #getText()} and the binding of String fields use to share repeated values.
+     * 
+     * @param strings
+     *            the table, or null to create a new String for each field
+     */
+    public void setStringTable(StringTable strings)
+    {
+        this.strings = strings;
+    }
+
+    /**
+     * @return the table sharing repeated values, or null if none is set
+     */
+    public StringTable getStringTable()
+    {
+        return strings;
+    }
+
+    /**
+     * Returns the internal buffer holding the unescaped text of the current field, starting at index 0. The buffer is
+     * reused for subsequent fields, so clients must neither modify nor keep it.
+     * 
+     * @return the internal text buffer, valid up to {@link #getTextLength()}
+     * @throws IllegalStateException
+     *             if the cursor is not at a field
+     * @throws DeserializationException
+     *             if the field is malformed or ends prematurely
+     * @throws IOException
+     *             if the underlying reader throws it
+     * @see #getTextLength()
+     */
+    public char[] getTextCharacters() throws IOException
+    {
+        if (event != NULL_FIELD)
+            ensureText();
+        return text;
+    }
+
+    /**
+     * @return the length of the current field's unescaped text, 0 for a {@link #NULL_FIELD}
+     * @throws IllegalStateException
+     *             if the cursor is not at a field
+     * @throws DeserializationException
+     *             if the field is malformed or ends prematurely
+     * @throws IOException
+     *             if the underlying reader throws it
+     * @see #getTextCharacters()
+     */
+    public int getTextLength() throws IOException
+    {
+        if (event == NULL_FIELD)
+            return 0;
+        ensureText();
+        return textLength;
+    }
+
+    private void ensureText() throws IOException
+    {
+        if (event != FIELD)
+            throw new IllegalStateException("not at a field"); //$NON-NLS-1$
+        if (state == STATE_FIELD_PENDING)
+            scanText(true);
+    }
+
+    /**
+     * Reads the schema header. The caller checked that the object starts with the escaped {@link Schema#MARKER}, whose
+     * backslash is skipped here, since an escaped ordinary character is dropped like by
+     * {@link DeSerializer#unescape(String)}.
+     */
+    private void readSchema() throws IOException
+    {
+        startObject();
+        ++bufferPos;
+        next();
+        String marker = getText();
+        List<String> fields = new ArrayList<String>();
+        while (next() != END_OBJECT)
+        {
+            fields.add(getText());
+        }
+        schema = Schema.read(marker, fields);
+    }
+
+    /**
+     * @return the number of characters consumed so far
+     */
+    long getPosition()
+    {
+        return consumed + bufferPos;
+    }
+
+    private int startObject()
+    {
+        state = STATE_OBJECT;
+        fieldIndex = -1;
+        return event = START_OBJECT;
+    }
+
+    private int endObject()
+    {
+        state = inArray ? STATE_ARRAY_NEXT : STATE_END;
+        return event = END_OBJECT;
+    }
+
+    private int endArray()
+    {
+        state = STATE_END;
+        return event = END_ARRAY;
+    }
+
+    private int startField() throws IOException
+    {
+        ++fieldIndex;
+        textLength = 0;
+        if (peek(0) == BACKSLASH && peek(1) == '0')
+        {
+            int c = peek(2);
+            if (c == SEPARATOR || c == OBJECT_END)
+            {
+                bufferPos += 2;
+                state = STATE_FIELD_DONE;
+                return event = NULL_FIELD;
+            }
+        }
+        state = STATE_FIELD_PENDING;
+        return event = FIELD;
+    }
+
+    /**
+     * Scans the pending field up to, but excluding, its delimiter.
+     * 
+     * @param copy
+     *            whether to unescape the field's content into the text buffer or to simply skip it
+     */
+    private void scanText(boolean copy) throws IOException
+    {
+        int length = 0;
+        int stop, run, c;
+        while (true)
+        {
+            if (bufferPos == bufferLimit && !fill())
+                throw malformed(-1, "'" + OBJECT_END + "'");
+            // copy or skip the run of ordinary characters at once
+            stop = DelimiterScanner.indexOf(buffer, bufferPos, bufferLimit);
+            run = stop - bufferPos;
+            if (run > 0)
+            {
+                if (copy)
+                {
+                    ensureTextCapacity(length + run);
+                    System.arraycopy(buffer, bufferPos, text, length, run);
+                }
+                length += run;
+                bufferPos = stop;
+            }
+            if (stop == bufferLimit)
+                continue;
+            c = buffer[bufferPos++];
+            switch (c)
+            {
+                case SEPARATOR:
+                case OBJECT_END:
+                    --bufferPos; // leave the delimiter for next()
+                    textLength = length;
+                    state = STATE_FIELD_DONE;
+                    return;
+
+                case BACKSLASH:
+                    c = read();
+                    if (c == -1)
+                        throw malformed(c, "an escaped character");
+                    // like DeSerializer.unescape, an escaped ordinary character is dropped, and so is a whole
+                    // surrogate pair
+                    if (DelimiterScanner.isSpecial(c))
+                    {
+                        if (copy)
+                        {
+                            ensureTextCapacity(length + 1);
+                            text[length] = (char) c;
+                        }
+                        ++length;
+                    }
+                    else if (Character.isHighSurrogate((char) c) && Character.isLowSurrogate((char) peek(0)))
+                    {
+                        ++bufferPos;
+                    }
+                    break;
+
+                default:
+                    throw malformed(c, "an escaped '" + (char) c + "'");
+            }
+        }
+    }
+
+    private void ensureTextCapacity(int capacity)
+    {
+        if (capacity > text.length)
+        {
+            char[] larger = new char[Math.max(capacity, text.length << 1)];
+            System.arraycopy(text, 0, larger, 0, text.length);
+            text = larger;
+        }
+    }
+
+    private int read() throws IOException
+    {
+        if (bufferPos == bufferLimit && !fill())
+            return -1;
+        return buffer[bufferPos++];
+    }
+
+    /**
+     * Returns the character at the given offset from the current position without consuming it.
+     */
+    private int peek(int offset) throws IOException
+    {
+        while (bufferPos + offset >= bufferLimit)
+        {
+            if (!fill())
+                return -1;
+        }
+        return buffer[bufferPos + offset];
+    }
+
+    /**
+     * Reads further characters behind the buffer's current content, moving the unread rest to the buffer's front
+     * before.
+     * 
+     * @return whether any characters were read
+     */
+    private boolean fill() throws IOException
+    {
+        if (bufferPos > 0)
+        {
+            int rest = bufferLimit - bufferPos;
+            System.arraycopy(buffer, bufferPos, buffer, 0, rest);
+            consumed += bufferPos;
+            bufferPos = 0;
+            bufferLimit = rest;
+        }
+        int space = buffer.length - bufferLimit;
+        if (reader != null)
+        {
+            int count;
+            do
+            {
+                count = reader.read(buffer, bufferLimit, space);
+            }
+            while (count == 0);
+            if (count < 0)
+                return false;
+            bufferLimit += count;
+        }
+        else
+        {
+            int count = Math.min(space, sequenceEnd - sequencePos);
+            if (count <= 0)
+                return false;
+            int end = sequencePos + count;
+            if (sequence instanceof String)
+            {
+                ((String) sequence).getChars(sequencePos, end, buffer, bufferLimit);
+            }
+            else if (sequence instanceof StringBuilder)
+            {
+                ((StringBuilder) sequence).getChars(sequencePos, end, buffer, bufferLimit);
+            }
+            else
+            {
+                for (int i = 0; i < count; ++i)
+                {
+                    buffer[bufferLimit + i] = sequence.charAt(sequencePos + i);
+                }
+            }
+            sequencePos = end;
+            bufferLimit += count;
+        }
+        return true;
+    }
+
+    private DeserializationException malformed(int found, String expected)
+    {
+        if (found == -1)
+            return new DeserializationException("unexpected end of input, expected " + expected); //$NON-NLS-1$
+        long offset = consumed + bufferPos - 1;
+        return new DeserializationException("unexpected '" + (char) found + "' at offset " + offset + ", expected " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                + expected);
+    }
+
+    /**
+     * Closes the underlying {@link Reader}, if any.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        state = STATE_END;
+        if (reader != null)
+            reader.close();
+    }
+}
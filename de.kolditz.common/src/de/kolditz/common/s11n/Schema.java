@@ -0,0 +1,265 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 15:21:44
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The optional schema header of a serialized array, which lists the names of the objects' fields once together with a
+ * version number chosen by the client. The header is written as an object directly before the array's
+ * {@link DeSerializer#ARRAY_BEGIN}, starting with an escaped <code>#</code>:
+ * 
+ * <pre>
+ * {\#,1,name,age}[{Alice,42},{Bob,23}]
+ * </pre>
+ * 
+ * Since {@link DeSerializer#escape(String)} never escapes a <code>#</code>, a header cannot be confused with an
+ * ordinary object. The header of a {@link ColumnarSerializer columnar} array starts with an escaped <code>#C</code>
+ * instead. The {@link PullDeserializer} and all deserializers based on it recognize and skip the header. Readers
+ * may use it to bind fields by name instead of position, or to {@link #project(String...) project} a few columns out of
+ * wide objects.
+ * <p>
+ * Instances are immutable.
+ * </p>
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public final class Schema
+{
+    /**
+     * The first field of a header, written escaped.
+     */
+    static final char MARKER = '#';
+
+    /**
+     * Appended to the {@link #MARKER} for a columnar array.
+     */
+    private static final char COLUMNAR = 'C';
+
+    /**
+     * Creates the schema of the given class, listing the fields in the order used by
+     * {@link ObjectSerializer#serialize(StringBuilder, Object)}.
+     * 
+     * @param clazz
+     *            the class
+     * @param version
+     *            the client's version of the schema
+     * @return the schema
+     */
+    public static Schema forClass(Class<?> clazz, int version)
+    {
+        FieldAccessor[] accessors = FieldAccessor.forClass(clazz);
+        String[] names = new String[accessors.length];
+        for (int i = 0; i < names.length; ++i)
+        {
+            names[i] = accessors[i].getName();
+        }
+        return new Schema(version, names);
+    }
+
+    private final int version;
+    private final String[] fieldNames;
+    private final Map<String, Integer> indices;
+    private final boolean columnar;
+
+    /**
+     * @param version
+     *            the client's version of the schema
+     * @param fieldNames
+     *            the names of the objects' fields in serialization order, which must be unique
+     * @throws IllegalArgumentException
+     *             if a name is null or not unique
+     */
+    public Schema(int version, String... fieldNames)
+    {
+        this(version, fieldNames, false);
+    }
+
+    private Schema(int version, String[] fieldNames, boolean columnar)
+    {
+        this.version = version;
+        this.columnar = columnar;
+        this.fieldNames = fieldNames.clone();
+        this.indices = new HashMap<String, Integer>(fieldNames.length * 2);
+        for (int i = 0; i < fieldNames.length; ++i)
+        {
+            if (fieldNames[i] == null)
+                throw new IllegalArgumentException("field name " + i + " is null"); //$NON-NLS-1$ //$NON-NLS-2$
+            if (indices.put(fieldNames[i], Integer.valueOf(i)) != null)
+                throw new IllegalArgumentException("duplicate field name " + fieldNames[i]); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * @return the client's version of the schema
+     */
+    public int getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * @return whether the array is written column by column
+     * @see ColumnarSerializer
+     */
+    public boolean isColumnar()
+    {
+        return columnar;
+    }
+
+    /**
+     * @return a copy of this schema describing a columnar array
+     */
+    Schema toColumnar()
+    {
+        return columnar ? this : new Schema(version, fieldNames, true);
+    }
+
+    /**
+     * @return the number of fields
+     */
+    public int getFieldCount()
+    {
+        return fieldNames.length;
+    }
+
+    /**
+     * @param index
+     *            the field's position
+     * @return the field's name
+     */
+    public String getFieldName(int index)
+    {
+        return fieldNames[index];
+    }
+
+    /**
+     * @return the unmodifiable list of field names in serialization order
+     */
+    public List<String> getFieldNames()
+    {
+        return Collections.unmodifiableList(Arrays.asList(fieldNames));
+    }
+
+    /**
+     * @param fieldName
+     *            the field's name
+     * @return the field's position, or -1 if there is no such field
+     */
+    public int indexOf(String fieldName)
+    {
+        Integer index = indices.get(fieldName);
+        return index != null ? index.intValue() : -1;
+    }
+
+    /**
+     * Builds the projection index for the given columns, i.e. maps each field position to the column it belongs to.
+     * 
+     * @param columns
+     *            the names of the requested columns
+     * @return an array of {@link #getFieldCount()} elements, containing each field's column index or -1 if the field
+     *         is not requested. Columns which are not part of this schema are not contained.
+     */
+    public int[] project(String... columns)
+    {
+        int[] projection = new int[fieldNames.length];
+        Arrays.fill(projection, -1);
+        int index;
+        for (int i = 0; i < columns.length; ++i)
+        {
+            index = indexOf(columns[i]);
+            if (index >= 0)
+                projection[index] = i;
+        }
+        return projection;
+    }
+
+    /**
+     * Ensures that the given schema, if any, describes the row layout.
+     * 
+     * @throws DeserializationException
+     *             if the schema is columnar
+     */
+    static void checkRows(Schema schema) throws DeserializationException
+    {
+        if (schema != null && schema.columnar)
+            throw new DeserializationException("columnar input, use a ColumnarDeserializer"); //$NON-NLS-1$
+    }
+
+    /**
+     * Writes this schema as a header.
+     * 
+     * @param out
+     *            the target
+     * @throws IOException
+     *             if the {@link Appendable} throws it
+     */
+    void write(Appendable out) throws IOException
+    {
+        out.append(DeSerializer.OBJECT_BEGIN).append((char) DeSerializer.BACKSLASH).append(MARKER);
+        if (columnar)
+            out.append(COLUMNAR);
+        out.append(DeSerializer.SEPARATOR).append(Integer.toString(version));
+        for (String name : fieldNames)
+        {
+            out.append(DeSerializer.SEPARATOR);
+            DeSerializer.escape(name, out);
+        }
+        out.append(DeSerializer.OBJECT_END);
+    }
+
+    /**
+     * Creates a schema from the unescaped fields of a header.
+     * 
+     * @param marker
+     *            the unescaped marker field
+     * @param fields
+     *            the following fields
+     * @throws DeserializationException
+     *             if the header is malformed
+     */
+    static Schema read(String marker, List<String> fields) throws DeserializationException
+    {
+        boolean columnar;
+        if (marker != null && marker.length() == 1 && marker.charAt(0) == MARKER)
+            columnar = false;
+        else if (marker != null && marker.length() == 2 && marker.charAt(0) == MARKER && marker.charAt(1) == COLUMNAR)
+            columnar = true;
+        else
+            throw new DeserializationException("unknown schema header " + marker); //$NON-NLS-1$
+        if (fields.isEmpty())
+            throw new DeserializationException("schema header without version"); //$NON-NLS-1$
+        try
+        {
+            int version = Integer.parseInt(fields.get(0));
+            return new Schema(version, fields.subList(1, fields.size()).toArray(new String[fields.size() - 1]),
+                    columnar);
+        }
+        catch (IllegalArgumentException e)
+        {
+            // includes NumberFormatException
+            throw new DeserializationException("malformed schema header: " + e.getMessage(), e); //$NON-NLS-1$
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return (columnar ? "Columnar schema " : "Schema ") + version + " " + Arrays.toString(fieldNames); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+}
@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 09:20:51
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A light-weight, non thread-safe, streaming deserializer for whole arrays which were serialized by an
+ * {@link ArraySerializer}. Unlike {@link ArrayDeserializer#deserialize(String)}, the input is tokenized in a single
+ * forward pass directly from the underlying {@link Reader} or {@link CharSequence}, and each object's fields are
+ * returned as soon as the object is complete. Hence, the memory used is proportional to a single object and not to the
+ * whole array. Does currently not support nested arrays.
+ * <p>
+ * This class is a convenience wrapper around a {@link PullDeserializer}. Clients which only need some of each object's
+ * fields should either {@link #project(String...) project} them by name, if the input has a {@link Schema} header,
+ * or use the {@link PullDeserializer} directly in order to avoid unescaping and allocating the others.
+ * <p>
+ * Typical usage:
+ * 
+ * <pre>
+ * StreamingArrayDeserializer deserializer = new StreamingArrayDeserializer(reader);
+ * String[] fields;
+ * while ((fields = deserializer.nextObject()) != null)
+ * {
+ *     // process fields
+ * }
+ * </pre>
+ * 
+ * </p>
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public class StreamingArrayDeserializer extends DeSerializer implements Closeable
+{
+    private final PullDeserializer parser;
+    private final List<String> fields = new ArrayList<String>();
+    private int[] projection;
+    private int projectionEnd;
+    private int columnCount;
+
+    /**
+     * Creates a deserializer reading from the given {@link Reader}. Clients need not wrap the reader in a
+     * {@link java.io.BufferedReader} since this class does its own buffering.
+     * 
+     * @param reader
+     *            the reader providing the escaped serialization string
+     */
+    public StreamingArrayDeserializer(Reader reader)
+    {
+        parser = new PullDeserializer(reader);
+    }
+
+    /**
+     * Creates a deserializer reading from the given {@link CharSequence}, e.g. a {@link String} or a
+     * {@link StringBuilder}. The sequence must not be modified while this deserializer is in use.
+     * 
+     * @param serialized
+     *            the escaped serialization string
+     */
+    public StreamingArrayDeserializer(CharSequence serialized)
+    {
+        parser = new PullDeserializer(serialized);
+    }
+
+    /**
+     * Creates a deserializer on top of the given parser.
+     * 
+     * @param parser
+     *            the parser, which must not be used by clients while this deserializer is in use
+     */
+    StreamingArrayDeserializer(PullDeserializer parser)
+    {
+        assert parser != null;
+        this.parser = parser;
+    }
+
+    /**
+     * Reads the next object of the array. Leading characters before the array's begin are skipped, just like
+     * {@link ArrayDeserializer#deserialize(String)} does. An empty object (<code>{}</code>) yields an empty array. A
+     * single object which is not enclosed by an array is treated like an array containing only this object.
+     * 
+     * @return the next object's unescaped fields (null fields stay null), or only the projected columns if
+     *         {@link #project(String...)} was called, or null when the end of the array was reached
+     * @throws DeserializationException
+     *             if the input is malformed or ends before the array is closed
+     * @throws IOException
+     *             if the underlying reader throws it
+     */
+    public String[] nextObject() throws IOException
+    {
+        int event = parser.next();
+        if (event == PullDeserializer.START_ARRAY)
+        {
+            Schema.checkRows(parser.getSchema());
+            event = parser.next();
+        }
+        if (event != PullDeserializer.START_OBJECT)
+            return null;
+        if (projection != null)
+            return nextProjection();
+        fields.clear();
+        while (parser.next() != PullDeserializer.END_OBJECT)
+        {
+            fields.add(parser.getText());
+        }
+        return fields.toArray(new String[fields.size()]);
+    }
+
+    private String[] nextProjection() throws IOException
+    {
+        String[] columns = new String[columnCount];
+        int column;
+        for (int i = 0; i < projectionEnd; ++i)
+        {
+            if (parser.next() == PullDeserializer.END_OBJECT)
+                return columns;
+            column = projection[i];
+            if (column >= 0)
+                columns[column] = parser.getText();
+        }
+        // skip the remaining fields without unescaping them
+        parser.skipObject();
+        return columns;
+    }
+
+    /**
+     * Returns the input's schema header. Reads the input up to the array's begin if necessary.
+     * 
+     * @return the schema, or null if the input has no schema header
+     * @throws DeserializationException
+     *             if the input is malformed
+     * @throws IOException
+     *             if the underlying reader throws it
+     */
+    public Schema getSchema() throws IOException
+    {
+        if (parser.getEventType() == 0)
+            parser.next();
+        return parser.getSchema();
+    }
+
+    /**
+     * Sets the table used to share repeated field values between the returned objects.
+     * 
+     * @param strings
+     *            the table, or null to create a new String for each field
+     * @see PullDeserializer#setStringTable(StringTable)
+     */
+    public void setStringTable(StringTable strings)
+    {
+        parser.setStringTable(strings);
+    }
+
+    /**
+     * Restricts all further objects returned by {@link #nextObject()} to the given columns. The projection index is
+     * built only once from the input's {@link Schema}. The unneeded fields are skipped by position without being
+     * unescaped, and each object is left as soon as its last requested field was read. Columns which are not part of
+     * the schema are always null.
+     * 
+     * @param columns
+     *            the names of the requested columns, which define the order of the returned fields
+     * @throws DeserializationException
+     *             if the input has no schema header or is malformed
+     * @throws IOException
+     *             if the underlying reader throws it
+     */
+    public void project(String... columns) throws IOException
+    {
+        Schema schema = getSchema();
+        if (schema == null)
+            throw new DeserializationException("the input has no schema header"); //$NON-NLS-1$
+        Schema.checkRows(schema);
+        projection = schema.project(columns);
+        projectionEnd = 0;
+        for (int i = 0; i < projection.length; ++i)
+        {
+            if (projection[i] >= 0)
+                projectionEnd = i + 1;
+        }
+        columnCount = columns.length;
+    }
+
+    /**
+     * Reads the next object of the array directly into a new instance of the given class. Primitive fields are parsed
+     * without creating intermediate Strings.
+     * 
+     * @param clazz
+     *            the class to instantiate, which needs a no-argument constructor
+     * @return the new instance, or null when the end of the array was reached
+     * @throws DeserializationException
+     *             if the input is malformed or a field cannot be converted to its type
+     * @throws IOException
+     *             if the underlying reader throws it
+     * @see ObjectDeserializer#deserialize(PullDeserializer, Class)
+     */
+    public <T> T nextObject(Class<T> clazz) throws IOException
+    {
+        return ObjectDeserializer.deserialize(parser, clazz);
+    }
+
+    /**
+     * Closes the underlying {@link Reader}, if any.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        parser.close();
+    }
+}
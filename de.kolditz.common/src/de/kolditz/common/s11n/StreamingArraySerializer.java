@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 10:48:02
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Collection;
+
+/**
+ * A light-weight, non thread-safe serializer for whole arrays / collections which writes each object directly to an
+ * {@link Appendable}, e.g. a {@link Writer}, instead of collecting the whole array in memory like the
+ * {@link ArraySerializer} does. Thus, arbitrarily large collections can be serialized to a file or a socket with a
+ * constant amount of heap. The output is identical to the {@link ArraySerializer}'s output. Does currently not support
+ * nested arrays.
+ * <p>
+ * Clients must call {@link #finish()} or {@link #close()} in order to terminate the array.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ */
+public class StreamingArraySerializer extends DeSerializer implements Closeable, Flushable
+{
+    /**
+     * The charset used by {@link #forUtf8(OutputStream)}.
+     */
+    public static final Charset UTF8 = Charset.forName("UTF-8"); //$NON-NLS-1$
+
+    /**
+     * Serializes a whole collection of objects to the given {@link Appendable} and terminates the array. Does not
+     * close the {@link Appendable}.
+     * 
+     * @param out
+     *            the target
+     * @param objects
+     *            the collection of objects
+     * @throws IOException
+     *             if the {@link Appendable} throws it
+     * @see ObjectSerializer#serialize(Appendable, Object)
+     */
+    public static void serialize(Appendable out, Collection<?> objects) throws IOException
+    {
+        StreamingArraySerializer serializer = new StreamingArraySerializer(out);
+        for (Object o : objects)
+        {
+            serializer.addObject(o);
+        }
+        serializer.finish();
+    }
+
+    private final Appendable out;
+    private final Schema schema;
+    private boolean empty = true;
+    private boolean finished = false;
+
+    /**
+     * Creates a serializer appending to the given {@link Appendable}. If it is a {@link Writer}, clients should
+     * consider buffering it.
+     * 
+     * @param out
+     *            the target
+     */
+    public StreamingArraySerializer(Appendable out)
+    {
+        this(out, null);
+    }
+
+    /**
+     * Creates a serializer appending to the given {@link Appendable}, which writes the given schema header before the
+     * array.
+     * 
+     * @param out
+     *            the target
+     * @param schema
+     *            the schema of the objects, or null for no header
+     */
+    public StreamingArraySerializer(Appendable out, Schema schema)
+    {
+        assert out != null;
+        this.out = out;
+        this.schema = schema;
+    }
+
+    /**
+     * Creates a serializer writing the UTF-8 encoded output to the given {@link OutputStream}. The stream is buffered
+     * internally. This is a factory method rather than a constructor, since a {@link java.io.PrintStream} is both an
+     * {@link OutputStream} and an {@link Appendable}.
+     * 
+     * @param out
+     *            the target stream
+     * @return the new serializer
+     */
+    public static StreamingArraySerializer forUtf8(OutputStream out)
+    {
+        return forUtf8(out, null);
+    }
+
+    /**
+     * Creates a serializer writing the UTF-8 encoded output to the given {@link OutputStream}, starting with the given
+     * schema header. The stream is buffered internally.
+     * 
+     * @param out
+     *            the target stream
+     * @param schema
+     *            the schema of the objects, or null for no header
+     * @return the new serializer
+     */
+    public static StreamingArraySerializer forUtf8(OutputStream out, Schema schema)
+    {
+        return new StreamingArraySerializer(new BufferedWriter(new OutputStreamWriter(out, UTF8)), schema);
+    }
+
+    private void check(Object argument) throws IOException
+    {
+        assert argument != null;
+
+        if (finished)
+            throw new IllegalStateException("array already finished"); //$NON-NLS-1$
+        if (empty)
+        {
+            begin();
+            empty = false;
+        }
+        else
+        {
+            out.append(SEPARATOR);
+        }
+    }
+
+    private void begin() throws IOException
+    {
+        if (schema != null)
+            schema.write(out);
+        out.append(ARRAY_BEGIN);
+    }
+
+    /**
+     * Writes another Object denoted by this object.
+     * 
+     * @param object
+     *            the object whose fields shall be serialized
+     * @throws IOException
+     *             if the {@link Appendable} throws it
+     * @see ObjectSerializer#serialize(Appendable, Object)
+     */
+    public void addObject(Object object) throws IOException
+    {
+        check(object);
+        ObjectSerializer.serialize(out, object);
+    }
+
+    /**
+     * Writes another Object denoted by this array of strings (its fields' string values).
+     * 
+     * @param fields
+     *            the object's fields' values
+     * @throws IOException
+     *             if the {@link Appendable} throws it
+     */
+    public void addObject(String... fields) throws IOException
+    {
+        check(fields);
+        ObjectSerializer.serialize(out, fields);
+    }
+
+    /**
+     * Writes another Object denoted by this collection of strings (its fields' string values).
+     * 
+     * @param fields
+     *            the object's fields' values
+     * @throws IOException
+     *             if the {@link Appendable} throws it
+     */
+    public void addObject(Collection<String> fields) throws IOException
+    {
+        check(fields);
+        ObjectSerializer.serialize(out, fields);
+    }
+
+    /**
+     * Terminates the array and flushes the target. No further objects may be added afterwards. Further calls have no
+     * effect.
+     * 
+     * @throws IOException
+     *             if the {@link Appendable} throws it
+     */
+    public void finish() throws IOException
+    {
+        if (finished)
+            return;
+        finished = true;
+        if (empty)
+            begin();
+        out.append(ARRAY_END);
+        flush();
+    }
+
+    /**
+     * Flushes the target if it is {@link Flushable}.
+     */
+    @Override
+    public void flush() throws IOException
+    {
+        if (out instanceof Flushable)
+            ((Flushable) out).flush();
+    }
+
+    /**
+     * {@link #finish() Finishes} the array and closes the target if it is {@link Closeable}.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        finish();
+        if (out instanceof Closeable)
+            ((Closeable) out).close();
+    }
+}
@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Till Kolditz.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * created on 17.10.2026 at 18:37:10
+ * 
+ *  Contributors:
+ *      Till Kolditz
+ *******************************************************************************/
+package de.kolditz.common.s11n;
+
+import java.util.Arrays;
+
+/**
+ * A bounded table of shared {@link String}s, which deserializers use to return the same instance for field values they
+ * have seen before instead of creating a new copy each time. This pays off for arrays repeating a small set of values,
+ * e.g. enum names or country codes, millions of times.
+ * <p>
+ * The table is a direct-mapped cache over the hash of the unescaped characters, so looking up a value never allocates,
+ * and a value whose slot is taken replaces the former one. Hence, its memory is bounded by the capacity and the maximum
+ * interned length, independent of the input's size. The hit rate is reported by {@link #getHits()},
+ * {@link #getMisses()} and {@link #getHitRate()}.
+ * <p>
+ * Like the deserializers, a table is not thread-safe. It may be shared by several deserializers used by the same
+ * thread, e.g. in order to read several files.
+ * 
+ * @author Till Kolditz - Till.Kolditz@GoogleMail.com
+ * @see PullDeserializer#setStringTable(StringTable)
+ */
+public final class StringTable
+{
+    /**
+     * The default number of slots.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * The default maximum length of interned values. Longer values are rarely repeated.
+     */
+    public static final int DEFAULT_MAX_LENGTH = 32;
+
+    private final String[] strings;
+    private final int[] hashes;
+    private final int mask;
+    private final int maxLength;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long bypassed = 0;
+    private long savedChars = 0;
+
+    /**
+     * Creates a table with the {@link #DEFAULT_CAPACITY} and the {@link #DEFAULT_MAX_LENGTH}.
+     */
+    public StringTable()
+    {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * @param capacity
+     *            the number of slots, which is rounded up to a power of two
+     * @param maxLength
+     *            the maximum length of interned values; longer values are always copied
+     */
+    public StringTable(int capacity, int maxLength)
+    {
+        if (capacity <= 0 || capacity > 1 << 30)
+            throw new IllegalArgumentException("capacity must be within [1, 2^30]"); //$NON-NLS-1$
+        if (maxLength < 0)
+            throw new IllegalArgumentException("maxLength must not be negative"); //$NON-NLS-1$
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+            size <<= 1;
+        strings = new String[size];
+        hashes = new int[size];
+        mask = size - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns the shared instance of the given value, creating and remembering it if it was not seen before.
+     * 
+     * @param chars
+     *            the buffer holding the value
+     * @param offset
+     *            the value's start in the buffer
+     * @param length
+     *            the value's length
+     * @return a String equal to the given characters
+     */
+    public String intern(char[] chars, int offset, int length)
+    {
+        if (length > maxLength)
+        {
+            ++bypassed;
+            return new String(chars, offset, length);
+        }
+        int end = offset + length;
+        int h = 0;
+        for (int i = offset; i < end; ++i)
+        {
+            h = 31 * h + chars[i];
+        }
+        int slot = spread(h) & mask;
+        String s = strings[slot];
+        if (s != null && hashes[slot] == h && s.length() == length)
+        {
+            int i = 0;
+            while (i < length && s.charAt(i) == chars[offset + i])
+            {
+                ++i;
+            }
+            if (i == length)
+                return hit(s);
+        }
+        return miss(slot, h, new String(chars, offset, length));
+    }
+
+    /**
+     * Returns the shared instance of the given value, remembering it if it was not seen before.
+     * 
+     * @param value
+     *            the value, e.g. a reused view on a buffer
+     * @return a String equal to the given value
+     */
+    public String intern(CharSequence value)
+    {
+        int length = value.length();
+        if (length > maxLength)
+        {
+            ++bypassed;
+            return value.toString();
+        }
+        int h = 0;
+        for (int i = 0; i < length; ++i)
+        {
+            h = 31 * h + value.charAt(i);
+        }
+        int slot = spread(h) & mask;
+        String s = strings[slot];
+        if (s != null && hashes[slot] == h && s.length() == length)
+        {
+            int i = 0;
+            while (i < length && s.charAt(i) == value.charAt(i))
+            {
+                ++i;
+            }
+            if (i == length)
+                return hit(s);
+        }
+        return miss(slot, h, value.toString());
+    }
+
+    private static int spread(int h)
+    {
+        return h ^ (h >>> 16) ^ (h >>> 8);
+    }
+
+    private String hit(String s)
+    {
+        ++hits;
+        savedChars += s.length();
+        return s;
+    }
+
+    private String miss(int slot, int h, String s)
+    {
+        ++misses;
+        strings[slot] = s;
+        hashes[slot] = h;
+        return s;
+    }
+
+    /**
+     * @return the number of values which were returned from the table
+     */
+    public long getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * @return the number of values which were not found in the table and had to be copied
+     */
+    public long getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * @return the number of values which were copied without a lookup, because they exceeded the maximum length
+     */
+    public long getBypassed()
+    {
+        return bypassed;
+    }
+
+    /**
+     * @return the share of all looked up values which were returned from the table, or 0 if there were none
+     */
+    public double getHitRate()
+    {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Returns the number of characters which did not have to be copied thanks to the table. Each hit additionally
+     * saved a String and a char[] header.
+     * 
+     * @return the sum of the lengths of all hits
+     */
+    public long getSavedChars()
+    {
+        return savedChars;
+    }
+
+    /**
+     * Resets the statistics, but keeps the table's values.
+     */
+    public void resetStatistics()
+    {
+        hits = 0;
+        misses = 0;
+        bypassed = 0;
+        savedChars = 0;
+    }
+
+    /**
+     * Removes all values from the table and resets the statistics.
+     */
+    public void clear()
+    {
+        Arrays.fill(strings, null);
+        Arrays.fill(hashes, 0);
+        resetStatistics();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "StringTable [hits=" + hits + ", misses=" + misses + ", bypassed=" + bypassed + ", hitRate=" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                + getHitRate() + ", savedChars=" + savedChars + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+}